@@ -0,0 +1,117 @@
+package com.example.auth;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * 인증 실패 경로 처리량 비교 (예외 vs stack trace 없는 예외 vs AuthResult)
+ *
+ * 실제 요청은 필터 체인, 프록시 등을 거쳐 호출 stack 이 깊으므로 STACK_DEPTH 만큼 재귀 호출한 위치에서 실패시킨다.
+ *
+ * 실행 : ./gradlew jmh
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthFailurePathBenchmark {
+
+    private static final int STACK_DEPTH = 100;
+    private static final String SECRET_KEY = "benchmark-secret-key";
+
+    private String expiredToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        expiredToken = JwtTokenUtil.createToken("benchmark-user", SECRET_KEY, -TimeUnit.MINUTES.toMillis(1));
+    }
+
+    @Benchmark
+    public int notFoundException() {
+        return atDepth(STACK_DEPTH, AuthFailurePathBenchmark::throwingLookup);
+    }
+
+    @Benchmark
+    public int notFoundStacklessException() {
+        return atDepth(STACK_DEPTH, AuthFailurePathBenchmark::stacklessLookup);
+    }
+
+    @Benchmark
+    public int notFoundAuthResult() {
+        return atDepth(STACK_DEPTH, AuthFailurePathBenchmark::resultLookup);
+    }
+
+    @Benchmark
+    public int expiredTokenException() {
+        return atDepth(STACK_DEPTH, () -> legacyVerify(expiredToken));
+    }
+
+    @Benchmark
+    public int expiredTokenVerify() {
+        return atDepth(STACK_DEPTH, () -> JwtTokenUtil.verify(expiredToken, SECRET_KEY).getStatus().ordinal());
+    }
+
+    @Benchmark
+    public int malformedTokenVerify() {
+        return atDepth(STACK_DEPTH, () -> JwtTokenUtil.verify("not-a-token", SECRET_KEY).getStatus().ordinal());
+    }
+
+    //  유저가 없으면 IllegalArgumentException 을 던지던 기존 조회 방식
+    private static int throwingLookup() {
+        try {
+            Optional.empty().orElseThrow(() -> new IllegalArgumentException("유저가 존재하지 않습니다."));
+            return 1;
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    //  PrincipalDetailsService 방식 (Spring Security 규약상 예외가 필요한 경우)
+    private static int stacklessLookup() {
+        try {
+            Optional.empty().orElseThrow(() -> new StacklessUsernameNotFoundException("해당 유저를 찾을 수 없습니다."));
+            return 1;
+        } catch (StacklessUsernameNotFoundException e) {
+            return 0;
+        }
+    }
+
+    private static int resultLookup() {
+        AuthResult<Object> result = Optional.empty().map(AuthResult::found).orElseGet(AuthResult::notFound);
+        return result.getStatus().ordinal();
+    }
+
+    //  기존 JwtTokenUtil.verify 방식 (jjwt 가 만료 시간을 확인하고 예외를 던짐)
+    private static int legacyVerify(String token) {
+        try {
+            Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token);
+            return 1;
+        } catch (ExpiredJwtException e) {
+            return 0;
+        }
+    }
+
+    private static int atDepth(int depth, IntSupplier operation) {
+        if (depth == 0) {
+            return operation.getAsInt();
+        }
+        return atDepth(depth - 1, operation) + 1;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.auth;
+
+import com.example.domain.User;
+import com.example.domain.enums.UserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenFilter 의 Authentication 생성, PrincipalDetails.getAuthorities 의 요청당 할당량 비교
+ *
+ * 실행 : ./gradlew jmh   (build.gradle 에서 gc profiler 사용 => gc.alloc.rate.norm 이 호출당 할당 byte)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationAllocationBenchmark {
+
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
+    private MockHttpServletRequest request;
+    private PrincipalDetails principalDetails;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/jwt-login/info");
+        request.setRemoteAddr("127.0.0.1");
+        user = User.builder().id(1L).loginId("user1").nickname("유저1").role(UserRole.USER).build();
+        principalDetails = new PrincipalDetails(user);
+    }
+
+    //  기존 JwtTokenFilter 방식
+    @Benchmark
+    public Authentication usernamePasswordToken() {
+        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+                user.getLoginId(), null, List.of(new SimpleGrantedAuthority(user.getRole().name())));
+        token.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        return token;
+    }
+
+    @Benchmark
+    public Authentication loginUserAuthentication() {
+        return new LoginUserAuthentication(user.getLoginId(), RoleAuthorities.of(user.getRole()),
+                UserRole.permissionsOf(user.getRole()), DETAILS_SOURCE.buildDetails(request));
+    }
+
+    //  기존 PrincipalDetails.getAuthorities 방식
+    @Benchmark
+    public Collection<? extends GrantedAuthority> authoritiesPerCall() {
+        Collection<GrantedAuthority> collections = new ArrayList<>();
+        collections.add(() -> user.getRole().name());
+        return collections;
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> roleAuthorities() {
+        return principalDetails.getAuthorities();
+    }
+}
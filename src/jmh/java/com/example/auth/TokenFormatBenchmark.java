@@ -0,0 +1,64 @@
+package com.example.auth;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 와 compact 형식(c1.)의 Token 크기, 발급 / 검증 시간 비교
+ *
+ * 실행 : ./gradlew jmh   (Token 크기는 setup 에서 출력)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenFormatBenchmark {
+
+    private static final String SECRET_KEY = "benchmark-secret-key";
+    private static final String LOGIN_ID = "user1";
+    private static final long EXPIRE_TIME_MS = TimeUnit.HOURS.toMillis(1);
+
+    private String jwt;
+    private String compactToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwt = JwtTokenUtil.createToken(LOGIN_ID, SECRET_KEY, EXPIRE_TIME_MS);
+        compactToken = JwtTokenUtil.createCompactToken(LOGIN_ID, SECRET_KEY, EXPIRE_TIME_MS);
+        System.out.printf("%nAuthorization header : JWT %d chars, compact %d chars%n",
+                ("Bearer " + jwt).length(), ("Bearer " + compactToken).length());
+    }
+
+    @Benchmark
+    public JwtTokenVerification verifyJwt() {
+        return JwtTokenUtil.verify(jwt, SECRET_KEY);
+    }
+
+    @Benchmark
+    public JwtTokenVerification verifyCompact() {
+        return JwtTokenUtil.verify(compactToken, SECRET_KEY);
+    }
+
+    @Benchmark
+    public String createJwt() {
+        return JwtTokenUtil.createToken(LOGIN_ID, SECRET_KEY, EXPIRE_TIME_MS);
+    }
+
+    @Benchmark
+    public String createCompact() {
+        return JwtTokenUtil.createCompactToken(LOGIN_ID, SECRET_KEY, EXPIRE_TIME_MS);
+    }
+}
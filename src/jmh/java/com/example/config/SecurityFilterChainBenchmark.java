@@ -0,0 +1,184 @@
+package com.example.config;
+
+import com.example.activeuser.ActiveUserTracker;
+import com.example.auth.JwtTokenFilter;
+import com.example.auth.JwtTokenRenewer;
+import com.example.auth.MyAccessDeniedHandler;
+import com.example.auth.MyAuthenticationEntryPoint;
+import com.example.auth.oauth.PrincipalOauth2UserService;
+import com.example.domain.enums.UserRole;
+import com.example.service.UserLookupService;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.oauth2.client.CommonOAuth2Provider;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * 경로별 SecurityFilterChain (SecurityConfig) 과 기존 단일 chain 의 요청당 필터 처리 시간 비교
+ *
+ * 두 구성 모두 springSecurityFilterChain (FilterChainProxy) 만 호출하고, Authorization header 가 없는 GET 요청을 보낸다.
+ * 기존 구성은 user-028 이전 SecurityConfig 와 같게 모든 요청이 Form Login, OAuth2 Login, JwtTokenFilter 가 있는 chain 하나를 거친다.
+ *
+ * 실행 : ./gradlew jmh
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityFilterChainBenchmark {
+
+    private static final String SECRET_KEY = "benchmark-secret-key";
+
+    @Param({"/cookie-login/info", "/session-login/info", "/jwt-login/info", "/security-login/login", "/css/style.css"})
+    private String path;
+
+    private AnnotationConfigWebApplicationContext perPrefixContext;
+    private AnnotationConfigWebApplicationContext singleChainContext;
+    private Filter perPrefixChain;
+    private Filter singleChain;
+
+    //  SecurityConfig 가 주입받는 bean (Authorization header 가 없는 요청에서는 호출되지 않음)
+    @Configuration
+    @EnableWebMvc
+    static class BenchmarkBeans {
+
+        @Bean
+        UserLookupService userLookupService() {
+            return mock(UserLookupService.class);
+        }
+
+        @Bean
+        JwtTokenRenewer jwtTokenRenewer() {
+            return mock(JwtTokenRenewer.class);
+        }
+
+        @Bean
+        PrincipalOauth2UserService principalOauth2UserService() {
+            return mock(PrincipalOauth2UserService.class);
+        }
+
+        @Bean
+        ActiveUserTracker activeUserTracker() {
+            return new ActiveUserTracker();
+        }
+
+        @Bean
+        ClientRegistrationRepository clientRegistrationRepository() {
+            return new InMemoryClientRegistrationRepository(CommonOAuth2Provider.GOOGLE.getBuilder("google")
+                    .clientId("benchmark").clientSecret("benchmark").build());
+        }
+    }
+
+    //  user-028 이전 구성 : 모든 요청이 같은 chain 을 거침
+    @Configuration
+    @EnableWebSecurity
+    static class SingleChainSecurityConfig {
+
+        @Bean
+        SecurityFilterChain filterChain(HttpSecurity http, UserLookupService userLookupService, JwtTokenRenewer jwtTokenRenewer,
+                                        ActiveUserTracker activeUserTracker,
+                                        PrincipalOauth2UserService principalOauth2UserService) throws Exception {
+            return http
+                    .csrf(AbstractHttpConfigurer::disable)
+                    .addFilterBefore(new JwtTokenFilter(userLookupService, SECRET_KEY, jwtTokenRenewer, activeUserTracker),
+                            UsernamePasswordAuthenticationFilter.class)
+                    .authorizeHttpRequests((requests) -> requests
+                            .requestMatchers("/security-login/info", "/jwt-login/info").authenticated()
+                            .requestMatchers("/security-login/admin/**", "/jwt-login/admin/**").hasAuthority(UserRole.ADMIN.name())
+                            .anyRequest().permitAll())
+                    .formLogin((form) -> form
+                            .usernameParameter("loginId")
+                            .passwordParameter("password")
+                            .loginPage("/security-login/login")
+                            .defaultSuccessUrl("/security-login")
+                            .failureUrl("/security-login/login"))
+                    .logout((form) -> form
+                            .logoutUrl("/security-login/logout")
+                            .invalidateHttpSession(true).deleteCookies("JSESSIONID"))
+                    .oauth2Login((form) -> form
+                            .loginPage("/security-login/login")
+                            .defaultSuccessUrl("/security-login")
+                            .userInfoEndpoint((service) -> service
+                                    .userService(principalOauth2UserService)))
+                    .exceptionHandling(form -> form
+                            .authenticationEntryPoint(new MyAuthenticationEntryPoint())
+                            .accessDeniedHandler(new MyAccessDeniedHandler()))
+                    .build();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        perPrefixContext = start(BenchmarkBeans.class, SecurityConfig.class);
+        singleChainContext = start(BenchmarkBeans.class, SingleChainSecurityConfig.class);
+        perPrefixChain = perPrefixContext.getBean("springSecurityFilterChain", Filter.class);
+        singleChain = singleChainContext.getBean("springSecurityFilterChain", Filter.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        perPrefixContext.close();
+        singleChainContext.close();
+    }
+
+    private static AnnotationConfigWebApplicationContext start(Class<?>... configClasses) {
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("benchmark", Map.of("jwt.secret-key", SECRET_KEY)));
+        context.register(configClasses);
+        context.refresh();
+        return context;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse perPrefixChains() throws Exception {
+        return doFilter(perPrefixChain);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse singleChain() throws Exception {
+        return doFilter(singleChain);
+    }
+
+    private MockHttpServletResponse doFilter(Filter springSecurityFilterChain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        springSecurityFilterChain.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.repository;
+
+import com.example.domain.User;
+import com.example.domain.enums.UserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 유저 조회 경로 비교 (읽기/쓰기 트랜잭션 + 엔티티 vs readOnly + 엔티티 vs readOnly + UserSummary projection)
+ *
+ * H2 메모리 DB 위에 JPA 만 올린 최소 context 로 측정한다. (웹, Security 제외)
+ * readOnly 트랜잭션은 flush 와 dirty checking 스냅샷을 생략하고, projection 은 필요한 컬럼만 읽어 엔티티를 만들지 않는다.
+ *
+ * 실행 : ./gradlew jmh   (-prof gc 결과의 gc.alloc.rate.norm 으로 조회당 할당량 비교)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserReadBenchmark {
+
+    private static final int USER_COUNT = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private int next;
+
+    @Configuration
+    @EnableAutoConfiguration(exclude = {SecurityAutoConfiguration.class,
+            UserDetailsServiceAutoConfiguration.class, OAuth2ClientAutoConfiguration.class})
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class,
+            includeFilters = @Filter(type = FilterType.ASSIGNABLE_TYPE, classes = UserRepository.class))
+    static class BenchmarkJpaConfig {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        //  application.yml (MySQL) 대신 아래 설정만 사용
+        context = new SpringApplicationBuilder(BenchmarkJpaConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.config.name=user-read-benchmark",
+                        "--spring.datasource.url=jdbc:h2:mem:user-read-benchmark;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.open-in-view=false",
+                        "--logging.level.root=WARN");
+        userRepository = context.getBean(UserRepository.class);
+
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        List<User> users = new ArrayList<>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(User.builder()
+                    .loginId("user" + i)
+                    .password("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchmark")
+                    .nickname("nickname" + i)
+                    .role(i % 10 == 0 ? UserRole.ADMIN : UserRole.USER)
+                    .build());
+        }
+        userRepository.saveAll(users);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String nextLoginId() {
+        next = (next + 1) % USER_COUNT;
+        return "user" + next;
+    }
+
+    //  user-027 이전 : 클래스 기본 @Transactional (읽기/쓰기) 에서 엔티티 조회
+    @Benchmark
+    public Optional<User> readWriteEntity() {
+        String loginId = nextLoginId();
+        return readWriteTransaction.execute(status -> userRepository.findByLoginId(loginId));
+    }
+
+    @Benchmark
+    public Optional<User> readOnlyEntity() {
+        String loginId = nextLoginId();
+        return readOnlyTransaction.execute(status -> userRepository.findByLoginId(loginId));
+    }
+
+    @Benchmark
+    public Optional<UserSummary> readOnlySummary() {
+        String loginId = nextLoginId();
+        return readOnlyTransaction.execute(status -> userRepository.findSummaryByLoginId(loginId));
+    }
+}
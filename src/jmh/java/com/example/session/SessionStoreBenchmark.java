@@ -0,0 +1,153 @@
+package com.example.session;
+
+import com.example.auth.PrincipalDetails;
+import com.example.domain.User;
+import com.example.domain.enums.UserRole;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.session.StandardSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 세션이 많은 상태의 요청 처리 비교 (모든 세션을 heap 에 보관 vs idle 세션을 OffHeapSessionStore 로 내보냄)
+ *
+ * 로그인 세션 SESSION_COUNT 개 중 HOT_SESSION_COUNT 개만 최근에 사용한 세션이고, 요청의 90% 가 이 세션으로 온다.
+ * off-heap 에서는 나머지 세션이 store 에 있으므로 이 세션으로 온 요청은 PersistentManager 처럼 다시 읽고(swap in) 다시 내보낸다.(swap out)
+ * 요청마다 응답 크기만큼 할당해서 짧게 사는 객체가 계속 생기는 상태를 만든다.
+ *
+ * 실행 : ./gradlew jmh   (setup 에서 출력하는 live heap 크기와 -prof gc 결과의 gc.count, gc.time 비교)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@Threads(8)
+public class SessionStoreBenchmark {
+
+    private static final int SESSION_COUNT = 100_000;
+    private static final int HOT_SESSION_COUNT = 2_000;
+    private static final int ATTRIBUTE_SIZE = 1024;
+    private static final int RESPONSE_SIZE = 8 * 1024;
+
+    @Param({"heap", "off-heap"})
+    public String storage;
+
+    private Path directory;
+    private StandardManager manager;
+    private OffHeapSessionStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("session-store-benchmark");
+        manager = new StandardManager();
+        manager.setContext(new StandardContext());
+        store = new OffHeapSessionStore(directory, 64 * 1024 * 1024, 16);
+        store.setManager(manager);
+        store.start();
+
+        for (int i = 0; i < SESSION_COUNT; i++) {
+            StandardSession session = (StandardSession) manager.createEmptySession();
+            session.setValid(true);
+            session.setCreationTime(System.currentTimeMillis());
+            session.setMaxInactiveInterval(1800);
+            session.setId(sessionId(i), false);
+            session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, securityContext(i));
+            session.setAttribute("recent-view", new byte[ATTRIBUTE_SIZE]);
+
+            if (isOffHeap() && i >= HOT_SESSION_COUNT) {
+                swapOut(session);
+            }
+        }
+
+        System.gc();
+        long liveHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        System.out.printf("%n[%s] heap 세션 %d 개, off-heap 세션 %d 개, live heap %d MB, off-heap %d MB%n",
+                storage, manager.getActiveSessions(), store.getSize(), liveHeap >> 20, store.usedBytes() >> 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        store.stop();
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int request() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(10) == 0 ? random.nextInt(SESSION_COUNT) : random.nextInt(HOT_SESSION_COUNT);
+        String id = sessionId(index);
+
+        //  같은 세션을 동시에 swap in / swap out 하지 않도록 세션 id 로 묶는다. (heap 에서도 같은 lock 을 건다)
+        synchronized (id.intern()) {
+            StandardSession session = (StandardSession) manager.findSession(id);
+            boolean swappedIn = session == null;
+            if (swappedIn) {
+                session = (StandardSession) store.load(id);
+                store.remove(id);
+                manager.add(session);
+            }
+
+            session.access();
+            Object securityContext = session.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+            byte[] response = new byte[RESPONSE_SIZE];
+            response[index % RESPONSE_SIZE] = (byte) securityContext.hashCode();
+            session.endAccess();
+
+            //  idle 세션은 요청이 끝나면 다시 내보내서 heap 에 남는 세션 수를 유지한다.
+            if (swappedIn) {
+                swapOut(session);
+            }
+            return response.length;
+        }
+    }
+
+    private boolean isOffHeap() {
+        return "off-heap".equals(storage);
+    }
+
+    private void swapOut(StandardSession session) throws Exception {
+        store.save(session);
+        manager.remove(session);
+        session.recycle();
+    }
+
+    private static String sessionId(int index) {
+        return "session-" + index;
+    }
+
+    private static SecurityContextImpl securityContext(int index) {
+        User user = User.builder()
+                .id(index)
+                .loginId("user" + index)
+                .password("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchmark")
+                .nickname("nickname" + index)
+                .role(UserRole.USER)
+                .build();
+        PrincipalDetails principal = new PrincipalDetails(user);
+        return new SecurityContextImpl(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -2,7 +2,7 @@ package com.example;
 
 import com.example.domain.User;
 import com.example.domain.enums.UserRole;
-import com.example.repository.UserRepository;
+import com.example.repository.UserStore;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -12,7 +12,7 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class MakeInitData {
 
-    private final UserRepository userRepository;
+    private final UserStore userStore;
     private final BCryptPasswordEncoder encoder;
 
     @PostConstruct
@@ -23,7 +23,7 @@ public class MakeInitData {
                 .nickname("관리자1")
                 .role(UserRole.ADMIN)
                 .build();
-        userRepository.save(admin1);
+        userStore.save(admin1);
 
         User user1 = User.builder()
                 .loginId("user1")
@@ -31,7 +31,7 @@ public class MakeInitData {
                 .nickname("User1")
                 .role(UserRole.USER)
                 .build();
-        userRepository.save(user1);
+        userStore.save(user1);
 
         User admin2 = User.builder()
                 .loginId("admin2")
@@ -39,7 +39,7 @@ public class MakeInitData {
                 .nickname("관리자")
                 .role(UserRole.ADMIN)
                 .build();
-        userRepository.save(admin2);
+        userStore.save(admin2);
 
         User user2 = User.builder()
                 .loginId("user")
@@ -47,6 +47,6 @@ public class MakeInitData {
                 .nickname("유저1")
                 .role(UserRole.USER)
                 .build();
-        userRepository.save(user2);
+        userStore.save(user2);
     }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.example.activeuser;
+
+import com.example.domain.enums.LoginType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 로그인 방식, 기간(1분 / 1시간 / 24시간) 별 활성 유저 수 추정
+ *
+ * 인증된 요청마다 loginId 를 기록한다. (JwtTokenFilter, Cookie / Session / Security 로그인 Controller)
+ * 로그인 방식마다 기간별 SketchRing 을 가지고 있으므로 사용하는 메모리는 유저 수와 상관없이 고정이다.
+ * (sketch 4KB x bucket (7 + 61 + 25) x 로그인 방식 5 = 약 1.9MB)
+ * 전체 유저 수는 로그인 방식별 sketch 를 합쳐서 구하므로 여러 방식으로 로그인한 유저도 한 번만 센다.
+ */
+@Component
+public class ActiveUserTracker {
+
+    private final LongSupplier clock;
+    private final Map<LoginType, Map<ActiveUserWindow, SketchRing>> rings = new EnumMap<>(LoginType.class);
+
+    public ActiveUserTracker() {
+        this(System::currentTimeMillis);
+    }
+
+    ActiveUserTracker(LongSupplier clock) {
+        this.clock = clock;
+        for (LoginType loginType : LoginType.values()) {
+            Map<ActiveUserWindow, SketchRing> windows = new EnumMap<>(ActiveUserWindow.class);
+            for (ActiveUserWindow window : ActiveUserWindow.values()) {
+                windows.put(window, new SketchRing(window));
+            }
+            rings.put(loginType, windows);
+        }
+    }
+
+    public void record(LoginType loginType, String loginId) {
+        if (loginId == null) {
+            return;
+        }
+        long hash = HyperLogLog.hash(loginId);
+        long now = clock.getAsLong();
+        for (SketchRing ring : rings.get(loginType).values()) {
+            ring.offer(hash, now);
+        }
+    }
+
+    //  다른 서버의 sketch 와 합칠 때 사용 (HyperLogLog.toBytes 로 전달)
+    public HyperLogLog sketch(LoginType loginType, ActiveUserWindow window) {
+        return rings.get(loginType).get(window).merged(clock.getAsLong());
+    }
+
+    //  모든 로그인 방식을 합친 sketch
+    public HyperLogLog sketch(ActiveUserWindow window) {
+        HyperLogLog merged = new HyperLogLog();
+        for (LoginType loginType : LoginType.values()) {
+            merged.merge(sketch(loginType, window));
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.activeuser;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 활성 유저를 세는 기간
+ * 기간을 bucketCount 개의 bucket 으로 나눠서 bucket 마다 sketch 를 두고, 조회할 때 기간에 해당하는 bucket 을 합친다.
+ * 현재 bucket 은 아직 진행 중이므로 실제로 합치는 기간은 (window - bucket 하나) ~ window 이다.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ActiveUserWindow {
+    MINUTE(TimeUnit.SECONDS.toMillis(10), 6),
+    HOUR(TimeUnit.MINUTES.toMillis(1), 60),
+    DAY(TimeUnit.HOURS.toMillis(1), 24);
+
+    private final long bucketMillis;
+    private final int bucketCount;
+}
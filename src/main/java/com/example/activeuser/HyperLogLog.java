@@ -0,0 +1,111 @@
+package com.example.activeuser;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 서로 다른 값의 개수를 추정하는 HyperLogLog sketch (precision 12 => register 4096개, 표준 오차 약 1.6%)
+ *
+ * register(6 bit 면 충분하지만 다루기 쉽게 1 byte)를 int 하나에 4개씩 AtomicIntegerArray 에 저장한다. (sketch 하나에 4KB)
+ * register 는 커지기만 하므로 CAS 로 lock 없이 여러 스레드에서 동시에 추가할 수 있다.
+ * 두 sketch 의 register 별 최대값이 합집합의 sketch 이므로(merge) 다른 서버의 sketch 와 합칠 수 있다.
+ *
+ * 직렬화 형식 (toBytes) : byte 버전, byte precision, byte[4096] register
+ */
+public class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 2;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final AtomicIntegerArray words = new AtomicIntegerArray(REGISTERS / 4);
+
+    //  hash 의 앞 12 bit 로 register 를 고르고, 나머지 bit 의 앞쪽 0 개수 + 1 을 register 에 기록
+    public void offer(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        raise(index, rank);
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int index = 0; index < REGISTERS; index++) {
+            raise(index, other.register(index));
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int index = 0; index < REGISTERS; index++) {
+            int register = register(index);
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        //  값이 적을 때는 빈 register 수로 추정(linear counting)하는 것이 더 정확하다.
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[HEADER_SIZE + REGISTERS];
+        bytes[0] = VERSION;
+        bytes[1] = PRECISION;
+        for (int index = 0; index < REGISTERS; index++) {
+            bytes[HEADER_SIZE + index] = (byte) register(index);
+        }
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length != HEADER_SIZE + REGISTERS || bytes[0] != VERSION || bytes[1] != PRECISION) {
+            throw new IllegalArgumentException("지원하지 않는 sketch 형식입니다.");
+        }
+        HyperLogLog sketch = new HyperLogLog();
+        for (int index = 0; index < REGISTERS; index++) {
+            sketch.raise(index, bytes[HEADER_SIZE + index]);
+        }
+        return sketch;
+    }
+
+    //  문자열의 64 bit hash (FNV-1a 후 murmur3 finalizer 로 bit 를 고르게 섞는다)
+    public static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    int register(int index) {
+        return (words.get(index >> 2) >>> ((index & 3) << 3)) & 0xFF;
+    }
+
+    private void raise(int index, int value) {
+        int word = index >> 2;
+        int shift = (index & 3) << 3;
+        while (true) {
+            int current = words.get(word);
+            if (((current >>> shift) & 0xFF) >= value) {
+                return;
+            }
+            int updated = (current & ~(0xFF << shift)) | (value << shift);
+            if (words.compareAndSet(word, current, updated)) {
+                return;
+            }
+        }
+    }
+}
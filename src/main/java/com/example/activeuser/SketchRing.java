@@ -0,0 +1,56 @@
+package com.example.activeuser;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 시간 bucket 별 sketch 를 돌려쓰는 ring (최근 bucketCount 개의 bucket 을 합친다)
+ * 칸은 bucketCount + 1 개로, 기간이 지난 칸은 새 bucket 이 덮어쓴다.
+ * 칸을 새 bucket 으로 바꿀 때는 CAS 로 교체하므로 lock 이 없다. (교체 직전에 이전 bucket 에 추가된 값은 버려질 수 있다)
+ */
+class SketchRing {
+
+    private record Bucket(long epoch, HyperLogLog sketch) {
+    }
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final AtomicReferenceArray<Bucket> slots;
+
+    SketchRing(ActiveUserWindow window) {
+        this.bucketMillis = window.getBucketMillis();
+        this.bucketCount = window.getBucketCount();
+        this.slots = new AtomicReferenceArray<>(bucketCount + 1);
+    }
+
+    void offer(long hash, long now) {
+        long epoch = now / bucketMillis;
+        int slot = (int) (epoch % slots.length());
+
+        Bucket bucket = slots.get(slot);
+        while (bucket == null || bucket.epoch() < epoch) {
+            Bucket created = new Bucket(epoch, new HyperLogLog());
+            if (slots.compareAndSet(slot, bucket, created)) {
+                bucket = created;
+            } else {
+                bucket = slots.get(slot);
+            }
+        }
+        //  다른 스레드가 이미 다음 bucket 으로 바꾼 경우(오래된 시각) 버린다.
+        if (bucket.epoch() == epoch) {
+            bucket.sketch().offer(hash);
+        }
+    }
+
+    //  now 기준 기간에 해당하는 bucket 을 합친 sketch
+    HyperLogLog merged(long now) {
+        long epoch = now / bucketMillis;
+        HyperLogLog merged = new HyperLogLog();
+        for (int slot = 0; slot < slots.length(); slot++) {
+            Bucket bucket = slots.get(slot);
+            if (bucket != null && bucket.epoch() <= epoch && epoch - bucket.epoch() < bucketCount) {
+                merged.merge(bucket.sketch());
+            }
+        }
+        return merged;
+    }
+}
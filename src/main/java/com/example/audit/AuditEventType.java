@@ -0,0 +1,27 @@
+package com.example.audit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+//  code 는 segment 파일에 저장되는 값이므로 바꾸지 않는다. (새 이벤트는 다음 code 를 사용)
+@Getter
+@RequiredArgsConstructor
+public enum AuditEventType {
+    LOGIN_SUCCESS((byte) 0),
+    LOGIN_FAIL((byte) 1),
+    LOGOUT((byte) 2),
+    JOIN((byte) 3),
+    OAUTH_JOIN((byte) 4);     //  OAuth 로그인으로 처음 가입(유저 생성)
+
+    private final byte code;
+
+    //  알 수 없는 code 면 null
+    public static AuditEventType fromCode(byte code) {
+        for (AuditEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.audit;
+
+import com.example.domain.enums.LoginType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 로그인, 로그아웃, 회원가입, OAuth 가입 감사 로그
+ *
+ * 요청 스레드는 ring buffer 에 이벤트를 넣기만 하고(publish), 파일에 쓰는 작업은 consumer 스레드 하나가 따로 처리한다.
+ * 저장된 로그는 AuditLogReader 로 조회할 수 있다.
+ */
+@Slf4j
+@Component
+public class AuditLog {
+
+    private static final int DRAIN_BATCH_SIZE = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FORCE_INTERVAL_MILLIS = 1000;
+
+    private final AuditRingBuffer ringBuffer;
+    private final AuditSegmentWriter writer;
+    private final Thread consumer;
+    //  파일에 쓰지 못한 이벤트 수 (ring buffer 가 가득 차서 버린 수와 합쳐서 보여준다)
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public AuditLog(@Value("${audit.dir}") String directory,
+                    @Value("${audit.segment-size}") int segmentSize,
+                    @Value("${audit.buffer-size}") int bufferSize) throws IOException {
+        this.ringBuffer = new AuditRingBuffer(bufferSize);
+        this.writer = new AuditSegmentWriter(Paths.get(directory), segmentSize);
+        this.consumer = new Thread(this::consume, "audit-log-writer");
+        this.consumer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        consumer.start();
+    }
+
+    /**
+     * 감사 로그 이벤트 기록
+     * ring buffer 에 넣기만 하고 바로 return 한다. 버퍼가 가득 찬 경우 이벤트는 버려진다.
+     */
+    public void publish(AuditEventType type, LoginType loginType, String subject) {
+        ringBuffer.tryPublish(System.currentTimeMillis(), type, loginType, subject);
+    }
+
+    public long getDroppedCount() {
+        return ringBuffer.getDroppedCount() + failed.get();
+    }
+
+    private void consume() {
+        long lastForce = System.currentTimeMillis();
+        boolean dirty = false;
+
+        while (true) {
+            int count = ringBuffer.drain(this::write, DRAIN_BATCH_SIZE);
+            if (count > 0) {
+                dirty = true;
+                continue;
+            }
+
+            //  종료 요청 후 버퍼를 다 비웠으면 종료
+            if (!running) {
+                break;
+            }
+
+            long now = System.currentTimeMillis();
+            if (dirty && now - lastForce >= FORCE_INTERVAL_MILLIS) {
+                try {
+                    writer.force();
+                } catch (RuntimeException e) {
+                    log.error("감사 로그 디스크 반영 실패", e);
+                }
+                lastForce = now;
+                dirty = false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        writer.close();
+    }
+
+    //  레코드 하나를 쓰지 못해도 consumer 스레드는 멈추지 않고 다음 레코드를 쓴다. (버린 이벤트로 센다)
+    private void write(long timestamp, AuditEventType type, LoginType loginType, String subject) {
+        try {
+            writer.append(timestamp, type, loginType, subject);
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            log.error("감사 로그 저장 실패 : {} {}", type, subject, e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        consumer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
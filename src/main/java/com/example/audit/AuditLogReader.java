@@ -0,0 +1,113 @@
+package com.example.audit;
+
+import com.example.domain.enums.LoginType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * 감사 로그 segment 파일 조회 도구
+ *
+ * 사용법 (실행 중인 서버와 별개로 실행 가능)
+ *  java -cp app.jar -Dloader.main=com.example.audit.AuditLogReader org.springframework.boot.loader.launch.PropertiesLauncher \
+ *      <audit 디렉토리> [--type LOGIN_FAIL] [--login-type JWT] [--subject user1] [--from 2024-01-01T00:00:00Z] [--to ...]
+ */
+public class AuditLogReader {
+
+    /**
+     * directory 의 segment 파일들을 순서대로 읽어서 filter 를 통과한 레코드를 consumer 에 넘겨준다.
+     */
+    public static void read(Path directory, Predicate<AuditRecord> filter, Consumer<AuditRecord> consumer) throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(AuditSegmentWriter::isSegmentFile).sorted().toList();
+        }
+
+        for (Path segment : segments) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                readSegment(buffer, filter, consumer);
+            }
+        }
+    }
+
+    private static void readSegment(ByteBuffer buffer, Predicate<AuditRecord> filter, Consumer<AuditRecord> consumer) {
+        while (buffer.remaining() >= AuditSegmentWriter.HEADER_SIZE) {
+            int recordLength = buffer.getShort();
+            //  길이가 0 이면 아직 쓰지 않은 영역 => segment 끝
+            if (recordLength <= 0 || recordLength - 2 > buffer.remaining()) {
+                return;
+            }
+
+            long timestamp = buffer.getLong();
+            AuditEventType type = AuditEventType.fromCode(buffer.get());
+            LoginType loginType = LoginType.fromCode(buffer.get());
+            int subjectLength = buffer.getShort();
+            byte[] subject = new byte[subjectLength];
+            buffer.get(subject);
+
+            //  이 버전이 모르는 code (더 새로운 버전이 쓴 레코드) 는 건너뛴다.
+            if (type == null || loginType == null) {
+                continue;
+            }
+
+            AuditRecord record = new AuditRecord(timestamp, type, loginType, new String(subject, StandardCharsets.UTF_8));
+            if (filter.test(record)) {
+                consumer.accept(record);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: AuditLogReader <dir> [--type TYPE] [--login-type LOGIN_TYPE] [--subject SUBJECT] [--from ISO-8601] [--to ISO-8601]");
+            System.exit(1);
+        }
+
+        Path directory = Paths.get(args[0]);
+        Predicate<AuditRecord> filter = record -> true;
+
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--type" -> {
+                    AuditEventType type = AuditEventType.valueOf(value);
+                    filter = filter.and(record -> record.getType() == type);
+                }
+                case "--login-type" -> {
+                    LoginType loginType = LoginType.valueOf(value);
+                    filter = filter.and(record -> record.getLoginType() == loginType);
+                }
+                case "--subject" -> filter = filter.and(record -> value.equals(record.getSubject()));
+                case "--from" -> {
+                    long from = Instant.parse(value).toEpochMilli();
+                    filter = filter.and(record -> record.getTimestamp() >= from);
+                }
+                case "--to" -> {
+                    long to = Instant.parse(value).toEpochMilli();
+                    filter = filter.and(record -> record.getTimestamp() < to);
+                }
+                default -> throw new IllegalArgumentException("알 수 없는 옵션 : " + args[i]);
+            }
+        }
+
+        long[] count = new long[1];
+        read(directory, filter, record -> {
+            System.out.println(record);
+            count[0]++;
+        });
+        System.err.println(count[0] + " records");
+    }
+}
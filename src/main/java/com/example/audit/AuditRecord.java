@@ -0,0 +1,22 @@
+package com.example.audit;
+
+import com.example.domain.enums.LoginType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+//  segment 파일에서 읽어온 감사 로그 한 건
+@Getter
+@AllArgsConstructor
+public class AuditRecord {
+    private long timestamp;         // epoch millis
+    private AuditEventType type;
+    private LoginType loginType;
+    private String subject;         // loginId
+
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli(timestamp) + " " + type + " " + loginType + " " + subject;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.audit;
+
+import com.example.domain.enums.LoginType;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 감사 로그 이벤트를 담는 고정 크기 ring buffer (여러 producer, 하나의 consumer)
+ *
+ * slot 은 생성 시점에 모두 할당해두고, 이벤트 필드를 배열에 직접 써서 publish 마다 객체를 만들지 않는다. (enum 은 참조만 저장)
+ * producer 는 CAS 로 sequence 를 하나 가져와 slot 에 쓰고, published 배열에 sequence 를 기록해 consumer 에게 알린다.
+ * 버퍼가 가득 차 있으면 기다리지 않고 버린다. (로그인 요청이 감사 로그 때문에 멈추지 않도록)
+ */
+public class AuditRingBuffer {
+
+    public interface Handler {
+        void onEvent(long timestamp, AuditEventType type, LoginType loginType, String subject);
+    }
+
+    private final int capacity;
+    private final int mask;
+
+    private final long[] timestamps;
+    private final AuditEventType[] types;
+    private final LoginType[] loginTypes;
+    private final String[] subjects;
+
+    //  slot 마다 마지막으로 publish 된 sequence (-1 : 아직 없음)
+    private final AtomicLongArray published;
+
+    //  다음에 producer 가 가져갈 sequence
+    private final AtomicLong claimSequence = new AtomicLong();
+    //  다음에 consumer 가 읽을 sequence
+    private final AtomicLong consumeSequence = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    public AuditRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity 는 2의 거듭제곱이어야 합니다. : " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.timestamps = new long[capacity];
+        this.types = new AuditEventType[capacity];
+        this.loginTypes = new LoginType[capacity];
+        this.subjects = new String[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1L);
+        }
+    }
+
+    /**
+     * 이벤트 publish
+     * 버퍼가 가득 차 있으면 false return (이벤트는 버려진다)
+     */
+    public boolean tryPublish(long timestamp, AuditEventType type, LoginType loginType, String subject) {
+        long sequence;
+        do {
+            sequence = claimSequence.get();
+            if (sequence - consumeSequence.get() >= capacity) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!claimSequence.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        timestamps[index] = timestamp;
+        types[index] = type;
+        loginTypes[index] = loginType;
+        subjects[index] = subject;
+
+        //  slot 에 쓴 내용이 consumer 에게 보이도록 마지막에 sequence 기록
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * publish 된 이벤트를 순서대로 최대 maxEvents 개 읽어서 handler 에 넘겨준다.
+     * consumer 스레드 하나에서만 호출해야 한다.
+     *
+     * @return 읽은 이벤트 수
+     */
+    public int drain(Handler handler, int maxEvents) {
+        long sequence = consumeSequence.get();
+        int count = 0;
+
+        while (count < maxEvents) {
+            int index = (int) (sequence & mask);
+            if (published.get(index) != sequence) {
+                break;
+            }
+
+            handler.onEvent(timestamps[index], types[index], loginTypes[index], subjects[index]);
+            subjects[index] = null;
+
+            sequence++;
+            count++;
+            //  slot 을 다 읽은 뒤에 producer 가 다시 쓸 수 있도록 consume sequence 이동
+            consumeSequence.lazySet(sequence);
+        }
+        return count;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
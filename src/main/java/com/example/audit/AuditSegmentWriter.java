@@ -0,0 +1,134 @@
+package com.example.audit;
+
+import com.example.domain.enums.LoginType;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * 감사 로그를 memory-mapped segment 파일에 append 하는 writer (consumer 스레드 하나에서만 사용)
+ *
+ * segment 파일은 segmentSize 크기로 미리 만들어 map 해두고, 레코드를 순서대로 이어 쓴다.
+ * 남은 공간이 부족하면 다음 번호의 segment 파일을 새로 만든다.
+ * 새로 만든 파일은 0 으로 채워져 있으므로 길이가 0 인 레코드가 segment 의 끝이다.
+ *
+ * 레코드 형식 (big endian)
+ *  short  레코드 전체 길이
+ *  long   timestamp (epoch millis)
+ *  byte   AuditEventType code
+ *  byte   LoginType code
+ *  short  subject 길이
+ *  byte[] subject (UTF-8, MAX_SUBJECT_BYTES 까지 문자 단위로 자름)
+ *
+ * enum 순서가 바뀌어도 기존 파일을 읽을 수 있도록 ordinal 이 아닌 고정 code 를 저장한다.
+ */
+public class AuditSegmentWriter implements AutoCloseable {
+
+    static final String SEGMENT_PREFIX = "audit-";
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final int HEADER_SIZE = 2 + 8 + 1 + 1 + 2;
+    static final int MAX_SUBJECT_BYTES = 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private long segmentIndex;
+    private MappedByteBuffer buffer;
+
+    public AuditSegmentWriter(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+
+        Files.createDirectories(directory);
+        //  이전에 쓰던 segment 는 건드리지 않고 다음 번호부터 새로 시작
+        this.segmentIndex = lastSegmentIndex(directory);
+        roll();
+    }
+
+    public void append(long timestamp, AuditEventType type, LoginType loginType, String subject) throws IOException {
+        //  버퍼에 쓰기 시작한 뒤에 실패하면 길이 0 인 레코드가 남아 segment 의 끝이 되므로, 실패할 수 있는 값은 먼저 구한다.
+        byte typeCode = type.getCode();
+        byte loginTypeCode = loginType.getCode();
+        byte[] subjectBytes = subject == null ? new byte[0] : subject.getBytes(StandardCharsets.UTF_8);
+        int subjectLength = truncatedLength(subjectBytes, MAX_SUBJECT_BYTES);
+        int recordLength = HEADER_SIZE + subjectLength;
+
+        //  다음 레코드의 길이(0) 자리까지 남겨둔다.
+        if (buffer.remaining() < recordLength + 2) {
+            roll();
+        }
+
+        //  레코드 길이는 마지막에 써서, 쓰는 도중에 읽는 reader 가 반쯤 쓴 레코드를 읽지 않도록 한다.
+        int start = buffer.position();
+        buffer.position(start + 2);
+        buffer.putLong(timestamp);
+        buffer.put(typeCode);
+        buffer.put(loginTypeCode);
+        buffer.putShort((short) subjectLength);
+        buffer.put(subjectBytes, 0, subjectLength);
+        buffer.putShort(start, (short) recordLength);
+    }
+
+    //  page cache 의 내용을 디스크에 반영
+    public void force() {
+        buffer.force();
+    }
+
+    private void roll() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+
+        segmentIndex++;
+        Path segment = directory.resolve(segmentFileName(segmentIndex));
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw");
+             FileChannel channel = file.getChannel()) {
+            //  map 한 버퍼는 channel 을 닫아도 유효하다.
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    //  UTF-8 문자 중간에서 자르지 않도록 잘리는 위치가 continuation byte(10xxxxxx)면 그 문자의 첫 byte 앞까지 줄인다.
+    static int truncatedLength(byte[] bytes, int maxLength) {
+        if (bytes.length <= maxLength) {
+            return bytes.length;
+        }
+        int length = maxLength;
+        while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return length;
+    }
+
+    static String segmentFileName(long index) {
+        return String.format("%s%016d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    static boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long lastSegmentIndex(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(AuditSegmentWriter::isSegmentFile)
+                    .map(path -> path.getFileName().toString())
+                    .mapToLong(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .max()
+                    .orElse(0L);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.audit;
+
+import com.example.auth.PrincipalDetails;
+import com.example.domain.enums.LoginType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.authentication.event.LogoutSuccessEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.authentication.OAuth2LoginAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spring Security 가 처리하는 로그인(Form Login, OAuth2 Login), 로그아웃은 컨트롤러를 거치지 않으므로
+ * Security 가 publish 하는 인증 이벤트를 받아서 감사 로그에 기록한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecurityAuditListener {
+
+    private final AuditLog auditLog;
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        Authentication authentication = event.getAuthentication();
+        auditLog.publish(AuditEventType.LOGIN_SUCCESS, loginTypeOf(authentication), subjectOf(authentication));
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        Authentication authentication = event.getAuthentication();
+        auditLog.publish(AuditEventType.LOGIN_FAIL, loginTypeOf(authentication), subjectOf(authentication));
+    }
+
+    @EventListener
+    public void onLogout(LogoutSuccessEvent event) {
+        Authentication authentication = event.getAuthentication();
+        auditLog.publish(AuditEventType.LOGOUT, LoginType.SECURITY, subjectOf(authentication));
+    }
+
+    private LoginType loginTypeOf(Authentication authentication) {
+        return authentication instanceof OAuth2LoginAuthenticationToken ? LoginType.OAUTH2 : LoginType.SECURITY;
+    }
+
+    //  OAuth2 로그인은 getName() 이 null 이므로 PrincipalDetails 의 loginId 사용
+    private String subjectOf(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof PrincipalDetails principalDetails) {
+            return principalDetails.getUsername();
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.auth;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 인증 관련 조회 결과 (로그인, 로그인 유저 조회, Jwt Token 인증)
+ *
+ * 유저가 없거나 비밀번호가 틀린 것은 자주 일어나는 정상적인 결과이므로 예외를 던지지 않고 Status 로 알려준다.
+ * (예외를 만들 때마다 stack trace 를 채우는 비용이 들기 때문)
+ * FOUND 인 경우에만 user 가 있고, 나머지 결과는 미리 만들어둔 객체를 재사용한다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class AuthResult<T> {
+
+    public enum Status {
+        FOUND,          //  유저를 찾음 (로그인의 경우 비밀번호까지 일치)
+        NOT_FOUND,      //  유저가 없음
+        BAD_PASSWORD,   //  비밀번호 불일치
+        EXPIRED,        //  만료된 Token
+        INVALID         //  서명 불일치, 형식 오류 Token
+    }
+
+    private static final AuthResult<?> NOT_FOUND = new AuthResult<>(Status.NOT_FOUND, null);
+    private static final AuthResult<?> BAD_PASSWORD = new AuthResult<>(Status.BAD_PASSWORD, null);
+    private static final AuthResult<?> EXPIRED = new AuthResult<>(Status.EXPIRED, null);
+    private static final AuthResult<?> INVALID = new AuthResult<>(Status.INVALID, null);
+
+    private final Status status;
+    private final T user;
+
+    public static <T> AuthResult<T> found(T user) {
+        return new AuthResult<>(Status.FOUND, user);
+    }
+
+    public static <T> AuthResult<T> notFound() {
+        return cast(NOT_FOUND);
+    }
+
+    public static <T> AuthResult<T> badPassword() {
+        return cast(BAD_PASSWORD);
+    }
+
+    public static <T> AuthResult<T> expired() {
+        return cast(EXPIRED);
+    }
+
+    public static <T> AuthResult<T> invalid() {
+        return cast(INVALID);
+    }
+
+    public boolean isFound() {
+        return status == Status.FOUND;
+    }
+
+    //  user 가 없는 결과는 타입과 상관 없이 같은 객체를 사용
+    @SuppressWarnings("unchecked")
+    private static <T> AuthResult<T> cast(AuthResult<?> result) {
+        return (AuthResult<T>) result;
+    }
+}
@@ -1,28 +1,35 @@
 package com.example.auth;
 
-import com.example.domain.User;
-import com.example.service.UserService;
+import com.example.activeuser.ActiveUserTracker;
+import com.example.jfr.AuthPhase;
+import com.example.jfr.AuthPhaseEvent;
+import com.example.domain.enums.LoginType;
+import com.example.domain.enums.UserRole;
+import com.example.repository.UserSummary;
+import com.example.service.UserLookupService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
 
 // OncePerRequestFilter : 매번 들어갈 때 마다 체크 해주는 필터
 @RequiredArgsConstructor
 public class JwtTokenFilter extends OncePerRequestFilter {
 
-    private final UserService userService;
+    //  상태가 없으므로 모든 요청에서 같이 사용
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
+    private final UserLookupService userLookupService;
     private final String secretKey;
+    private final JwtTokenRenewer tokenRenewer;
+    private final ActiveUserTracker activeUserTracker;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -41,24 +48,42 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         }
 
         // 전송받은 값에서 'Bearer ' 뒷부분(Jwt Token) 추출
-        String token = authorizationHeader.split(" ")[1];
+        String token = authorizationHeader.substring("Bearer ".length());
+
+        // 전송받은 Jwt Token이 만료되었거나 잘못된 Token이면 => 다음 필터 진행(인증 X)
+        // JWT, compact 형식(c1.) 모두 verify 에서 접두어로 구분해서 검증
+        AuthPhaseEvent verifyEvent = AuthPhaseEvent.begin(AuthPhase.JWT_VERIFY);
+        JwtTokenVerification verification = JwtTokenUtil.verify(token, secretKey);
+        verifyEvent.finish(verification.getStatus().name().toLowerCase(), verification.getLoginId());
+
+        // Jwt Token의 loginId로 User 찾아오기 (만료, 잘못된 Token이면 조회하지 않음)
+        AuthPhaseEvent loadEvent = verification.isActive() ? AuthPhaseEvent.begin(AuthPhase.JWT_USER_LOAD) : null;
+        AuthResult<UserSummary> authResult = userLookupService.authenticate(verification);
+        if(loadEvent != null) {
+            loadEvent.finish(authResult.getStatus().name().toLowerCase(), verification.getLoginId());
+        }
 
-        // 전송받은 Jwt Token이 만료되었으면 => 다음 필터 진행(인증 X)
-        if(JwtTokenUtil.isExpired(token, secretKey)) {
+        // 만료, 잘못된 Token이거나 Token은 유효하지만 해당 유저가 없으면 => 다음 필터 진행(인증 X)
+        if(!authResult.isFound()) {
             filterChain.doFilter(request, response);
             return;
         }
+        UserSummary loginUser = authResult.getUser();
+        activeUserTracker.record(LoginType.JWT, loginUser.getLoginId());
 
-        // Jwt Token에서 loginId 추출
-        String loginId = JwtTokenUtil.getLoginId(token, secretKey);
-
-        // 추출한 loginId로 User 찾아오기
-        User loginUser = userService.getLoginUserByLoginId(loginId);
+        // 곧 만료될 Token 이면 새 Token 을 header 로 전달 (다시 로그인하지 않도록)
+        // 새 Token 에는 현재 role 의 권한을 넣는다. (role 이 바뀐 경우 연장할 때 반영)
+        long rolePermissions = UserRole.permissionsOf(loginUser.getRole());
+        String renewedToken = tokenRenewer.renewIfNeeded(token, verification, rolePermissions);
+        if(renewedToken != null) {
+            response.setHeader(JwtTokenRenewer.RENEWED_TOKEN_HEADER, renewedToken);
+        }
 
-        // loginUser 정보로 UsernamePasswordAuthenticationToken 발급
-        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                loginUser.getLoginId(), null, List.of(new SimpleGrantedAuthority(loginUser.getRole().name())));
-        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        // loginUser 정보로 Authentication 발급 (권한 목록은 role 별로 미리 만들어둔 것을 사용)
+        // 권한 bitmask 는 방금 조회한 현재 role 의 권한을 사용한다.
+        // (Token 의 perm claim 은 발급 시점의 권한이므로, 권한이 줄어든 유저가 만료될 때까지 이전 권한을 갖지 않도록 인가에 사용하지 않음)
+        LoginUserAuthentication authenticationToken = new LoginUserAuthentication(
+                loginUser.getLoginId(), RoleAuthorities.of(loginUser.getRole()), rolePermissions, DETAILS_SOURCE.buildDetails(request));
 
         // 권한 부여
         SecurityContextHolder.getContext().setAuthentication(authenticationToken);
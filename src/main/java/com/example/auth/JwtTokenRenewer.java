@@ -0,0 +1,95 @@
+package com.example.auth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Jwt Token 자동 연장 (sliding expiration)
+ *
+ * 만료 시간이 renewal window 안으로 들어온(= 곧 만료될) 유효한 Token 으로 요청하면 새 Token 을 발급해서
+ * 응답 header(X-Renewed-Token)로 내려준다. 클라이언트는 이 값으로 Token 을 교체하면 다시 로그인하지 않아도 된다.
+ *
+ * 같은 Token 으로 동시에 여러 요청이 오더라도 Token 하나당 한 번만 새로 발급한다.
+ * 이미 연장한 Token 으로 다시 요청하면 (새 Token 을 담은 응답을 받지 못한 경우) 처음 발급한 Token 을 다시 내려준다.
+ * 연장한 Token 은 서명 값과 발급한 Token 을 기억해두고, 원래 Token 이 만료되면 지운다.
+ * (서버 인스턴스마다 따로 기억하므로 여러 대에서는 인스턴스 수만큼 발급될 수 있다.)
+ */
+@Component
+public class JwtTokenRenewer {
+
+    public static final String RENEWED_TOKEN_HEADER = "X-Renewed-Token";
+
+    private final String secretKey;
+    private final long expireTimeMs;
+    private final long renewalWindowMs;
+    private final int maxTrackedTokens;
+    private final boolean compactFormat;
+
+    //  연장한 Token 의 서명 -> 새로 발급한 Token, 원래 Token 의 만료 시간
+    private final ConcurrentHashMap<String, Renewal> renewedTokens = new ConcurrentHashMap<>();
+
+    private record Renewal(String token, long permissions, long expiration) {
+    }
+
+    public JwtTokenRenewer(@Value("${jwt.secret-key}") String secretKey,
+                           @Value("${jwt.expire-time-ms}") long expireTimeMs,
+                           @Value("${jwt.renewal.window-ms}") long renewalWindowMs,
+                           @Value("${jwt.renewal.max-tracked-tokens}") int maxTrackedTokens,
+                           @Value("${jwt.compact-format}") boolean compactFormat) {
+        this.secretKey = secretKey;
+        this.expireTimeMs = expireTimeMs;
+        this.renewalWindowMs = renewalWindowMs;
+        this.maxTrackedTokens = maxTrackedTokens;
+        this.compactFormat = compactFormat;
+    }
+
+    /**
+     * 연장할 Token 이면 새로 발급한 Token 을, 아니면(아직 여유가 있거나 더 기억할 수 없는 경우) null 을 return
+     * 이미 연장한 Token 이면 처음 발급한 Token 을 그대로 return (permissions 가 바뀌었으면 다시 발급)
+     * verification 은 ACTIVE 상태여야 한다.
+     * 새 Token 에는 permissions(현재 role 의 권한 bitmask)를 넣는다.
+     */
+    public String renewIfNeeded(String token, JwtTokenVerification verification, long permissions) {
+        long now = System.currentTimeMillis();
+        long expiration = verification.getClaims().getExpiration().getTime();
+        if (expiration - now > renewalWindowMs) {
+            return null;
+        }
+
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        Renewal renewal = renewedTokens.get(signature);
+        if (renewal != null && renewal.permissions() == permissions) {
+            return renewal.token();
+        }
+
+        if (renewal == null && renewedTokens.size() >= maxTrackedTokens) {
+            removeExpired(now);
+            //  그래도 가득 차 있으면 연장하지 않는다. (클라이언트는 다시 로그인)
+            if (renewedTokens.size() >= maxTrackedTokens) {
+                return null;
+            }
+        }
+
+        //  같은 Token 으로 동시에 들어온 요청은 먼저 발급한 Token 을 같이 받는다.
+        return renewedTokens.compute(signature, (key, current) -> {
+            if (current != null && current.permissions() == permissions) {
+                return current;
+            }
+            //  JWT 로 요청해도 설정이 compact 형식이면 compact 형식으로 연장한다. (점진적 전환)
+            String renewedToken = JwtTokenUtil.createToken(verification.getLoginId(), permissions, secretKey, expireTimeMs, compactFormat);
+            return new Renewal(renewedToken, permissions, expiration);
+        }).token();
+    }
+
+    //  연장한 Token 을 기억하고 있는 개수 (테스트에서 확인)
+    int trackedTokens() {
+        return renewedTokens.size();
+    }
+
+    //  만료된 Token 은 더 이상 사용할 수 없으므로 기억할 필요가 없다.
+    private void removeExpired(long now) {
+        renewedTokens.values().removeIf(renewal -> renewal.expiration() <= now);
+    }
+}
@@ -1,13 +1,56 @@
 package com.example.auth;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 public class JwtTokenUtil {
 
+    /**
+     * compact Token 형식 : "c1." + base64url(payload) + "." + base64url(HMAC-SHA256("c1." + base64url(payload)))
+     * payload (big endian) : int 발급 시각(epoch seconds), int 만료 시각(epoch seconds), loginId (UTF-8)
+     * "c2." 는 만료 시각 뒤에 long 권한 bitmask 가 추가된 형식 (loginId 는 그 뒤)
+     *
+     * JWT 의 JSON header, claim 이름이 없어서 Authorization header 가 절반 정도로 줄어든다.
+     * 서명은 JWT(HS256)와 같은 HMAC-SHA256 이고, verify 가 접두어로 형식을 구분하므로 두 형식을 같이 사용할 수 있다.
+     */
+    public static final String COMPACT_PREFIX = "c1.";
+    public static final String COMPACT_V2_PREFIX = "c2.";
+
+    //  권한 bitmask (UserRole.getPermissions) claim 이름
+    public static final String PERMISSIONS_CLAIM = "perm";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int COMPACT_HEADER_SIZE = 8;
+    private static final int COMPACT_V2_HEADER_SIZE = 16;
+    private static final int SIGNATURE_SIZE = 32;
+    //  base64url(32 byte) 길이 (padding 없음)
+    private static final int SIGNATURE_LENGTH = 43;
+
+    private static final Base64.Encoder BASE64_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+
+    //  Mac 은 thread-safe 하지 않으므로 스레드마다 만들어서 재사용
+    private static final ThreadLocal<CompactMac> COMPACT_MAC = new ThreadLocal<>();
+
+    private record CompactMac(String secretKey, Mac mac) {
+    }
+
+    //  jjwt 는 만료된 Token 을 parsing 하면 ExpiredJwtException 을 던진다.
+    //  허용 오차를 크게 줘서 jjwt 가 만료 시간을 확인하지 않게 하고, 만료 여부는 verify 에서 직접 확인한다.
+    private static final long SKIP_EXPIRATION_CHECK_SECONDS = TimeUnit.DAYS.toSeconds(365 * 100);
+
     //  JWT 토큰 발급
     public static String createToken(String loginId, String key, long expireTimeMs) {
         //  Claim = JWT 토큰에 들어갈 정보
@@ -23,20 +66,200 @@ public class JwtTokenUtil {
                         .compact();
     }
 
-    //  Claims 에서 loginId 꺼내기
+    //  권한 bitmask 를 perm claim 으로 넣어서 발급 (introspect 용 정보, 인가는 JwtTokenFilter 가 현재 role 로 한다)
+    public static String createToken(String loginId, long permissions, String key, long expireTimeMs) {
+        Claims claims = Jwts.claims();
+        claims.put("loginId", loginId);
+        claims.put(PERMISSIONS_CLAIM, permissions);
+
+        return Jwts.builder()
+                        .setClaims(claims)
+                        .setIssuedAt(new Date(System.currentTimeMillis()))
+                        .setExpiration(new Date(System.currentTimeMillis() + expireTimeMs))
+                        .signWith(SignatureAlgorithm.HS256, key)
+                        .compact();
+    }
+
+    //  compact 형식 Token 발급 (secretKey 는 UTF-8 byte 를 그대로 HMAC key 로 사용)
+    public static String createCompactToken(String loginId, String key, long expireTimeMs) {
+        return createCompactToken(COMPACT_PREFIX, loginId, 0L, key, expireTimeMs);
+    }
+
+    //  권한 bitmask 를 포함한 compact 형식(c2.) Token 발급
+    public static String createCompactToken(String loginId, long permissions, String key, long expireTimeMs) {
+        return createCompactToken(COMPACT_V2_PREFIX, loginId, permissions, key, expireTimeMs);
+    }
+
+    //  설정(jwt.compact-format)에 따라 JWT 또는 compact 형식으로 발급
+    public static String createToken(String loginId, String key, long expireTimeMs, boolean compactFormat) {
+        return compactFormat ? createCompactToken(loginId, key, expireTimeMs) : createToken(loginId, key, expireTimeMs);
+    }
+
+    //  설정(jwt.compact-format)에 따라 권한 bitmask 를 포함한 JWT 또는 compact 형식으로 발급
+    public static String createToken(String loginId, long permissions, String key, long expireTimeMs, boolean compactFormat) {
+        return compactFormat
+                ? createCompactToken(loginId, permissions, key, expireTimeMs)
+                : createToken(loginId, permissions, key, expireTimeMs);
+    }
+
+    private static String createCompactToken(String prefix, String loginId, long permissions, String key, long expireTimeMs) {
+        long now = System.currentTimeMillis();
+        byte[] loginIdBytes = loginId.getBytes(StandardCharsets.UTF_8);
+        int headerSize = compactHeaderSize(prefix);
+
+        ByteBuffer payload = ByteBuffer.allocate(headerSize + loginIdBytes.length);
+        payload.putInt((int) TimeUnit.MILLISECONDS.toSeconds(now));
+        payload.putInt((int) TimeUnit.MILLISECONDS.toSeconds(now + expireTimeMs));
+        if (headerSize == COMPACT_V2_HEADER_SIZE) {
+            payload.putLong(permissions);
+        }
+        payload.put(loginIdBytes);
+
+        String signingInput = prefix + BASE64_ENCODER.encodeToString(payload.array());
+        byte[] signature = compactMac(key).doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + BASE64_ENCODER.encodeToString(signature);
+    }
+
+    //  Claims 에서 loginId 꺼내기 (유효한 Token 이 아니면 null)
     public static String getLoginId(String token, String secretKey) {
-        return extractClaims(token, secretKey).get("loginId").toString();
+        JwtTokenVerification verification = verify(token, secretKey);
+        return verification.isActive() ? verification.getLoginId() : null;
     }
 
     //  발급된 Token이 만료 시간이 지났는지 체크
     public static boolean isExpired(String token, String secretKey) {
-        Date expiredDate = extractClaims(token, secretKey).getExpiration();
-        //  Token의 만료 날짜가 지금보다 이전인지 check
-        return expiredDate.before(new Date());
+        return verify(token, secretKey).getStatus() == JwtTokenVerification.Status.EXPIRED;
+    }
+
+    //  Token 검증 (서명, 만료 시간 확인)
+    //  JwtTokenFilter, Token introspection 에서 같이 사용
+    //  만료된 Token, 형식이 잘못된 Token 은 예외 없이 확인한다. (서명이 틀린 경우만 jjwt 내부에서 예외 발생)
+    //  "c1.", "c2." 로 시작하면 compact 형식, 아니면 JWT 로 검증한다.
+    public static JwtTokenVerification verify(String token, String secretKey) {
+        if (token != null && (token.startsWith(COMPACT_PREFIX) || token.startsWith(COMPACT_V2_PREFIX))) {
+            return verifyCompact(token, secretKey);
+        }
+        if (!hasJwsFormat(token)) {
+            return JwtTokenVerification.invalid();
+        }
+
+        Claims claims;
+        try {
+            claims = extractClaims(token, secretKey);
+        } catch (JwtException | IllegalArgumentException e) {
+            //  서명이 틀렸거나 형식이 잘못된 Token
+            return JwtTokenVerification.invalid();
+        }
+
+        Date now = new Date();
+        Date expiration = claims.getExpiration();
+        if (expiration != null && now.after(expiration)) {
+            //  서명은 올바르지만 만료된 Token
+            return JwtTokenVerification.expired(claims);
+        }
+        Date notBefore = claims.getNotBefore();
+        if (notBefore != null && now.before(notBefore)) {
+            return JwtTokenVerification.invalid();
+        }
+        return JwtTokenVerification.active(claims);
+    }
+
+    private static JwtTokenVerification verifyCompact(String token, String secretKey) {
+        int headerSize = compactHeaderSize(token);
+        int signatureStart = token.length() - SIGNATURE_LENGTH;
+        //  payload 는 최소 header + loginId 1 byte (base64url 로 변환한 길이 이상)
+        int minPayloadLength = ((headerSize + 1) * 4 + 2) / 3;
+        if (signatureStart - 1 < COMPACT_PREFIX.length() + minPayloadLength || token.charAt(signatureStart - 1) != '.'
+                || !isBase64Url(token, COMPACT_PREFIX.length(), signatureStart - 1) || !isBase64Url(token, signatureStart, token.length())) {
+            return JwtTokenVerification.invalid();
+        }
+
+        byte[] signature = BASE64_DECODER.decode(token.substring(signatureStart));
+        byte[] expected = compactMac(secretKey).doFinal(token.substring(0, signatureStart - 1).getBytes(StandardCharsets.US_ASCII));
+        if (signature.length != SIGNATURE_SIZE || !MessageDigest.isEqual(signature, expected)) {
+            return JwtTokenVerification.invalid();
+        }
+
+        ByteBuffer payload = ByteBuffer.wrap(BASE64_DECODER.decode(token.substring(COMPACT_PREFIX.length(), signatureStart - 1)));
+        long issuedAt = TimeUnit.SECONDS.toMillis(Integer.toUnsignedLong(payload.getInt()));
+        long expiration = TimeUnit.SECONDS.toMillis(Integer.toUnsignedLong(payload.getInt()));
+        Long permissions = headerSize == COMPACT_V2_HEADER_SIZE ? payload.getLong() : null;
+        String loginId = new String(payload.array(), headerSize, payload.remaining(), StandardCharsets.UTF_8);
+
+        //  TokenConverter, JwtTokenRenewer 가 JWT 와 같은 방식으로 사용할 수 있도록 Claims 로 변환
+        Claims claims = Jwts.claims();
+        claims.put("loginId", loginId);
+        if (permissions != null) {
+            claims.put(PERMISSIONS_CLAIM, permissions);
+        }
+        claims.setIssuedAt(new Date(issuedAt));
+        claims.setExpiration(new Date(expiration));
+
+        if (System.currentTimeMillis() > expiration) {
+            return JwtTokenVerification.expired(claims);
+        }
+        return JwtTokenVerification.active(claims);
+    }
+
+    //  접두어(c1., c2.)별 payload header 크기
+    private static int compactHeaderSize(String token) {
+        return token.startsWith(COMPACT_V2_PREFIX) ? COMPACT_V2_HEADER_SIZE : COMPACT_HEADER_SIZE;
+    }
+
+    //  token 의 [from, to) 가 base64url 문자로만 되어 있는지 확인 (decode 하기 전에 예외 없이 걸러내기 위해)
+    private static boolean isBase64Url(String token, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = token.charAt(i);
+            boolean valid = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Mac compactMac(String secretKey) {
+        CompactMac cached = COMPACT_MAC.get();
+        if (cached == null || !cached.secretKey().equals(secretKey)) {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+                cached = new CompactMac(secretKey, mac);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC 초기화 실패", e);
+            }
+            COMPACT_MAC.set(cached);
+        }
+        return cached.mac();
+    }
+
+    //  header.payload.signature 형식인지 확인 (parsing 하기 전에 예외 없이 걸러내기 위해)
+    private static boolean hasJwsFormat(String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        int dots = 0;
+        int segmentLength = 0;
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) == '.') {
+                if (segmentLength == 0) {
+                    return false;
+                }
+                dots++;
+                segmentLength = 0;
+            } else {
+                segmentLength++;
+            }
+        }
+        return dots == 2 && segmentLength > 0;
     }
 
     // SecretKey를 사용해 Token Parsing
     private static Claims extractClaims(String token, String secretKey) {
-        return Jwts.parser().setSigningKey(secretKey).parseClaimsJws(token).getBody();
+        return Jwts.parser()
+                .setSigningKey(secretKey)
+                .setAllowedClockSkewSeconds(SKIP_EXPIRATION_CHECK_SECONDS)
+                .parseClaimsJws(token)
+                .getBody();
     }
 }
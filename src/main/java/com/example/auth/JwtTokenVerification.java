@@ -0,0 +1,56 @@
+package com.example.auth;
+
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Jwt Token 검증 결과
+ * ACTIVE, EXPIRED 인 경우 서명이 올바른 Token 이므로 claims 를 꺼낼 수 있다.
+ * INVALID 인 경우(서명 불일치, 형식 오류) claims 는 null
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class JwtTokenVerification {
+
+    public enum Status {
+        ACTIVE, EXPIRED, INVALID
+    }
+
+    private static final JwtTokenVerification INVALID = new JwtTokenVerification(Status.INVALID, null);
+
+    private final Status status;
+    private final Claims claims;
+
+    public static JwtTokenVerification active(Claims claims) {
+        return new JwtTokenVerification(Status.ACTIVE, claims);
+    }
+
+    public static JwtTokenVerification expired(Claims claims) {
+        return new JwtTokenVerification(Status.EXPIRED, claims);
+    }
+
+    public static JwtTokenVerification invalid() {
+        return INVALID;
+    }
+
+    public boolean isActive() {
+        return status == Status.ACTIVE;
+    }
+
+    public String getLoginId() {
+        if (claims == null || claims.get("loginId") == null) {
+            return null;
+        }
+        return claims.get("loginId").toString();
+    }
+
+    //  Token 에 담긴 권한 bitmask (perm claim 이 없는 이전 형식의 Token 이면 null)
+    public Long getPermissions() {
+        if (claims == null || !(claims.get(JwtTokenUtil.PERMISSIONS_CLAIM) instanceof Number permissions)) {
+            return null;
+        }
+        return permissions.longValue();
+    }
+}
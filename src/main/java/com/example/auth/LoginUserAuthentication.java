@@ -0,0 +1,79 @@
+package com.example.auth;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Jwt Token 으로 인증한 유저의 Authentication
+ *
+ * UsernamePasswordAuthenticationToken 은 생성할 때마다 권한 목록을 새 List 로 복사하지만,
+ * 이 클래스는 RoleAuthorities 의 불변 List 를 그대로 사용하고 필드도 필요한 것만 가진다.
+ * principal 은 loginId(String) 이고 credentials(비밀번호)는 가지지 않는다.
+ * 권한 bitmask(permissions) 는 요청마다 조회한 유저의 현재 role 권한이다. (PermissionAuthorizationManager 에서 사용)
+ */
+public class LoginUserAuthentication implements Authentication, PermissionHolder {
+
+    private final String loginId;
+    private final Collection<? extends GrantedAuthority> authorities;
+    private final long permissions;
+    private final Object details;
+    private boolean authenticated = true;
+
+    public LoginUserAuthentication(String loginId, Collection<? extends GrantedAuthority> authorities, long permissions, Object details) {
+        this.loginId = loginId;
+        this.authorities = authorities;
+        this.permissions = permissions;
+        this.details = details;
+    }
+
+    @Override
+    public String getName() {
+        return loginId;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return loginId;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public long getPermissions() {
+        return permissions;
+    }
+
+    @Override
+    public Object getDetails() {
+        return details;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    //  인증된 상태는 생성자로만 만들 수 있고, 인증 취소(false)만 가능
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) throws IllegalArgumentException {
+        if (isAuthenticated) {
+            throw new IllegalArgumentException("인증된 상태로 바꿀 수 없습니다. 생성자를 사용해주세요.");
+        }
+        this.authenticated = false;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [loginId=" + loginId + ", authorities=" + authorities + ", permissions=" + Long.toBinaryString(permissions) + ", authenticated=" + authenticated + "]";
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.auth;
+
+import com.example.domain.enums.Permission;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+/**
+ * 필요한 권한(Permission)을 모두 가지고 있는지 bitmask 로 확인하는 AuthorizationManager
+ *
+ * hasAuthority 는 권한 목록을 돌면서 문자열을 비교하지만, 이 클래스는 bit 연산 한 번으로 확인한다.
+ * 결과(AuthorizationDecision)는 미리 만들어둔 객체를 재사용한다.
+ */
+public final class PermissionAuthorizationManager<T> implements AuthorizationManager<T> {
+
+    static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final long required;
+
+    private PermissionAuthorizationManager(long required) {
+        this.required = required;
+    }
+
+    public static <T> PermissionAuthorizationManager<T> require(Permission... permissions) {
+        return new PermissionAuthorizationManager<>(Permission.maskOf(permissions));
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, T object) {
+        return isGranted(authentication.get(), required) ? GRANTED : DENIED;
+    }
+
+    static boolean isGranted(Authentication authentication, long required) {
+        return (permissionsOf(authentication) & required) == required;
+    }
+
+    //  Jwt Token 인증은 Authentication, form / OAuth2 로그인은 principal(PrincipalDetails) 이 권한을 가지고 있다.
+    //  익명 사용자 등 권한을 알 수 없으면 권한 없음
+    static long permissionsOf(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return 0L;
+        }
+        if (authentication instanceof PermissionHolder holder) {
+            return holder.getPermissions();
+        }
+        if (authentication.getPrincipal() instanceof PermissionHolder holder) {
+            return holder.getPermissions();
+        }
+        return 0L;
+    }
+}
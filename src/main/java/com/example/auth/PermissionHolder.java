@@ -0,0 +1,10 @@
+package com.example.auth;
+
+/**
+ * 권한 bitmask(Permission) 를 가지고 있는 Authentication 또는 principal
+ * PermissionAuthorizationManager 가 권한 목록(GrantedAuthority)을 확인하지 않고 이 값으로 bit 연산 한 번에 확인한다.
+ */
+public interface PermissionHolder {
+
+    long getPermissions();
+}
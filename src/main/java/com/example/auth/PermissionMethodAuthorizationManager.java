@@ -0,0 +1,36 @@
+package com.example.auth;
+
+import com.example.domain.enums.Permission;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * @RequirePermission 이 붙은 메서드의 권한 확인 (method security)
+ *
+ * 메서드마다 필요한 권한 bitmask 를 처음 호출할 때 한 번만 계산해두고,
+ * 이후에는 annotation 을 다시 읽지 않고 bit 연산 한 번으로 확인한다.
+ */
+public class PermissionMethodAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private final ConcurrentHashMap<Method, Long> requiredByMethod = new ConcurrentHashMap<>();
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        long required = requiredByMethod.computeIfAbsent(invocation.getMethod(), PermissionMethodAuthorizationManager::required);
+        return PermissionAuthorizationManager.isGranted(authentication.get(), required)
+                ? PermissionAuthorizationManager.GRANTED
+                : PermissionAuthorizationManager.DENIED;
+    }
+
+    private static long required(Method method) {
+        RequirePermission requirePermission = AnnotatedElementUtils.findMergedAnnotation(method, RequirePermission.class);
+        return requirePermission == null ? 0L : Permission.maskOf(requirePermission.value());
+    }
+}
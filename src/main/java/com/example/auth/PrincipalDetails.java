@@ -1,14 +1,14 @@
 package com.example.auth;
 
 import com.example.domain.User;
+import com.example.domain.enums.UserRole;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.core.user.OAuth2User;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
 
-public class PrincipalDetails implements UserDetails, OAuth2User {
+public class PrincipalDetails implements UserDetails, OAuth2User, PermissionHolder {
     private User user;
 
     public PrincipalDetails(User user) {
@@ -19,11 +19,13 @@ public class PrincipalDetails implements UserDetails, OAuth2User {
     //  권한 관력 작업을 하기 위한 role return
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        Collection<GrantedAuthority> collections = new ArrayList<>();
-        collections.add(() -> {
-            return user.getRole().name();
-        });
-        return collections;
+        return RoleAuthorities.of(user.getRole());
+    }
+
+    //  role 별로 미리 계산된 권한 bitmask
+    @Override
+    public long getPermissions() {
+        return UserRole.permissionsOf(user.getRole());
     }
 
     //  getPassword 메서드
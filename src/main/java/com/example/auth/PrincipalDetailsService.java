@@ -1,7 +1,9 @@
 package com.example.auth;
 
 import com.example.domain.User;
-import com.example.repository.UserRepository;
+import com.example.jfr.AuthPhase;
+import com.example.jfr.AuthPhaseEvent;
+import com.example.repository.UserStore;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.ConnectionReleaseMode;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,15 +15,22 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class PrincipalDetailsService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserStore userStore;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByLoginId(username)
-                .orElseThrow(() -> {
-                    return new UsernameNotFoundException("해당 유저를 찾을 수 없습니다.");
-                });
+        AuthPhaseEvent event = AuthPhaseEvent.begin(AuthPhase.USER_DETAILS_LOAD);
+        String outcome = "not_found";
+        try {
+            User user = userStore.findByLoginId(username)
+                    .orElseThrow(() -> {
+                        return new StacklessUsernameNotFoundException("해당 유저를 찾을 수 없습니다.");
+                    });
 
-        return new PrincipalDetails(user);
+            outcome = "found";
+            return new PrincipalDetails(user);
+        } finally {
+            event.finish(outcome, username);
+        }
     }
 }
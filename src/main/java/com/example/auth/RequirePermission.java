@@ -0,0 +1,19 @@
+package com.example.auth;
+
+import com.example.domain.enums.Permission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 메서드를 실행하려면 value 의 권한이 모두 있어야 한다. (PermissionMethodAuthorizationManager 가 확인)
+ * 권한이 없으면 AccessDeniedException
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequirePermission {
+
+    Permission[] value();
+}
@@ -0,0 +1,34 @@
+package com.example.auth;
+
+import com.example.domain.enums.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * UserRole 별 권한 목록 (flyweight)
+ *
+ * 권한 목록은 role 마다 항상 같으므로 미리 만들어둔 불변 List 를 모든 요청에서 같이 사용한다.
+ * (요청마다 SimpleGrantedAuthority, List 를 새로 만들지 않도록)
+ */
+public final class RoleAuthorities {
+
+    private static final Map<UserRole, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(UserRole.class);
+
+    static {
+        for (UserRole role : UserRole.values()) {
+            AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority(role.name())));
+        }
+    }
+
+    private RoleAuthorities() {
+    }
+
+    //  role 이 없으면 빈 목록
+    public static List<GrantedAuthority> of(UserRole role) {
+        return role == null ? List.of() : AUTHORITIES.get(role);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.auth;
+
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * stack trace 를 채우지 않는 UsernameNotFoundException
+ *
+ * UserDetailsService 는 유저가 없을 때 예외를 던져야 하는데(Spring Security 규약),
+ * 없는 아이디로 로그인하는 요청마다 stack trace 를 채우는 비용이 들지 않도록 한다.
+ * (어디서 던졌는지는 항상 PrincipalDetailsService 이므로 stack trace 가 필요 없다.)
+ */
+public class StacklessUsernameNotFoundException extends UsernameNotFoundException {
+
+    public StacklessUsernameNotFoundException(String msg) {
+        super(msg);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.auth.oauth;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.security.oauth2.client.http.OAuth2ErrorResponseErrorHandler;
+import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OAuth2 Provider(Google 등)의 userinfo 조회 client
+ *
+ * DefaultOAuth2UserService 의 기본 RestTemplate 은 요청마다 연결을 새로 맺고 timeout 이 없어서
+ * Provider 가 느려지면 요청 스레드가 계속 묶여있게 된다. 그래서
+ *  - 연결을 재사용(keep-alive)하는 JDK HttpClient 에 connect / read timeout 을 설정하고
+ *  - Provider 를 동시에 호출하는 수를 제한(bulkhead)해서, 자리가 나지 않으면 기다리지 않고 로그인 실패로 처리하고
+ *  - 같은 Access Token 으로 다시 조회하면(새로고침, 중복 콜백) 잠깐 동안 저장해둔 결과를 return 한다.
+ */
+@Slf4j
+@Component
+public class OAuth2UserInfoClient extends DefaultOAuth2UserService {
+
+    public static final String PROVIDER_BUSY_ERROR_CODE = "userinfo_provider_busy";
+
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitMillis;
+    private final long cacheTtlMillis;
+    private final int cacheMaxEntries;
+
+    //  Access Token -> userinfo
+    private final ConcurrentHashMap<String, CachedUser> cache = new ConcurrentHashMap<>();
+
+    private record CachedUser(OAuth2User user, long expiresAt) {
+    }
+
+    public OAuth2UserInfoClient(@Value("${oauth2.userinfo.connect-timeout-ms}") long connectTimeoutMillis,
+                                @Value("${oauth2.userinfo.read-timeout-ms}") long readTimeoutMillis,
+                                @Value("${oauth2.userinfo.max-concurrent-calls}") int maxConcurrentCalls,
+                                @Value("${oauth2.userinfo.bulkhead-wait-ms}") long bulkheadWaitMillis,
+                                @Value("${oauth2.userinfo.cache-ttl-ms}") long cacheTtlMillis,
+                                @Value("${oauth2.userinfo.cache-max-entries}") int cacheMaxEntries) {
+        //  HttpClient 하나를 계속 사용하므로 Provider 와의 연결이 재사용된다.
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.setErrorHandler(new OAuth2ErrorResponseErrorHandler());
+        setRestOperations(restTemplate);
+
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.bulkheadWaitMillis = bulkheadWaitMillis;
+        this.cacheTtlMillis = cacheTtlMillis;
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    @Override
+    public OAuth2User loadUser(OAuth2UserRequest userRequest) throws OAuth2AuthenticationException {
+        String accessToken = userRequest.getAccessToken().getTokenValue();
+        long now = System.currentTimeMillis();
+
+        CachedUser cached = cache.get(accessToken);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.user();
+        }
+
+        OAuth2User user = loadFromProvider(userRequest);
+
+        if (cache.size() >= cacheMaxEntries) {
+            cache.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+        //  정리해도 가득 차 있으면 저장하지 않는다.
+        if (cache.size() < cacheMaxEntries) {
+            cache.put(accessToken, new CachedUser(user, now + cacheTtlMillis));
+        }
+        return user;
+    }
+
+    private OAuth2User loadFromProvider(OAuth2UserRequest userRequest) {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            String registrationId = userRequest.getClientRegistration().getRegistrationId();
+            log.warn("userinfo 동시 호출 수 초과로 로그인 실패 : {}", registrationId);
+            throw new OAuth2AuthenticationException(new OAuth2Error(PROVIDER_BUSY_ERROR_CODE,
+                    registrationId + " userinfo 요청이 너무 많습니다. 잠시 후 다시 시도해주세요.", null));
+        }
+
+        try {
+            return super.loadUser(userRequest);
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
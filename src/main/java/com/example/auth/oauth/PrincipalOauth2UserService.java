@@ -1,14 +1,21 @@
 package com.example.auth.oauth;
 
+import com.example.audit.AuditEventType;
+import com.example.audit.AuditLog;
 import com.example.auth.PrincipalDetails;
 import com.example.domain.User;
+import com.example.domain.event.UserJoinedEvent;
+import com.example.jfr.AuthPhase;
+import com.example.jfr.AuthPhaseEvent;
+import com.example.domain.enums.LoginType;
 import com.example.domain.enums.UserRole;
-import com.example.repository.UserRepository;
+import com.example.repository.UserStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
@@ -18,20 +25,37 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class PrincipalOauth2UserService extends DefaultOAuth2UserService {
-    private final UserRepository userRepository;
+public class PrincipalOauth2UserService implements OAuth2UserService<OAuth2UserRequest, OAuth2User> {
+    private final UserStore userStore;
     private final BCryptPasswordEncoder encoder;
+    private final AuditLog auditLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OAuth2UserInfoClient userInfoClient;
 
     @Override
     public OAuth2User loadUser(OAuth2UserRequest userRequest) throws OAuth2AuthenticationException {
-        OAuth2User oAuth2User = super.loadUser(userRequest);
+        AuthPhaseEvent event = AuthPhaseEvent.begin(AuthPhase.OAUTH2_USER_LOAD);
+        String outcome = "error";
+        String loginId = null;
+        try {
+            PrincipalDetails principalDetails = loadPrincipal(userRequest);
+            loginId = principalDetails.getUsername();
+            outcome = "success";
+            return principalDetails;
+        } finally {
+            event.finish(outcome, loginId);
+        }
+    }
+
+    private PrincipalDetails loadPrincipal(OAuth2UserRequest userRequest) {
+        OAuth2User oAuth2User = userInfoClient.loadUser(userRequest);
         log.info("getAttributes : {}", oAuth2User.getAttributes());
 
         String provider = userRequest.getClientRegistration().getRegistrationId();
         String providerId = oAuth2User.getAttribute("sub");
         String loginId = provider + "_" +providerId;
 
-        Optional<User> optionalUser = userRepository.findByLoginId(loginId);
+        Optional<User> optionalUser = userStore.findByLoginId(loginId);
         User user;
 
         if(optionalUser.isEmpty()) {
@@ -42,7 +66,9 @@ public class PrincipalOauth2UserService extends DefaultOAuth2UserService {
                     .providerId(providerId)
                     .role(UserRole.USER)
                     .build();
-            userRepository.save(user);
+            user = userStore.save(user);
+            eventPublisher.publishEvent(new UserJoinedEvent(user));
+            auditLog.publish(AuditEventType.OAUTH_JOIN, LoginType.OAUTH2, loginId);
         } else {
             user = optionalUser.get();
         }
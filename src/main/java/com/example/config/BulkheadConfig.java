@@ -0,0 +1,48 @@
+package com.example.config;
+
+import com.example.domain.enums.LoginType;
+import com.example.limit.Bulkhead;
+import com.example.limit.BulkheadFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    public BulkheadFilter bulkheadFilter(@Value("${bulkhead.max-concurrent.cookie}") int cookie,
+                                         @Value("${bulkhead.max-concurrent.session}") int session,
+                                         @Value("${bulkhead.max-concurrent.security}") int security,
+                                         @Value("${bulkhead.max-concurrent.jwt}") int jwt,
+                                         @Value("${bulkhead.max-concurrent.oauth2}") int oauth2) {
+        Map<LoginType, Integer> maxConcurrent = new EnumMap<>(LoginType.class);
+        maxConcurrent.put(LoginType.COOKIE, cookie);
+        maxConcurrent.put(LoginType.SESSION, session);
+        maxConcurrent.put(LoginType.SECURITY, security);
+        maxConcurrent.put(LoginType.JWT, jwt);
+        maxConcurrent.put(LoginType.OAUTH2, oauth2);
+
+        //  0 이면 해당 로그인 방식은 제한하지 않는다.
+        Map<LoginType, Bulkhead> bulkheads = new EnumMap<>(LoginType.class);
+        maxConcurrent.forEach((loginType, max) -> {
+            if (max > 0) {
+                bulkheads.put(loginType, new Bulkhead(loginType.name(), max));
+            }
+        });
+        return new BulkheadFilter(bulkheads);
+    }
+
+    //  초과 요청이 다른 필터(SQL 프로파일링, 동시 처리 수 제한, Security)를 거치지 않도록 가장 먼저 실행
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilterRegistration(BulkheadFilter bulkheadFilter) {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(bulkheadFilter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 4);
+        return registration;
+    }
+}
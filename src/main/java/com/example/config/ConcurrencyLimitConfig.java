@@ -0,0 +1,30 @@
+package com.example.config;
+
+import com.example.limit.AdaptiveConcurrencyLimiter;
+import com.example.limit.ConcurrencyLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter authConcurrencyLimiter(@Value("${concurrency-limit.initial-limit}") int initialLimit,
+                                                             @Value("${concurrency-limit.min-limit}") int minLimit,
+                                                             @Value("${concurrency-limit.max-limit}") int maxLimit,
+                                                             @Value("${concurrency-limit.latency-threshold-ms}") long latencyThresholdMillis,
+                                                             @Value("${concurrency-limit.backoff-ratio}") double backoffRatio) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThresholdMillis, backoffRatio);
+    }
+
+    //  Security 필터 체인(DEFAULT_FILTER_ORDER)보다 먼저 실행
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(AdaptiveConcurrencyLimiter authConcurrencyLimiter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(new ConcurrencyLimitFilter(authConcurrencyLimiter));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
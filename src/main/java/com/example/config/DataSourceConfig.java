@@ -0,0 +1,83 @@
+package com.example.config;
+
+import com.example.datasource.ReadYourWritesFilter;
+import com.example.datasource.ReplicationRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * primary(spring.datasource) + 읽기 전용 replica(datasource.replicas.urls) DataSource 설정
+ * replica url 이 없으면 모든 요청이 primary 로 간다.
+ * connection pool 설정(spring.datasource.hikari.*)은 primary, replica 모두에 적용한다.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${datasource.replicas.urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${datasource.replicas.read-your-writes-ms}")
+    private long readYourWritesMillis;
+
+    @Bean(destroyMethod = "close")
+    public ReplicationRoutingDataSource routingDataSource(DataSourceProperties properties, Environment environment,
+                                                          @Value("${datasource.replicas.max-lag-ms}") long maxLagMillis,
+                                                          @Value("${datasource.replicas.health-check-interval-ms}") long healthCheckIntervalMillis,
+                                                          @Value("${datasource.replicas.health-check-timeout-seconds}") int healthCheckTimeoutSeconds) {
+        //  DataSource 를 직접 만들면 Spring Boot 가 spring.datasource.hikari.* 를 적용해주지 않으므로 직접 bind
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        //  replica 는 primary 와 같은 계정, driver 를 사용하고 url 만 다르다.
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url.trim()).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setJdbcUrl(url.trim());
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+
+        ReplicationRoutingDataSource routingDataSource = new ReplicationRoutingDataSource(primary, replicas,
+                readYourWritesMillis, maxLagMillis, System::currentTimeMillis);
+        routingDataSource.startHealthCheck(healthCheckIntervalMillis, healthCheckTimeoutSeconds);
+        return routingDataSource;
+    }
+
+    //  트랜잭션의 readOnly 여부가 정해진 뒤(첫 SQL 실행 시)에 connection 을 가져오도록 Lazy proxy 로 감싼다.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicationRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    //  Security 필터(JwtTokenFilter 의 유저 조회)보다 먼저 read-your-writes 상태를 설정
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(@Value("${datasource.replicas.cookie-secret-key}") String cookieSecretKey) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWritesMillis, cookieSecretKey));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        registration.setEnabled(replicaUrls.stream().anyMatch(url -> !url.isBlank()));
+        return registration;
+    }
+}
@@ -1,15 +1,27 @@
 package com.example.config;
 
+import com.example.activeuser.ActiveUserTracker;
 import com.example.auth.JwtTokenFilter;
-import com.example.auth.JwtTokenUtil;
+import com.example.auth.JwtTokenRenewer;
 import com.example.auth.MyAccessDeniedHandler;
 import com.example.auth.MyAuthenticationEntryPoint;
+import com.example.auth.PermissionAuthorizationManager;
+import com.example.auth.PermissionMethodAuthorizationManager;
+import com.example.auth.RequirePermission;
 import com.example.auth.oauth.PrincipalOauth2UserService;
-import com.example.domain.enums.UserRole;
-import com.example.service.UserService;
+import com.example.domain.enums.Permission;
+import com.example.service.UserLookupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -19,9 +31,17 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
-import java.security.Security;
-
 
+/**
+ * 로그인 방식마다 securityMatcher 로 경로를 나눈 SecurityFilterChain 을 따로 둔다.
+ * 요청은 @Order 순서대로 securityMatcher 가 처음 일치하는 chain 하나만 거치고,
+ * 어느 chain 에도 일치하지 않는 요청은 Security 필터를 거치지 않는다.
+ *
+ *  0. 정적 리소스, 에러 페이지       : 필터 없음
+ *  1. /jwt-login/**                 : JwtTokenFilter, STATELESS
+ *  2. /security-login/**, OAuth2    : Form Login, OAuth2 Login, Session
+ *  3. /cookie-login/**, /session-login/** : 컨트롤러에서 직접 인증, 인가 하므로 필터 없음
+ */
 @EnableWebSecurity
 @EnableMethodSecurity
 @Configuration
@@ -29,14 +49,51 @@ import java.security.Security;
 public class SecurityConfig {
 
     private final PrincipalOauth2UserService principalOauth2UserService;
+    private final UserLookupService userLookupService;
+    private final JwtTokenRenewer jwtTokenRenewer;
+    private final ActiveUserTracker activeUserTracker;
+
+    @Value("${jwt.secret-key}")
+    private String secretKey;
+
+    @Bean
+    @Order(0)
+    public SecurityFilterChain staticResourceFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher("/css/**", "/js/**", "/images/**", "/favicon.ico", "/error",
+                "/authentication-fail", "/authorization-fail");
+
+        return withoutSecurityFilters(http).build();
+    }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain jwtFilterChain(HttpSecurity httpSecurity) throws Exception {
+        return httpSecurity
+                .securityMatcher("/jwt-login/**")
+                .httpBasic(HttpBasicConfigurer::disable)
+                .csrf((AbstractHttpConfigurer::disable))
+                .requestCache(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .sessionManagement((sessionManagement) -> sessionManagement.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new JwtTokenFilter(userLookupService, secretKey, jwtTokenRenewer, activeUserTracker), UsernamePasswordAuthenticationFilter.class)
+                .authorizeHttpRequests((requests) -> requests
+                        .requestMatchers("/jwt-login/info").authenticated()
+                        .requestMatchers("/jwt-login/admin/**").access(PermissionAuthorizationManager.require(Permission.ACCESS_ADMIN))
+                        //  Token 을 여러 개 받아 검증 pool 에서 처리하므로 인증된 호출자 중 권한이 있는 경우만 허용
+                        .requestMatchers(HttpMethod.POST, "/jwt-login/introspect").access(PermissionAuthorizationManager.require(Permission.INTROSPECT_TOKENS))
+                        .anyRequest().permitAll())
+                .build();
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityFilterChain securityLoginFilterChain(HttpSecurity http) throws Exception {
         return http
+                .securityMatcher("/security-login/**", "/oauth2/**", "/login/oauth2/**")    //  OAuth2 인가 요청, 콜백 url 포함
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests((requests) -> requests
                         .requestMatchers("/security-login/info").authenticated()    //authenticated: 해당 url에 진입하기 위해서 인증, 로그인이 필요함
-                        .requestMatchers("/security-login/admin/**").hasAuthority(UserRole.ADMIN.name())    //해당 url에 진입하기 위해서 인가(Authorization)가 필요
+                        .requestMatchers("/security-login/admin/**").access(PermissionAuthorizationManager.require(Permission.ACCESS_ADMIN))    //해당 url에 진입하기 위해서 인가(Authorization)가 필요 (권한 bitmask 확인)
                         .anyRequest().permitAll())  //  위의 url을 제외한 나머지는 인증, 인가 없이 통과
 
                 .formLogin((form) -> form   // Form Login 방식 사용
@@ -63,22 +120,34 @@ public class SecurityConfig {
                 .build();
     }
 
-    private final UserService userService;
-    private static String secretKey = "my-secret-key-123123";
-
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
-        return httpSecurity
-                .httpBasic(HttpBasicConfigurer::disable)
-                .csrf((AbstractHttpConfigurer::disable))
-                .sessionManagement((sessionManagement) -> sessionManagement.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(new JwtTokenFilter(userService, secretKey), UsernamePasswordAuthenticationFilter.class)
-                .authorizeHttpRequests((requests) -> requests
-                        .requestMatchers("/jwt-login/info").authenticated()
-                        .requestMatchers("/jwt-login/admin/**").hasAuthority((UserRole.ADMIN.name())))
-                .build();
+    @Order(3)
+    public SecurityFilterChain cookieSessionFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher("/cookie-login/**", "/session-login/**");
 
+        return withoutSecurityFilters(http).build();
     }
 
+    //  @RequirePermission 이 붙은 메서드는 호출 전에 권한 bitmask 를 확인한다. (권한이 없으면 AccessDeniedException)
+    //  method security 의 Advisor 는 다른 bean 보다 먼저 만들어져야 하므로 static
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor requirePermissionAdvisor() {
+        return new AuthorizationManagerBeforeMethodInterceptor(
+                AnnotationMatchingPointcut.forMethodAnnotation(RequirePermission.class), new PermissionMethodAuthorizationManager());
+    }
 
-}
\ No newline at end of file
+    //  HttpSecurity 가 기본으로 추가하는 필터(csrf, session, request cache, anonymous 등)를 모두 끈다.
+    private HttpSecurity withoutSecurityFilters(HttpSecurity http) throws Exception {
+        return http
+                .csrf(AbstractHttpConfigurer::disable)
+                .headers(AbstractHttpConfigurer::disable)
+                .securityContext(AbstractHttpConfigurer::disable)
+                .sessionManagement(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .anonymous(AbstractHttpConfigurer::disable)
+                .servletApi(AbstractHttpConfigurer::disable)
+                .exceptionHandling(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.config;
+
+import com.example.session.OffHeapSessionStore;
+import org.apache.catalina.session.PersistentManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * Tomcat 세션을 최근 사용한 세션(heap) / 오래 사용하지 않은 세션(off-heap) 으로 나눠서 보관
+ * idle-seconds 동안 요청이 없는 세션은 PersistentManager 가 OffHeapSessionStore 로 내보내고, 다음 요청에서 다시 읽어온다.
+ * 세션에 저장하는 값은 Serializable 이어야 한다. (직렬화할 수 없는 attribute 는 내보낼 때 빠진다)
+ */
+@Configuration
+@ConditionalOnProperty(name = "session-store.enabled", havingValue = "true")
+public class SessionStoreConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> offHeapSessionCustomizer(
+            @Value("${session-store.dir}") String directory,
+            @Value("${session-store.idle-seconds}") int idleSeconds,
+            @Value("${session-store.segment-size-mb}") int segmentSizeMb,
+            @Value("${session-store.max-segments}") int maxSegments) {
+        return factory -> factory.addContextCustomizers(context -> {
+            PersistentManager manager = new PersistentManager();
+            manager.setStore(new OffHeapSessionStore(Paths.get(directory), segmentSizeMb * 1024 * 1024, maxSegments));
+            manager.setMaxIdleSwap(idleSeconds);
+            //  서버 종료 시 세션을 모두 내보내지 않는다. (재시작하면 off-heap 저장소는 비워진다)
+            manager.setSaveOnRestart(false);
+            //  background 처리(기본 10초)마다 idle 세션 확인
+            manager.setProcessExpiresFrequency(1);
+            context.setManager(manager);
+        });
+    }
+}
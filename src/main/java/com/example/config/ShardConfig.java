@@ -0,0 +1,40 @@
+package com.example.config;
+
+import com.example.repository.shard.ShardedUserStore;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * sharded-store profile 의 유저 shard DataSource 설정
+ * shard 는 spring.datasource 와 같은 계정, driver 를 사용하고 url(user-store.shard.urls)만 다르다.
+ * shard 0 에는 bucket 배정표와 nickname 예약 테이블도 저장한다. (shard 순서를 바꾸면 안 된다)
+ */
+@Configuration
+@Profile("sharded-store")
+public class ShardConfig {
+
+    @Bean(destroyMethod = "close")
+    public ShardedUserStore shardedUserStore(DataSourceProperties properties,
+                                             @Value("${user-store.shard.urls}") List<String> urls,
+                                             @Value("${user-store.shard.node-id}") int nodeId,
+                                             @Value("${user-store.shard.refresh-interval-ms}") long refreshIntervalMillis) {
+        List<DataSource> shards = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource shard = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url.trim()).build();
+            shard.setPoolName("user-shard-" + shards.size());
+            shards.add(shard);
+        }
+
+        ShardedUserStore store = new ShardedUserStore(shards, nodeId, refreshIntervalMillis);
+        store.start();
+        return store;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.config;
+
+import com.example.jdbc.ProfilingDataSource;
+import com.example.jdbc.ServiceMethodProfilingPostProcessor;
+import com.example.jdbc.SqlProfiler;
+import com.example.jdbc.SqlProfilingFilter;
+import com.example.jdbc.SqlProfilingRouteInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.sql.DataSource;
+import java.util.Set;
+
+/**
+ * SQL 실행 통계 (show-sql 대신 사용, /jwt-login/admin/sql-profile 에서 조회)
+ * 애플리케이션의 DataSource(dataSource bean)를 ProfilingDataSource 로 감싼다.
+ * (routingDataSource 는 dataSource 가 감싸고 있으므로 같이 감싸면 두 번 기록된다)
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql-profiler.enabled", havingValue = "true")
+public class SqlProfilerConfig {
+
+    private static final String PROFILED_DATA_SOURCE = "dataSource";
+
+    @Bean(destroyMethod = "close")
+    public SqlProfiler sqlProfiler(@Value("${sql-profiler.slow-threshold-ms}") long slowThresholdMillis,
+                                   @Value("${sql-profiler.max-statements}") int maxStatements,
+                                   @Value("${sql-profiler.slow-log-queue-size}") int slowLogQueueSize) {
+        return new SqlProfiler(slowThresholdMillis, maxStatements, slowLogQueueSize);
+    }
+
+    //  BeanPostProcessor 는 다른 bean 보다 먼저 만들어지므로 static 으로 선언하고 SqlProfiler 는 사용할 때 가져온다.
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<SqlProfiler> sqlProfiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals(PROFILED_DATA_SOURCE)) {
+                    return new ProfilingDataSource(dataSource, sqlProfiler.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static ServiceMethodProfilingPostProcessor serviceMethodProfilingPostProcessor() {
+        return new ServiceMethodProfilingPostProcessor();
+    }
+
+    //  다른 필터(JwtTokenFilter 의 유저 조회 포함)에서 실행한 SQL 에도 route 를 기록하도록 가장 먼저 실행
+    @Bean
+    public FilterRegistrationBean<SqlProfilingFilter> sqlProfilingFilter(
+            @Qualifier("requestMappingHandlerMapping") ObjectProvider<RequestMappingHandlerMapping> handlerMapping) {
+        SqlProfilingFilter filter = new SqlProfilingFilter(() -> SqlProfilingFilter.prefixesOf(
+                handlerMapping.getObject().getHandlerMethods().keySet().stream()
+                        .map(RequestMappingInfo::getPatternValues)
+                        .flatMap(Set::stream)
+                        .toList()));
+        FilterRegistrationBean<SqlProfilingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 3);
+        return registration;
+    }
+
+    //  controller 로 가는 요청은 매핑된 URL pattern 으로 route 를 기록
+    @Bean
+    public WebMvcConfigurer sqlProfilingRouteConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new SqlProfilingRouteInterceptor());
+            }
+        };
+    }
+}
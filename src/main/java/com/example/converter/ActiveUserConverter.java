@@ -0,0 +1,48 @@
+package com.example.converter;
+
+import com.example.activeuser.ActiveUserTracker;
+import com.example.activeuser.ActiveUserWindow;
+import com.example.activeuser.HyperLogLog;
+import com.example.domain.enums.LoginType;
+import com.example.web.dto.activeUserDTO.ActiveUserResponseDTO;
+
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ActiveUserConverter {
+
+    //  전체 로그인 방식을 합친 값의 key
+    private static final String ALL = "ALL";
+
+    public static ActiveUserResponseDTO.ActiveUserDTO toActiveUserDTO(ActiveUserTracker tracker) {
+        return ActiveUserResponseDTO.ActiveUserDTO.builder()
+                .minute(estimates(tracker, ActiveUserWindow.MINUTE))
+                .hour(estimates(tracker, ActiveUserWindow.HOUR))
+                .day(estimates(tracker, ActiveUserWindow.DAY))
+                .build();
+    }
+
+    public static ActiveUserResponseDTO.SketchDTO toSketchDTO(ActiveUserTracker tracker, ActiveUserWindow window) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        Map<String, String> sketches = new LinkedHashMap<>();
+        for (LoginType loginType : LoginType.values()) {
+            sketches.put(loginType.name(), encoder.encodeToString(tracker.sketch(loginType, window).toBytes()));
+        }
+
+        return ActiveUserResponseDTO.SketchDTO.builder()
+                .window(window.name())
+                .precision(HyperLogLog.PRECISION)
+                .sketches(sketches)
+                .build();
+    }
+
+    private static Map<String, Long> estimates(ActiveUserTracker tracker, ActiveUserWindow window) {
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        for (LoginType loginType : LoginType.values()) {
+            estimates.put(loginType.name(), tracker.sketch(loginType, window).estimate());
+        }
+        estimates.put(ALL, tracker.sketch(window).estimate());
+        return estimates;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.converter;
+
+import com.example.limit.Bulkhead;
+import com.example.web.dto.bulkheadDTO.BulkheadResponseDTO;
+
+import java.util.Collection;
+
+public class BulkheadConverter {
+
+    public static BulkheadResponseDTO.BulkheadStatusDTO toBulkheadStatusDTO(Bulkhead bulkhead) {
+        int inFlight = bulkhead.getInFlight();
+        long accepted = bulkhead.getAccepted();
+        long rejected = bulkhead.getRejected();
+
+        return BulkheadResponseDTO.BulkheadStatusDTO.builder()
+                .name(bulkhead.getName())
+                .maxConcurrent(bulkhead.getMaxConcurrent())
+                .inFlight(inFlight)
+                .peakInFlight(bulkhead.getPeakInFlight())
+                .saturation((double) inFlight / bulkhead.getMaxConcurrent())
+                .accepted(accepted)
+                .rejected(rejected)
+                .rejectRate(accepted + rejected == 0 ? 0 : (double) rejected / (accepted + rejected))
+                .build();
+    }
+
+    public static BulkheadResponseDTO.BulkheadListDTO toBulkheadListDTO(Collection<Bulkhead> bulkheads) {
+        return BulkheadResponseDTO.BulkheadListDTO.builder()
+                .bulkheads(bulkheads.stream().map(BulkheadConverter::toBulkheadStatusDTO).toList())
+                .build();
+    }
+}
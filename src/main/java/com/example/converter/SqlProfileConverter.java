@@ -0,0 +1,47 @@
+package com.example.converter;
+
+import com.example.jdbc.SqlProfiler;
+import com.example.jdbc.SqlStatementStats;
+import com.example.web.dto.sqlDTO.SqlProfileResponseDTO;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class SqlProfileConverter {
+
+    public static SqlProfileResponseDTO.StatementDTO toStatementDTO(SqlStatementStats stats) {
+        long calls = stats.getCalls().sum();
+        long totalNanos = stats.getTotalNanos().sum();
+
+        return SqlProfileResponseDTO.StatementDTO.builder()
+                .sql(stats.getSql())
+                .caller(stats.getCaller())
+                .route(stats.getRoute())
+                .calls(calls)
+                .errors(stats.getErrors().sum())
+                .rows(stats.getRows().sum())
+                .totalMillis(TimeUnit.NANOSECONDS.toMillis(totalNanos))
+                .avgMicros(calls == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos / calls))
+                .p50Micros(stats.percentileMicros(0.5))
+                .p99Micros(stats.percentileMicros(0.99))
+                .maxMicros(TimeUnit.NANOSECONDS.toMicros(stats.getMaxNanos().get()))
+                .build();
+    }
+
+    //  sql-profiler.enabled 가 false 이면 profiler 는 null
+    public static SqlProfileResponseDTO.SqlProfileDTO toSqlProfileDTO(SqlProfiler profiler, int limit) {
+        if (profiler == null) {
+            return SqlProfileResponseDTO.SqlProfileDTO.builder()
+                    .enabled(false)
+                    .statements(List.of())
+                    .build();
+        }
+
+        return SqlProfileResponseDTO.SqlProfileDTO.builder()
+                .enabled(true)
+                .slowThresholdMillis(profiler.getSlowThresholdMillis())
+                .droppedSlowStatements(profiler.getDroppedSlowStatements())
+                .statements(profiler.topStatements(limit).stream().map(SqlProfileConverter::toStatementDTO).toList())
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.converter;
+
+import com.example.auth.JwtTokenVerification;
+import com.example.web.dto.tokenDTO.TokenResponseDTO;
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.List;
+
+public class TokenConverter {
+
+    public static TokenResponseDTO.TokenStatusDTO toTokenStatusDTO(JwtTokenVerification verification) {
+        Claims claims = verification.getClaims();
+
+        return TokenResponseDTO.TokenStatusDTO.builder()
+                .status(verification.getStatus().name().toLowerCase())
+                .active(verification.isActive())
+                .loginId(verification.getLoginId())
+                .issuedAt(claims == null ? null : toEpochSecond(claims.getIssuedAt()))
+                .expiresAt(claims == null ? null : toEpochSecond(claims.getExpiration()))
+                .permissions(verification.getPermissions())
+                .build();
+    }
+
+    public static TokenResponseDTO.IntrospectResponseDTO toIntrospectResponseDTO(List<TokenResponseDTO.TokenStatusDTO> results) {
+        return TokenResponseDTO.IntrospectResponseDTO.builder()
+                .results(results)
+                .build();
+    }
+
+    private static Long toEpochSecond(Date date) {
+        return date == null ? null : date.getTime() / 1000;
+    }
+}
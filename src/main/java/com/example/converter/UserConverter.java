@@ -3,6 +3,9 @@ package com.example.converter;
 import com.example.domain.User;
 import com.example.domain.enums.UserRole;
 import com.example.web.dto.userDTO.UserRequestDTO;
+import com.example.web.dto.userDTO.UserResponseDTO;
+
+import java.util.List;
 
 public class UserConverter {
 
@@ -25,4 +28,30 @@ public class UserConverter {
                 .role(UserRole.USER)
                 .build();
     }
+
+    //password 는 응답에 포함하지 않음
+    public static UserResponseDTO.UserInfoDTO toUserInfoDTO(User user) {
+        return UserResponseDTO.UserInfoDTO.builder()
+                .id(user.getId())
+                .loginId(user.getLoginId())
+                .nickname(user.getNickname())
+                .role(user.getRole())
+                .provider(user.getProvider())
+                .build();
+    }
+
+    //size 만큼 꽉 채워서 조회되었으면 다음 페이지가 있을 수 있으므로 마지막 id를 cursor로 넘겨준다.
+    public static UserResponseDTO.UserPageDTO toUserPageDTO(List<User> users, int size) {
+        Long nextCursor = users.size() < size ? null : users.get(users.size() - 1).getId();
+
+        return toUserPageDTO(users, nextCursor);
+    }
+
+    //검색 결과처럼 cursor 를 따로 정하는 경우
+    public static UserResponseDTO.UserPageDTO toUserPageDTO(List<User> users, Long nextCursor) {
+        return UserResponseDTO.UserPageDTO.builder()
+                .users(users.stream().map(UserConverter::toUserInfoDTO).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
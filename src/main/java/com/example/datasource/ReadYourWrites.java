@@ -0,0 +1,56 @@
+package com.example.datasource;
+
+import java.util.function.LongConsumer;
+
+/**
+ * 현재 요청(스레드)의 read-your-writes 상태
+ *
+ * 유저가 데이터를 저장(write)한 직후에는 replica 에 아직 반영되지 않았을 수 있으므로
+ * 일정 시간(pinnedUntil) 동안 그 유저의 읽기 요청도 primary 로 보낸다.
+ * 요청 사이의 상태는 ReadYourWritesFilter 가 cookie 로 전달한다.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private static class State {
+        private long pinnedUntil;
+        private final LongConsumer onWrite;
+
+        private State(long pinnedUntil, LongConsumer onWrite) {
+            this.pinnedUntil = pinnedUntil;
+            this.onWrite = onWrite;
+        }
+    }
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * 요청 시작 시 호출
+     * pinnedUntil : 이전 요청에서 전달받은 primary 고정 만료 시각 (epoch millis, 없으면 0)
+     * onWrite     : 이 요청에서 write 가 commit 되면 새 만료 시각으로 호출 (다음 요청에 전달하기 위해)
+     */
+    public static void begin(long pinnedUntil, LongConsumer onWrite) {
+        CURRENT.set(new State(pinnedUntil, onWrite));
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static boolean isPinned(long now) {
+        State state = CURRENT.get();
+        return state != null && state.pinnedUntil > now;
+    }
+
+    //  write 트랜잭션이 commit 된 후 호출
+    static void written(long pinnedUntil) {
+        State state = CURRENT.get();
+        if (state == null || pinnedUntil <= state.pinnedUntil) {
+            return;
+        }
+        state.pinnedUntil = pinnedUntil;
+        state.onWrite.accept(pinnedUntil);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * read-your-writes 상태를 cookie 로 요청 사이에 전달하는 필터
+ *
+ * 요청에서 write 가 commit 되면 primary 고정 만료 시각을 cookie 에 담아주고,
+ * 이후 요청에서는 cookie 의 시각이 지나기 전까지 읽기도 primary 에서 한다.
+ * (write 는 컨트롤러에서 일어나므로 응답이 commit 되기 전에 cookie 를 추가할 수 있다.)
+ *
+ * cookie 값은 "만료 시각.서명(HMAC-SHA256)" 형식이다.
+ * 클라이언트가 시각을 바꾸면 서명이 맞지 않으므로 무시하고, 서버가 발급한 시각은 write 시점 + window 를 넘지 않는다.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "primary-until";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder BASE64_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+
+    private final long windowMillis;
+    private final SecretKeySpec secretKey;
+
+    //  Mac 은 thread-safe 하지 않으므로 스레드마다 만들어서 재사용
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::createMac);
+
+    public ReadYourWritesFilter(long windowMillis, String secretKey) {
+        this.windowMillis = windowMillis;
+        this.secretKey = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        //  서명이 맞더라도 window 보다 길게 고정되지 않도록 한다. (window 설정을 줄인 경우)
+        long pinnedUntil = Math.min(pinnedUntil(request), System.currentTimeMillis() + windowMillis);
+
+        ReadYourWrites.begin(pinnedUntil, newPinnedUntil -> {
+            if (response.isCommitted()) {
+                return;
+            }
+            Cookie cookie = new Cookie(COOKIE_NAME, sign(newPinnedUntil));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            response.addCookie(cookie);
+        });
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.end();
+        }
+    }
+
+    //  "만료 시각.서명"
+    String sign(long pinnedUntil) {
+        String value = Long.toString(pinnedUntil);
+        return value + "." + BASE64_ENCODER.encodeToString(mac.get().doFinal(value.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    //  서명이 맞는 cookie 의 만료 시각 (cookie 가 없거나 서명이 틀리면 0)
+    long verify(String cookieValue) {
+        int separator = cookieValue.indexOf('.');
+        if (separator <= 0) {
+            return 0L;
+        }
+
+        String value = cookieValue.substring(0, separator);
+        byte[] signature;
+        try {
+            signature = BASE64_DECODER.decode(cookieValue.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return 0L;
+        }
+        byte[] expected = mac.get().doFinal(value.getBytes(StandardCharsets.US_ASCII));
+        if (!MessageDigest.isEqual(signature, expected)) {
+            return 0L;
+        }
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0L;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return verify(cookie.getValue());
+            }
+        }
+        return 0L;
+    }
+
+    private Mac createMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC 초기화 실패", e);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 읽기 전용 트랜잭션은 replica, 나머지(쓰기, 트랜잭션 밖)는 primary 로 보내는 DataSource
+ *
+ * 트랜잭션의 readOnly 여부는 트랜잭션이 시작된 후에 정해지므로 반드시 LazyConnectionDataSourceProxy 로 감싸서
+ * 실제로 SQL 을 실행할 때 connection 을 가져오도록 해야 한다.
+ *
+ *  - replica 가 여러 개면 정상(healthy)인 replica 를 돌아가면서 사용한다.
+ *  - replica 에서 connection 을 가져오지 못하거나 health check 에 실패하면 제외(eject)하고, 다시 성공하면 복귀시킨다.
+ *    정상인 replica 가 없으면 primary 에서 읽는다.
+ *  - health check 마다 primary 의 replication_heartbeat 에 현재 시각을 기록하고, replica 에 반영된 시각과 비교해서
+ *    maxLagMillis 보다 뒤처진 replica 도 제외한다. (connection 은 되지만 복제가 멈춘 경우)
+ *  - 쓰기 트랜잭션이 commit 되면 readYourWritesMillis 동안 같은 유저의 읽기도 primary 로 보낸다. (ReadYourWrites)
+ */
+@Slf4j
+public class ReplicationRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Object WRITE_TRACKED = new Object();
+
+    static final String CREATE_HEARTBEAT_TABLE_SQL =
+            "create table if not exists replication_heartbeat (id int not null primary key, beat bigint not null)";
+    static final String UPDATE_HEARTBEAT_SQL = "update replication_heartbeat set beat = ? where id = 1";
+    static final String INSERT_HEARTBEAT_SQL = "insert into replication_heartbeat (id, beat) values (1, ?)";
+    static final String SELECT_HEARTBEAT_SQL = "select beat from replication_heartbeat where id = 1";
+
+    //  primary 에 heartbeat 를 기록하지 못했거나 아직 기록하지 않음
+    private static final long NO_HEARTBEAT = -1L;
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long readYourWritesMillis;
+    private final long maxLagMillis;
+    private final LongSupplier clock;
+
+    //  replica 별 상태 (1 : 정상, 0 : 제외)
+    private final AtomicIntegerArray healthy;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private ScheduledExecutorService healthChecker;
+
+    //  이전 health check 에서 primary 에 기록한 heartbeat 시각 (health check 스레드에서만 사용)
+    private long lastHeartbeat = NO_HEARTBEAT;
+    private boolean heartbeatTableCreated;
+
+    /**
+     * maxLagMillis : replica 에 반영된 heartbeat 가 이 시간보다 뒤처지면 제외 (0 이하면 복제 지연은 확인하지 않음)
+     *                heartbeat 는 health check 주기마다 기록하므로 health check 주기보다 길게 설정해야 한다.
+     */
+    public ReplicationRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                        long readYourWritesMillis, long maxLagMillis, LongSupplier clock) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesMillis = readYourWritesMillis;
+        this.maxLagMillis = maxLagMillis;
+        this.clock = clock;
+        this.healthy = new AtomicIntegerArray(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            healthy.set(i, 1);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionOpener opener) throws SQLException {
+        int replica = route();
+        if (replica < 0) {
+            return opener.open(primary);
+        }
+
+        try {
+            return opener.open(replicas.get(replica));
+        } catch (SQLException e) {
+            //  replica 에 문제가 있으면 제외하고 이번 요청은 primary 에서 처리
+            eject(replica, e);
+            return opener.open(primary);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    /**
+     * connection 을 가져올 replica 번호 (-1 : primary)
+     */
+    int route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return -1;
+        }
+        if (replicas.isEmpty() || ReadYourWrites.isPinned(clock.getAsLong())) {
+            return -1;
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            int replica = (start + i) % size;
+            if (healthy.get(replica) == 1) {
+                return replica;
+            }
+        }
+        return -1;
+    }
+
+    //  쓰기 트랜잭션이 commit 되면 read-your-writes 시작 (트랜잭션마다 한 번만 등록)
+    private void trackWrite() {
+        if (replicas.isEmpty()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_TRACKED)) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ReadYourWrites.written(clock.getAsLong() + readYourWritesMillis);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKED);
+            }
+        });
+    }
+
+    /**
+     * 모든 replica 에 connection 을 맺어서 확인하고 상태를 갱신
+     * 복제 지연은 이전 health check 에서 primary 에 기록한 heartbeat 가 replica 에 반영됐는지로 확인한다.
+     * (방금 기록한 heartbeat 는 아직 복제되지 않았을 수 있으므로 비교하지 않는다.)
+     */
+    public synchronized void checkHealth(int timeoutSeconds) {
+        long expectedHeartbeat = lastHeartbeat;
+        for (int i = 0; i < replicas.size(); i++) {
+            try (Connection connection = replicas.get(i).getConnection()) {
+                if (!connection.isValid(timeoutSeconds)) {
+                    eject(i, null);
+                    continue;
+                }
+                if (maxLagMillis > 0 && expectedHeartbeat != NO_HEARTBEAT) {
+                    long lagMillis = expectedHeartbeat - readHeartbeat(connection, timeoutSeconds);
+                    if (lagMillis > maxLagMillis) {
+                        if (healthy.compareAndSet(i, 1, 0)) {
+                            log.warn("replica-{} 제외 (복제 지연 {}ms 이상)", i, lagMillis);
+                        }
+                        continue;
+                    }
+                }
+                if (healthy.compareAndSet(i, 0, 1)) {
+                    log.info("replica-{} 복귀", i);
+                }
+            } catch (SQLException e) {
+                eject(i, e);
+            }
+        }
+
+        if (maxLagMillis > 0) {
+            lastHeartbeat = writeHeartbeat(clock.getAsLong(), timeoutSeconds);
+        }
+    }
+
+    //  primary 에 heartbeat 기록 (실패하면 다음 health check 에서는 복제 지연을 확인하지 않는다.)
+    private long writeHeartbeat(long heartbeat, int timeoutSeconds) {
+        try (Connection connection = primary.getConnection(); Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(timeoutSeconds);
+            if (!heartbeatTableCreated) {
+                statement.execute(CREATE_HEARTBEAT_TABLE_SQL);
+                heartbeatTableCreated = true;
+            }
+            try (PreparedStatement update = connection.prepareStatement(UPDATE_HEARTBEAT_SQL)) {
+                update.setLong(1, heartbeat);
+                if (update.executeUpdate() == 0) {
+                    try (PreparedStatement insert = connection.prepareStatement(INSERT_HEARTBEAT_SQL)) {
+                        insert.setLong(1, heartbeat);
+                        insert.executeUpdate();
+                    }
+                }
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            return heartbeat;
+        } catch (SQLException e) {
+            log.warn("primary heartbeat 기록 실패 (복제 지연 확인 생략)", e);
+            return NO_HEARTBEAT;
+        }
+    }
+
+    //  replica 에 반영된 heartbeat (아직 한 번도 반영되지 않았으면 0 -> 지연된 것으로 본다.)
+    private static long readHeartbeat(Connection connection, int timeoutSeconds) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_HEARTBEAT_SQL)) {
+            statement.setQueryTimeout(timeoutSeconds);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0L;
+            }
+        }
+    }
+
+    public void startHealthCheck(long intervalMillis, int timeoutSeconds) {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(() -> checkHealth(timeoutSeconds), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isHealthy(int replica) {
+        return healthy.get(replica) == 1;
+    }
+
+    private void eject(int replica, SQLException cause) {
+        if (healthy.compareAndSet(replica, 1, 0)) {
+            log.warn("replica-{} 제외 (정상인 replica 가 없으면 primary 에서 읽음)", replica, cause);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        for (DataSource replica : replicas) {
+            closeIfPossible(replica);
+        }
+        closeIfPossible(primary);
+    }
+
+    private static void closeIfPossible(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -7,12 +7,29 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import lombok.*;
 
+import java.io.ObjectStreamField;
+import java.io.Serializable;
+
 @Entity
-@Builder
+@Builder(toBuilder = true)
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
-public class User {
+public class User implements Serializable {
+
+    //  form, OAuth2 로그인 세션의 PrincipalDetails 에 포함되어 세션과 함께 직렬화된다.
+    private static final long serialVersionUID = 1L;
+
+    //  세션 저장소(파일)에 비밀번호 hash 가 남지 않도록 password 는 직렬화하지 않는다.
+    //  (transient 로 선언하면 JPA 도 컬럼으로 저장하지 않으므로 직렬화할 필드를 직접 지정)
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("id", long.class),
+            new ObjectStreamField("loginId", String.class),
+            new ObjectStreamField("nickname", String.class),
+            new ObjectStreamField("role", UserRole.class),
+            new ObjectStreamField("provider", String.class),
+            new ObjectStreamField("providerId", String.class)
+    };
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -0,0 +1,45 @@
+package com.example.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+//  로그인 방식 (url prefix 와 같은 이름 사용)
+//  code 는 감사 로그 segment 파일에 저장되는 값이므로 바꾸지 않는다. (새 방식은 다음 code 를 사용)
+@Getter
+@RequiredArgsConstructor
+public enum LoginType {
+    COOKIE("cookie-login", (byte) 0),
+    SESSION("session-login", (byte) 1),
+    SECURITY("security-login", (byte) 2),
+    JWT("jwt-login", (byte) 3),
+    OAUTH2("oauth2-login", (byte) 4);
+
+    private final String path;
+    private final byte code;
+
+    //  알 수 없는 code 면 null
+    public static LoginType fromCode(byte code) {
+        for (LoginType loginType : values()) {
+            if (loginType.code == code) {
+                return loginType;
+            }
+        }
+        return null;
+    }
+
+    //  요청 url 로 로그인 방식 찾기 (해당하는 방식이 없으면 null)
+    public static LoginType fromRequestUri(String uri) {
+        if (uri == null) {
+            return null;
+        }
+        if (uri.startsWith("/oauth2/") || uri.startsWith("/login/oauth2/")) {
+            return OAUTH2;
+        }
+        for (LoginType loginType : values()) {
+            if (uri.startsWith(loginType.path, 1) && uri.charAt(0) == '/') {
+                return loginType;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.domain.enums;
+
+import lombok.Getter;
+
+//  세부 권한 (bit 위치가 Token 의 perm claim 에 그대로 들어가므로 바꾸지 않는다. 새 권한은 다음 bit 를 사용)
+@Getter
+public enum Permission {
+    VIEW_INFO(0),       //  내 정보 조회
+    ACCESS_ADMIN(1),    //  관리자 페이지, 유저 목록 / 검색
+    EXPORT_USERS(2),    //  유저 목록 내보내기
+    VIEW_METRICS(3),    //  SQL 실행 통계, 활성 유저 수
+    INTROSPECT_TOKENS(4);   //  여러 Token 일괄 검증 (/jwt-login/introspect)
+
+    private final long mask;
+
+    Permission(int bit) {
+        this.mask = 1L << bit;
+    }
+
+    public static long maskOf(Permission... permissions) {
+        long mask = 0L;
+        for (Permission permission : permissions) {
+            mask |= permission.mask;
+        }
+        return mask;
+    }
+}
@@ -1,5 +1,26 @@
 package com.example.domain.enums;
 
+import lombok.Getter;
+
+//  role 별 권한은 생성할 때 bitmask(long) 로 미리 계산해두고, 권한 확인은 bit 연산 한 번으로 한다.
+@Getter
 public enum UserRole {
-    USER, ADMIN;
+    USER(Permission.VIEW_INFO),
+    ADMIN(Permission.VIEW_INFO, Permission.ACCESS_ADMIN, Permission.EXPORT_USERS, Permission.VIEW_METRICS,
+            Permission.INTROSPECT_TOKENS);
+
+    private final long permissions;
+
+    UserRole(Permission... permissions) {
+        this.permissions = Permission.maskOf(permissions);
+    }
+
+    public boolean has(Permission permission) {
+        return (permissions & permission.getMask()) != 0;
+    }
+
+    //  role 이 없으면 권한 없음
+    public static long permissionsOf(UserRole role) {
+        return role == null ? 0L : role.permissions;
+    }
 }
@@ -0,0 +1,13 @@
+package com.example.domain.event;
+
+import com.example.domain.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//  저장 중 id 가 다른 유저와 겹쳐서 새 id 로 다시 저장할 때 publish (UserJoinedEvent 는 이전 id 로 publish 된 상태)
+@Getter
+@AllArgsConstructor
+public class UserIdReassignedEvent {
+    private long previousId;
+    private User user;
+}
@@ -0,0 +1,12 @@
+package com.example.domain.event;
+
+import com.example.domain.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//  회원가입, OAuth 가입으로 새 유저가 저장되었을 때 publish
+@Getter
+@AllArgsConstructor
+public class UserJoinedEvent {
+    private User user;
+}
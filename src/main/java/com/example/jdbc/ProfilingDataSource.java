@@ -0,0 +1,173 @@
+package com.example.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Connection, Statement, ResultSet 을 proxy 로 감싸서 SQL 실행 시간, row 수를 SqlProfiler 에 기록하는 DataSource
+ *
+ * 실행 시간 : execute* 메서드 호출 시간 (ResultSet 을 읽는 시간은 포함하지 않음)
+ * row 수   : executeQuery 는 ResultSet 을 닫을 때까지 읽은 row 수, executeUpdate / executeBatch 는 변경된 row 수
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    private static final ClassLoader CLASS_LOADER = ProfilingDataSource.class.getClassLoader();
+
+    private final SqlProfiler profiler;
+
+    public ProfilingDataSource(DataSource targetDataSource, SqlProfiler profiler) {
+        super(targetDataSource);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{type}, handler);
+    }
+
+    //  proxy 자신의 equals, hashCode 를 처리하고 나머지는 target 으로 전달
+    private abstract static class TargetHandler implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private class ConnectionHandler extends TargetHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall" -> proxy(CallableStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                case "createStatement" -> proxy(Statement.class, new StatementHandler((Statement) result, null));
+                default -> result;
+            };
+        }
+    }
+
+    private class StatementHandler extends TargetHandler {
+
+        private final Statement target;
+        //  PreparedStatement 의 SQL (Statement 는 execute 할 때 전달받음)
+        private final String sql;
+        private SqlStatementStats lastStats;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getResultSet")) {
+                ResultSet resultSet = (ResultSet) invokeTarget(target, method, args);
+                return resultSet == null || lastStats == null ? resultSet : proxy(ResultSet.class, new ResultSetHandler(resultSet, lastStats));
+            }
+            if (!name.startsWith("execute")) {
+                return invokeTarget(target, method, args);
+            }
+
+            String executed = sql != null ? sql : (args != null && args.length > 0 && args[0] instanceof String s ? s : null);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invokeTarget(target, method, args);
+            } catch (Throwable e) {
+                profiler.record(executed, System.nanoTime() - start, true);
+                throw e;
+            }
+            lastStats = profiler.record(executed, System.nanoTime() - start, false);
+
+            if (result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, lastStats));
+            }
+            if (name.equals("executeUpdate") || name.equals("executeLargeUpdate")) {
+                lastStats.addRows(((Number) result).longValue());
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    lastStats.addRows(count);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    lastStats.addRows(count);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static class ResultSetHandler extends TargetHandler {
+
+        private final ResultSet target;
+        private final SqlStatementStats stats;
+        private long rows;
+        private boolean closed;
+
+        ResultSetHandler(ResultSet target, SqlStatementStats stats) {
+            this.target = target;
+            this.stats = stats;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(target, method, args);
+            if (method.getName().equals("next")) {
+                if ((Boolean) result) {
+                    rows++;
+                }
+            } else if (method.getName().equals("close") && !closed) {
+                closed = true;
+                stats.addRows(rows);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.jdbc;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * com.example.service 패키지의 *Service bean 의 public 메서드 실행 중에 실행한 SQL 에 "클래스.메서드" 를 기록
+ * @Transactional 보다 먼저(바깥에서) 실행되도록 기존 advisor 앞에 추가한다. (commit 시점의 SQL 도 같은 메서드로 기록)
+ */
+public class ServiceMethodProfilingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private static final String SERVICE_PACKAGE = "com.example.service";
+
+    private final ConcurrentHashMap<Method, String> callerNames = new ConcurrentHashMap<>();
+
+    public ServiceMethodProfilingPostProcessor() {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+            }
+        };
+        pointcut.setClassFilter(isService());
+
+        MethodInterceptor interceptor = invocation -> {
+            Method method = invocation.getMethod();
+            String caller = callerNames.computeIfAbsent(method, key -> key.getDeclaringClass().getSimpleName() + "." + key.getName());
+            String previous = SqlProfilingContext.enterCaller(caller);
+            try {
+                return invocation.proceed();
+            } finally {
+                SqlProfilingContext.restoreCaller(previous);
+            }
+        };
+
+        this.advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        setBeforeExistingAdvisors(true);
+        setProxyTargetClass(true);
+    }
+
+    private static ClassFilter isService() {
+        return clazz -> clazz.getPackageName().equals(SERVICE_PACKAGE) && clazz.getSimpleName().endsWith("Service");
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 실행 통계 (show-sql 대신 사용)
+ *
+ * ProfilingDataSource 가 SQL 을 실행할 때마다 (SQL 형태, 서비스 메서드, HTTP route) 별로 호출 수, 실행 시간 histogram, row 수를 기록한다.
+ * SQL 형태 : 문자열, 숫자 값을 ? 로 바꾸고 in (?, ?, ...) 을 in (?) 로 합친 SQL
+ * 조합 수가 maxStatements 를 넘으면 새 조합은 OVERFLOW 하나로 합쳐서 메모리 사용량을 제한한다.
+ *
+ * slowThreshold 보다 오래 걸린 SQL 은 queue 에 넣고 별도 스레드가 로그(sql.slow)로 남긴다.
+ * queue 가 가득 차면 버리고 버린 개수만 센다. (SQL 실행 스레드는 로그를 기다리지 않는다)
+ */
+public class SqlProfiler implements AutoCloseable {
+
+    static final String OVERFLOW = "(기타)";
+    private static final String NONE = "-";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    //  일반 로그와 따로 설정할 수 있도록 별도 logger 사용
+    private static final Logger SLOW_LOG = LoggerFactory.getLogger("sql.slow");
+
+    private record Key(String sql, String caller, String route) {
+    }
+
+    private record SlowStatement(String sql, String caller, String route, long nanos, boolean error) {
+    }
+
+    private final long slowThresholdNanos;
+    private final int maxStatements;
+
+    //  원본 SQL -> SQL 형태 (PreparedStatement 의 SQL 은 매번 같은 문자열이므로 한 번만 변환)
+    private final ConcurrentHashMap<String, String> shapes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Key, SqlStatementStats> statements = new ConcurrentHashMap<>();
+    private final SqlStatementStats overflow = new SqlStatementStats(OVERFLOW, NONE, NONE);
+
+    private final ArrayBlockingQueue<SlowStatement> slowQueue;
+    private final LongAdder droppedSlow = new LongAdder();
+    private final Thread slowLogger;
+
+    public SqlProfiler(long slowThresholdMillis, int maxStatements, int slowQueueSize) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.maxStatements = maxStatements;
+        this.slowQueue = new ArrayBlockingQueue<>(slowQueueSize);
+
+        this.slowLogger = new Thread(this::logSlowStatements, "sql-slow-logger");
+        this.slowLogger.setDaemon(true);
+        this.slowLogger.start();
+    }
+
+    /**
+     * SQL 실행 한 번을 기록하고 통계 객체를 return (ResultSet 을 다 읽은 뒤 row 수를 추가할 때 사용)
+     */
+    public SqlStatementStats record(String sql, long nanos, boolean error) {
+        String caller = orNone(SqlProfilingContext.caller());
+        String route = orNone(SqlProfilingContext.route());
+        String shape = shapeOf(sql);
+
+        Key key = new Key(shape, caller, route);
+        SqlStatementStats stats = statements.get(key);
+        if (stats == null) {
+            stats = statements.size() < maxStatements
+                    ? statements.computeIfAbsent(key, k -> new SqlStatementStats(k.sql(), k.caller(), k.route()))
+                    : overflow;
+        }
+        stats.record(nanos, error);
+
+        if (nanos >= slowThresholdNanos && !slowQueue.offer(new SlowStatement(shape, caller, route, nanos, error))) {
+            droppedSlow.increment();
+        }
+        return stats;
+    }
+
+    //  총 실행 시간이 긴 순서로 최대 limit 개
+    public List<SqlStatementStats> topStatements(int limit) {
+        List<SqlStatementStats> result = new ArrayList<>(statements.values());
+        if (overflow.getCalls().sum() > 0) {
+            result.add(overflow);
+        }
+        result.sort(Comparator.comparingLong((SqlStatementStats stats) -> stats.getTotalNanos().sum()).reversed());
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    public long getDroppedSlowStatements() {
+        return droppedSlow.sum();
+    }
+
+    public long getSlowThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    private String shapeOf(String sql) {
+        if (sql == null) {
+            return NONE;
+        }
+        String shape = shapes.get(sql);
+        if (shape == null) {
+            shape = normalize(sql);
+            //  literal 이 들어간 SQL 이 많아도 캐시가 계속 커지지 않도록
+            if (shapes.size() < maxStatements) {
+                shapes.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private void logSlowStatements() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                SlowStatement slow = slowQueue.take();
+                SLOW_LOG.warn("{}ms{} [{}] [{}] {}", TimeUnit.NANOSECONDS.toMillis(slow.nanos()), slow.error() ? " (error)" : "",
+                        slow.route(), slow.caller(), slow.sql());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static String orNone(String value) {
+        return value == null ? NONE : value;
+    }
+
+    @Override
+    public void close() {
+        slowLogger.interrupt();
+    }
+}
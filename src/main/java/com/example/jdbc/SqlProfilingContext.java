@@ -0,0 +1,51 @@
+package com.example.jdbc;
+
+/**
+ * 현재 스레드에서 실행 중인 HTTP route, 서비스 메서드 (SqlProfiler 가 SQL 실행을 기록할 때 함께 저장)
+ * SqlProfilingFilter, ServiceMethodProfilingPostProcessor 가 설정하고, 끝나면 이전 값으로 되돌린다.
+ */
+public final class SqlProfilingContext {
+
+    private static final ThreadLocal<String> ROUTE = new ThreadLocal<>();
+    private static final ThreadLocal<String> CALLER = new ThreadLocal<>();
+
+    private SqlProfilingContext() {
+    }
+
+    public static String route() {
+        return ROUTE.get();
+    }
+
+    public static String caller() {
+        return CALLER.get();
+    }
+
+    //  이전 값을 return (restoreRoute 에 전달)
+    public static String enterRoute(String route) {
+        String previous = ROUTE.get();
+        ROUTE.set(route);
+        return previous;
+    }
+
+    public static void restoreRoute(String previous) {
+        if (previous == null) {
+            ROUTE.remove();
+        } else {
+            ROUTE.set(previous);
+        }
+    }
+
+    public static String enterCaller(String caller) {
+        String previous = CALLER.get();
+        CALLER.set(caller);
+        return previous;
+    }
+
+    public static void restoreCaller(String previous) {
+        if (previous == null) {
+            CALLER.remove();
+        } else {
+            CALLER.set(previous);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.jdbc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 요청 처리 중에 실행한 SQL 에 HTTP route 를 기록
+ *
+ * 요청 URI 를 그대로 쓰면 /jwt-login/<임의의 값> 처럼 경로만 바꾼 요청으로 SqlProfiler 의 조합 수 제한을 채울 수 있으므로
+ * 정해진 개수 안의 값만 route 로 사용한다.
+ * - handler 가 정해지기 전 (다른 필터의 SQL) : method + 컨트롤러에 매핑된 첫 경로 (GET /jwt-login/**), 모르는 경로는 UNKNOWN_PATH
+ * - handler 가 정해진 뒤 : SqlProfilingRouteInterceptor 가 method + 매핑된 URL pattern (GET /jwt-login/info) 으로 바꾼다.
+ */
+public class SqlProfilingFilter extends OncePerRequestFilter {
+
+    static final String UNKNOWN_PATH = "(기타 경로)";
+    static final String UNKNOWN_METHOD = "OTHER";
+
+    private static final Set<String> METHODS = Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS");
+
+    //  컨트롤러 URL pattern 의 첫 경로 (handler mapping 이 준비된 뒤 첫 요청에서 읽는다)
+    private final Supplier<Set<String>> knownPrefixesLoader;
+    private volatile Set<String> knownPrefixes;
+
+    public SqlProfilingFilter(Supplier<Set<String>> knownPrefixesLoader) {
+        this.knownPrefixesLoader = knownPrefixesLoader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String previous = SqlProfilingContext.enterRoute(methodOf(request) + " " + prefixOf(request.getRequestURI()));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlProfilingContext.restoreRoute(previous);
+        }
+    }
+
+    static String methodOf(HttpServletRequest request) {
+        String method = request.getMethod();
+        return METHODS.contains(method) ? method : UNKNOWN_METHOD;
+    }
+
+    private String prefixOf(String uri) {
+        Set<String> prefixes = knownPrefixes;
+        if (prefixes == null) {
+            prefixes = knownPrefixes = knownPrefixesLoader.get();
+        }
+        String segment = firstSegment(uri);
+        return segment != null && prefixes.contains(segment) ? "/" + segment + "/**" : UNKNOWN_PATH;
+    }
+
+    //  URL pattern 의 첫 경로 중 고정된 값만 (/{id}, /** 등은 제외)
+    public static Set<String> prefixesOf(Collection<String> patterns) {
+        Set<String> prefixes = new HashSet<>();
+        for (String pattern : patterns) {
+            String segment = firstSegment(pattern);
+            if (segment != null && segment.indexOf('{') < 0 && segment.indexOf('*') < 0) {
+                prefixes.add(segment);
+            }
+        }
+        return Set.copyOf(prefixes);
+    }
+
+    private static String firstSegment(String path) {
+        if (path == null || !path.startsWith("/")) {
+            return null;
+        }
+        int end = path.indexOf('/', 1);
+        String segment = end < 0 ? path.substring(1) : path.substring(1, end);
+        return segment.isEmpty() ? null : segment;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.jdbc;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * handler 가 정해지면 route 를 매핑된 URL pattern 으로 바꾼다. (요청 URI 와 달리 controller 매핑 수만큼만 생긴다)
+ * 이전 route 로 되돌리는 것은 SqlProfilingFilter 가 요청이 끝날 때 한다.
+ */
+public class SqlProfilingRouteInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        //  SqlProfilingFilter 밖 (error 페이지 dispatch 등) 에서 설정하면 되돌릴 곳이 없으므로 바꾸지 않는다.
+        if (pattern != null && SqlProfilingContext.route() != null) {
+            SqlProfilingContext.enterRoute(SqlProfilingFilter.methodOf(request) + " " + pattern);
+        }
+        return true;
+    }
+}
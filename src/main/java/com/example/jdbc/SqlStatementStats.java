@@ -0,0 +1,78 @@
+package com.example.jdbc;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * (SQL, 서비스 메서드, route) 하나의 실행 통계
+ *
+ * 실행 시간은 log2 histogram 으로 저장한다. bucket i 는 [2^(i-1), 2^i) us 구간이고, 백분위는 bucket 의 상한으로 추정한다.
+ * 모든 값은 lock 없이 여러 스레드에서 동시에 기록한다.
+ */
+@Getter
+public class SqlStatementStats {
+
+    static final int BUCKETS = 40;
+
+    private final String sql;
+    private final String caller;
+    private final String route;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    public SqlStatementStats(String sql, String caller, String route) {
+        this.sql = sql;
+        this.caller = caller;
+        this.route = route;
+    }
+
+    void record(long nanos, boolean error) {
+        calls.increment();
+        if (error) {
+            errors.increment();
+        }
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        histogram.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+    }
+
+    void addRows(long count) {
+        if (count > 0) {
+            rows.add(count);
+        }
+    }
+
+    //  percentile (0 ~ 1) 에 해당하는 실행 시간의 상한 (us)
+    public long percentileMicros(double percentile) {
+        long total = 0;
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+}
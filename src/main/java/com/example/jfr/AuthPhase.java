@@ -0,0 +1,11 @@
+package com.example.jfr;
+
+//  AuthPhaseEvent 로 측정하는 인증 단계
+public enum AuthPhase {
+    JWT_VERIFY,             //  JwtTokenFilter : Token 파싱, 서명/만료 검증
+    JWT_USER_LOAD,          //  JwtTokenFilter : Token 의 loginId 로 유저 조회
+    USER_LOGIN,             //  UserService.login
+    USER_JOIN,              //  UserService.join2 (BCrypt 암호화 포함)
+    USER_DETAILS_LOAD,      //  PrincipalDetailsService.loadUserByUsername
+    OAUTH2_USER_LOAD        //  PrincipalOauth2UserService.loadUser (userinfo 요청 포함)
+}
@@ -0,0 +1,89 @@
+package com.example.jfr;
+
+import com.example.domain.enums.LoginType;
+import jakarta.servlet.http.HttpServletRequest;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 인증 단계 하나의 소요 시간을 기록하는 JFR 이벤트
+ *
+ *  AuthPhaseEvent event = AuthPhaseEvent.begin(AuthPhase.USER_LOGIN);
+ *  ...
+ *  event.finish("success", loginId);
+ *
+ * 녹화 중이 아니거나 threshold 보다 짧으면 commit 하지 않으므로,
+ * loginType 조회, loginId 해시 같은 작업은 commit 할 때만 한다.
+ */
+@Name("com.example.AuthPhase")
+@Label("Authentication Phase")
+@Description("로그인, 회원가입, Token 검증 등 인증 단계 하나의 소요 시간")
+@Category({"Springboot Login Study", "Authentication"})
+@StackTrace(false)
+public class AuthPhaseEvent extends Event {
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Login Type")
+    private String loginType;
+
+    @Label("Outcome")
+    private String outcome;
+
+    @Label("Login Id Hash")
+    @Description("loginId 의 SHA-256 앞 8 byte (hex)")
+    private String loginIdHash;
+
+    public static AuthPhaseEvent begin(AuthPhase phase) {
+        AuthPhaseEvent event = new AuthPhaseEvent();
+        event.phase = phase.name();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String outcome, String loginId) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            this.loginType = currentLoginType();
+            this.loginIdHash = hash(loginId);
+            commit();
+        }
+    }
+
+    //  현재 요청 url 로 로그인 방식 구하기 (요청 스레드가 아니면 null)
+    private static String currentLoginType() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletRequestAttributes) {
+            HttpServletRequest request = servletRequestAttributes.getRequest();
+            LoginType loginType = LoginType.fromRequestUri(request.getRequestURI());
+            return loginType == null ? null : loginType.name();
+        }
+        return null;
+    }
+
+    private static String hash(String loginId) {
+        if (loginId == null) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(loginId.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
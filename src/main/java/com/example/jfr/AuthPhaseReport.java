@@ -0,0 +1,82 @@
+package com.example.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JFR 녹화 파일에서 AuthPhase 이벤트를 읽어 단계별 latency 를 요약한다.
+ *
+ * 사용법
+ *  java -cp app.jar -Dloader.main=com.example.jfr.AuthPhaseReport org.springframework.boot.loader.launch.PropertiesLauncher auth.jfr
+ *  (jfr 파일은 jcmd <pid> JFR.dump name=auth filename=auth.jfr 로도 만들 수 있다.)
+ */
+public class AuthPhaseReport {
+
+    private static final String EVENT_NAME = "com.example.AuthPhase";
+
+    //  phase / loginType / outcome 별 소요 시간(ns) 목록
+    private static class Durations {
+        private long[] values = new long[64];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long percentile(long[] sorted, double percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+            return sorted[Math.max(0, Math.min(index, size - 1))];
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: AuthPhaseReport <recording.jfr>");
+            System.exit(1);
+        }
+
+        Map<String, Durations> durationsByKey = summarize(Paths.get(args[0]));
+
+        System.out.printf("%-45s %8s %10s %10s %10s %10s%n", "phase / loginType / outcome", "count", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)");
+        durationsByKey.forEach((key, durations) -> {
+            long[] sorted = Arrays.copyOf(durations.values, durations.size);
+            Arrays.sort(sorted);
+            System.out.printf("%-45s %8d %10.3f %10.3f %10.3f %10.3f%n", key, durations.size,
+                    toMillis(durations.percentile(sorted, 50)),
+                    toMillis(durations.percentile(sorted, 90)),
+                    toMillis(durations.percentile(sorted, 99)),
+                    toMillis(sorted[sorted.length - 1]));
+        });
+    }
+
+    private static Map<String, Durations> summarize(Path recording) throws IOException {
+        Map<String, Durations> durationsByKey = new TreeMap<>();
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                if (!EVENT_NAME.equals(event.getEventType().getName())) {
+                    continue;
+                }
+
+                String key = event.getString("phase") + " / " + event.getString("loginType") + " / " + event.getString("outcome");
+                durationsByKey.computeIfAbsent(key, k -> new Durations()).add(event.getDuration().toNanos());
+            }
+        }
+        return durationsByKey;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
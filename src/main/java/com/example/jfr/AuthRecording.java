@@ -0,0 +1,69 @@
+package com.example.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * 서버 안에서 jfr/auth.jfc 설정으로 JFR 녹화를 시작한다. (jfr.auth-recording.enabled=true 인 경우)
+ * 녹화는 max-age 만큼만 유지되고, 서버 종료 시 destination 에 저장된다.
+ * 저장된 파일은 AuthPhaseReport 로 단계별 latency 를 확인할 수 있다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jfr.auth-recording.enabled", havingValue = "true")
+public class AuthRecording {
+
+    private final Duration maxAge;
+    private final Path destination;
+    private Recording recording;
+
+    public AuthRecording(@Value("${jfr.auth-recording.max-age}") Duration maxAge,
+                         @Value("${jfr.auth-recording.destination}") String destination) {
+        this.maxAge = maxAge;
+        this.destination = Paths.get(destination);
+    }
+
+    @PostConstruct
+    public void start() throws IOException, ParseException {
+        Configuration configuration;
+        try (Reader reader = new InputStreamReader(new ClassPathResource("jfr/auth.jfc").getInputStream(), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+
+        if (destination.getParent() != null) {
+            Files.createDirectories(destination.getParent());
+        }
+
+        recording = new Recording(configuration);
+        recording.setName("auth");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setDestination(destination);
+        recording.start();
+        log.info("JFR 인증 단계 녹화 시작 : {}", destination);
+    }
+
+    @PreDestroy
+    public void stop() {
+        //  destination 이 설정되어 있으므로 stop 할 때 파일로 저장된다.
+        recording.stop();
+        recording.close();
+    }
+}
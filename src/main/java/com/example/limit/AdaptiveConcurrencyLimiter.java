@@ -0,0 +1,126 @@
+package com.example.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 동시에 처리하는 요청 수(in-flight)를 응답 시간(RTT)에 맞춰 스스로 조절하는 limiter (AIMD)
+ *
+ * 요청이 끝날 때마다 RTT 를 확인해서
+ *  - latencyThreshold 보다 오래 걸렸거나 실패(drop)했으면 limit 을 backoffRatio 만큼 줄이고 (multiplicative decrease)
+ *  - 빨리 끝났고 limit 의 절반 이상을 사용 중이었으면 limit 을 1 늘린다. (additive increase)
+ * limit 만큼 처리 중이면 새 요청은 기다리지 않고 바로 거절한다.
+ *
+ * 한 번 limit 을 줄이면 그 이후에 시작한 요청이 끝날 때까지는 다시 줄이지 않는다.
+ * (limit 을 줄이기 전에 시작한 요청들이 한꺼번에 늦게 끝나면서 limit 이 연달아 줄어드는 것을 방지)
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    //  마지막으로 limit 을 줄인 시각 (이 시각 이전에 시작한 요청으로는 다시 줄이지 않는다)
+    private long lastDecreaseNanos = Long.MIN_VALUE;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMillis, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, latencyThresholdMillis, backoffRatio, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMillis, double backoffRatio,
+                               LongSupplier clock) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("1 <= minLimit <= initialLimit <= maxLimit 이어야 합니다.");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio 는 0 과 1 사이여야 합니다.");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.clock = clock;
+    }
+
+    /**
+     * 처리할 수 있으면 Permit 을 return, limit 만큼 처리 중이면 null (바로 거절)
+     * Permit 을 받았으면 요청이 끝난 뒤 반드시 success / dropped / ignore 중 하나를 호출해야 한다.
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(clock.getAsLong(), current + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long startNanos, long rttNanos, int inFlightAtStart, boolean dropped) {
+        int current = limit;
+
+        if (dropped || rttNanos > latencyThresholdNanos) {
+            if (startNanos > lastDecreaseNanos) {
+                limit = Math.max(minLimit, (int) (current * backoffRatio));
+                lastDecreaseNanos = clock.getAsLong();
+            }
+        } else if (inFlightAtStart * 2 >= current) {
+            //  limit 에 여유가 많을 때는 늘리지 않는다. (부하가 적을 때 limit 이 끝없이 커지지 않도록)
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    public class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        //  정상 처리 => RTT 반영
+        public void success() {
+            release(false, true);
+        }
+
+        //  과부하로 실패(timeout 등) => limit 감소
+        public void dropped() {
+            release(true, true);
+        }
+
+        //  부하와 상관 없는 이유로 끝남 => RTT 반영 X
+        public void ignore() {
+            release(false, false);
+        }
+
+        private void release(boolean dropped, boolean sample) {
+            if (released) {
+                return;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            if (sample) {
+                onSample(startNanos, clock.getAsLong() - startNanos, inFlightAtStart, dropped);
+            }
+        }
+    }
+}
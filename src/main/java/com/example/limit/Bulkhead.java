@@ -0,0 +1,77 @@
+package com.example.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 고정된 수(maxConcurrent)만큼만 동시에 처리하는 bulkhead
+ *
+ * 가득 차 있으면 기다리지 않고 바로 거절한다. (기다리는 동안 worker 스레드를 잡고 있지 않도록)
+ * AdaptiveConcurrencyLimiter 와 달리 limit 을 조절하지 않으므로, 다른 bulkhead 가 가득 차도 자기 몫은 항상 사용할 수 있다.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    //  서버 시작 이후 동시에 처리한 최대 요청 수
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent 는 1 이상이어야 합니다.");
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * 처리할 수 있으면 true, maxConcurrent 만큼 처리 중이면 false (바로 거절)
+     * true 를 받았으면 요청이 끝난 뒤 반드시 release 를 호출해야 한다.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrent) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
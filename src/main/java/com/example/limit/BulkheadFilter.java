@@ -0,0 +1,61 @@
+package com.example.limit;
+
+import com.example.domain.enums.LoginType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 로그인 방식(url prefix)별로 Bulkhead 를 두고 동시 처리 수를 나눠서 제한하는 필터
+ *
+ * 모든 로그인 방식이 Tomcat worker 스레드를 같이 사용하기 때문에 한 방식에 느린 요청(BCrypt, Google 사용자 정보 조회)이 몰리면
+ * worker 스레드가 모두 그 요청을 처리하느라 다른 방식의 가벼운 요청(/jwt-login/info 등)까지 기다리게 된다.
+ * 방식마다 bulkhead 를 따로 두면 한 방식이 가득 차도 초과분은 바로 503 으로 거절되므로 나머지 worker 스레드는 다른 방식이 사용할 수 있다.
+ *
+ * url 은 LoginType.fromRequestUri 로 구분한다. (OAuth2 인가 요청, 콜백 url 은 OAUTH2)
+ * bulkhead 가 없는 로그인 방식, 로그인 방식이 아닌 url(정적 리소스 등)은 제한하지 않는다.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Map<LoginType, Bulkhead> bulkheads;
+
+    public BulkheadFilter(Map<LoginType, Bulkhead> bulkheads) {
+        this.bulkheads = Collections.unmodifiableMap(new EnumMap<>(bulkheads));
+    }
+
+    public Collection<Bulkhead> getBulkheads() {
+        return bulkheads.values();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        LoginType loginType = LoginType.fromRequestUri(request.getRequestURI().substring(request.getContextPath().length()));
+        Bulkhead bulkhead = loginType == null ? null : bulkheads.get(loginType);
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        //  이 로그인 방식의 몫을 모두 사용 중 => 기다리지 않고 바로 거절
+        if (!bulkhead.tryAcquire()) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.limit;
+
+import com.example.domain.enums.LoginType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 로그인, 회원가입 요청(POST /{로그인 방식}/login, /{로그인 방식}/join)의 동시 처리 수를 AdaptiveConcurrencyLimiter 로 제한하는 필터
+ *
+ * BCrypt 로 비밀번호를 처리하는 요청이 몰리면 CPU 를 모두 사용해서 다른 요청까지 느려진다.
+ * limit 을 넘는 요청은 Security 필터, 컨트롤러를 거치지 않고 바로 503 으로 거절한다.
+ * Security 필터 체인보다 먼저 실행되어야 Form Login(/security-login/login) 요청도 제한할 수 있다.
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIMITED_PATHS = new HashSet<>();
+
+    static {
+        for (LoginType loginType : LoginType.values()) {
+            if (loginType != LoginType.OAUTH2) {
+                LIMITED_PATHS.add("/" + loginType.getPath() + "/login");
+                LIMITED_PATHS.add("/" + loginType.getPath() + "/join");
+            }
+        }
+    }
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !LIMITED_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+
+        //  limit 만큼 처리 중 => 기다리지 않고 바로 거절
+        if (permit == null) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+            permit.success();
+        } finally {
+            //  예외로 끝난 요청은 RTT 에 반영하지 않는다. (success 를 호출했으면 아무것도 하지 않음)
+            permit.ignore();
+        }
+    }
+}
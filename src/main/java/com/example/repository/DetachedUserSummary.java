@@ -0,0 +1,22 @@
+package com.example.repository;
+
+import com.example.domain.User;
+import com.example.domain.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * JPA projection 을 쓰지 않는 저장소(memory-store, sharded-store)에서 return 하는 UserSummary
+ * 엔티티를 그대로 넘기지 않고 필요한 값만 복사하므로 password 가 포함되지 않는다.
+ */
+@Getter
+@AllArgsConstructor
+public class DetachedUserSummary implements UserSummary {
+    private final String loginId;
+    private final String nickname;
+    private final UserRole role;
+
+    public static DetachedUserSummary from(User user) {
+        return new DetachedUserSummary(user.getLoginId(), user.getNickname(), user.getRole());
+    }
+}
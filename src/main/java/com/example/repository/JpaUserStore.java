@@ -0,0 +1,84 @@
+package com.example.repository;
+
+import com.example.domain.User;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+//  UserRepository(JPA)로 바로 조회, 저장
+//  트랜잭션 밖(UserLookupService)에서 호출해도 조회 한 번마다 readOnly 트랜잭션 안에서 실행되도록 여기서 트랜잭션을 건다.
+@Component
+@Profile("!memory-store & !sharded-store")
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class JpaUserStore implements UserStore {
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public boolean existsByLoginId(String loginId) {
+        return userRepository.existsByLoginId(loginId);
+    }
+
+    @Override
+    public boolean existsByNickname(String nickname) {
+        return userRepository.existsByNickname(nickname);
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return userRepository.findById(id);
+    }
+
+    @Override
+    public Optional<User> findByLoginId(String loginId) {
+        return userRepository.findByLoginId(loginId);
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryById(Long id) {
+        return userRepository.findSummaryById(id);
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryByLoginId(String loginId) {
+        return userRepository.findSummaryByLoginId(loginId);
+    }
+
+    @Override
+    @Transactional
+    public User save(User user) {
+        return userRepository.save(user);
+    }
+
+    @Override
+    public List<User> findPage(long cursor, int size) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, size));
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
+
+    //  forward-only 커서로 한 줄씩 읽고, 넘겨준 유저는 영속성 컨텍스트에서 분리해서 메모리 사용량을 일정하게 유지
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+            users.forEach(user -> {
+                action.accept(user);
+                entityManager.detach(user);
+            });
+        }
+    }
+}
@@ -1,12 +1,35 @@
 package com.example.repository;
 
 import com.example.domain.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByLoginId(String loginId);
     boolean existsByNickname(String nickname);
     Optional<User> findByLoginId(String loginId);
+
+    //  loginId, nickname, role 만 필요한 화면에서 사용
+    Optional<UserSummary> findSummaryById(Long id);
+    Optional<UserSummary> findSummaryByLoginId(String loginId);
+
+    //  keyset 페이지네이션 : cursor(id) 이후의 유저를 id 순으로 조회 (OFFSET 스캔 X)
+    List<User> findByIdGreaterThanOrderByIdAsc(Long cursor, Pageable pageable);
+
+    //  전체 유저를 forward-only 커서로 스트리밍 (fetch size 고정, 읽기 전용)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAllByOrderByIdAsc();
 }
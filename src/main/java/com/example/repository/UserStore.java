@@ -0,0 +1,33 @@
+package com.example.repository;
+
+import com.example.domain.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 로그인, 회원가입, 관리자 페이지(목록, 검색, export)에서 사용하는 유저 저장소
+ * 기본은 JPA(JpaUserStore), memory-store profile 에서는 메모리에 올려두고 DB 에는 나중에 저장(InMemoryUserStore),
+ * sharded-store profile 에서는 여러 DB 에 나눠 저장(ShardedUserStore)
+ * 저장소마다 유저가 있는 곳이 다르므로 유저 목록도 UserRepository 가 아닌 UserStore 로 조회해야 한다.
+ */
+public interface UserStore {
+    boolean existsByLoginId(String loginId);
+    boolean existsByNickname(String nickname);
+    Optional<User> findById(Long id);
+    Optional<User> findByLoginId(String loginId);
+    Optional<UserSummary> findSummaryById(Long id);
+    Optional<UserSummary> findSummaryByLoginId(String loginId);
+    User save(User user);
+
+    //  keyset 페이지네이션 : cursor(id) 이후의 유저를 id 순으로 최대 size 명
+    List<User> findPage(long cursor, int size);
+
+    //  ids 중 존재하는 유저 (순서는 보장하지 않는다)
+    List<User> findAllById(Collection<Long> ids);
+
+    //  전체 유저를 id 순으로 하나씩 넘겨준다. (export, 검색 인덱스 생성) 전체 유저를 한번에 메모리에 올리지 않는다.
+    void forEachUser(Consumer<User> action);
+}
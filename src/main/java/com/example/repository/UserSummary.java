@@ -0,0 +1,13 @@
+package com.example.repository;
+
+import com.example.domain.enums.UserRole;
+
+/**
+ * 화면에 보여줄 때 필요한 컬럼만 조회하기 위한 projection
+ * password 등 나머지 컬럼은 조회하지 않고, 엔티티가 아니기 때문에 영속성 컨텍스트에도 올라가지 않는다.
+ */
+public interface UserSummary {
+    String getLoginId();
+    String getNickname();
+    UserRole getRole();
+}
@@ -0,0 +1,335 @@
+package com.example.repository.memory;
+
+import com.example.domain.User;
+import com.example.domain.event.UserIdReassignedEvent;
+import com.example.repository.DetachedUserSummary;
+import com.example.repository.UserRepository;
+import com.example.repository.UserStore;
+import com.example.repository.UserSummary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 모든 유저를 메모리에 올려두고 조회하는 UserStore (memory-store profile)
+ *
+ * 조회 : id 는 UserIdTable, loginId 는 ConcurrentHashMap 에서 lock 없이 조회한다.
+ * 저장 : DB 에서 예약한 범위(UserIdBlockAllocator)로 id 를 발급하고 journal 파일에 기록한 뒤 바로 메모리에 반영한다.
+ *        DB 에는 flush 스레드가 모아서(batch) 나중에 저장하고, 저장이 끝나면 journal 에 checkpoint 를 남긴다.
+ *        다른 경로로 같은 id 가 먼저 저장되어 있으면 새 id 를 발급해서 다시 저장한다. (유저를 잃어버리지 않도록)
+ *        이전 id 로 회원가입 event 가 이미 나갔으므로 UserIdReassignedEvent 로 새 id 를 알린다.
+ * 시작 : DB 의 유저를 모두 읽어오고, journal 에 남아있는(DB 에 저장하지 못한) 유저를 다시 반영한 뒤 DB 에 저장한다.
+ */
+@Slf4j
+@Component
+@Profile("memory-store")
+public class InMemoryUserStore implements UserStore {
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+    private static final int ID_BLOCK_SIZE = 1000;
+    private static final Comparator<User> BY_ID = Comparator.comparingLong(User::getId);
+
+    //  같은 id 가 이미 저장되어 있으면 넣지 않는다. (journal 을 다시 반영할 때 중복 저장 방지)
+    static final String INSERT_SQL =
+            "insert into user (id, login_id, password, nickname, role, provider, provider_id) " +
+            "select ?, ?, ?, ?, ?, ?, ? from dual where not exists (select 1 from user where id = ?)";
+    //  insert 가 0건이면 이전에 저장한 같은 유저인지(journal 재반영), 다른 유저가 id 를 먼저 쓴 것인지 확인
+    static final String SELECT_STORED_SQL = "select password from user where id = ? and login_id = ?";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserWriteJournal journal;
+    private final UserIdBlockAllocator idAllocator;
+    private final long flushIntervalMillis;
+
+    private final UserIdTable usersById = new UserIdTable();
+    private final ConcurrentHashMap<String, User> usersByLoginId = new ConcurrentHashMap<>();
+    private final Set<String> nicknames = ConcurrentHashMap.newKeySet();
+
+    //  DB 에 아직 저장하지 않은 유저 (journal 에 추가된 순서)
+    private final LinkedBlockingQueue<UserWriteJournal.Entry> pending = new LinkedBlockingQueue<>();
+    //  저장에 실패해서 다시 시도할 batch
+    private final List<UserWriteJournal.Entry> inFlight = new ArrayList<>();
+
+    private final Object writeLock = new Object();
+
+    private Thread flusher;
+    private volatile boolean running;
+
+    public InMemoryUserStore(UserRepository userRepository, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                             @Value("${user-store.journal-dir}") String journalDir,
+                             @Value("${user-store.flush-interval-ms}") long flushIntervalMillis) throws IOException {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+        this.journal = new UserWriteJournal(Paths.get(journalDir));
+        this.idAllocator = new UserIdBlockAllocator(jdbcTemplate, transactionManager, ID_BLOCK_SIZE);
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        idAllocator.createTable();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+                users.forEach(this::index);
+            }
+        });
+
+        //  비정상 종료로 DB 에 저장하지 못한 유저 복구
+        //  id 충돌로 새 id 를 받은 유저는 journal 에 두 번 있으므로 loginId 별 마지막 레코드만 반영한다.
+        List<UserWriteJournal.Entry> recovered = journal.recovered();
+        Map<String, Long> latestIds = new HashMap<>();
+        for (UserWriteJournal.Entry entry : recovered) {
+            latestIds.put(entry.getUser().getLoginId(), entry.getUser().getId());
+        }
+        for (UserWriteJournal.Entry entry : recovered) {
+            if (latestIds.get(entry.getUser().getLoginId()) == entry.getUser().getId()) {
+                index(entry.getUser());
+                pending.add(entry);
+            }
+            idAllocator.skipPast(entry.getUser().getId());
+        }
+        log.info("메모리 유저 저장소 로딩 완료 : 유저 {}명 (journal 복구 {}명)", usersById.size(), recovered.size());
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "user-store-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public boolean existsByLoginId(String loginId) {
+        return usersByLoginId.containsKey(loginId);
+    }
+
+    @Override
+    public boolean existsByNickname(String nickname) {
+        return nicknames.contains(nickname);
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return Optional.ofNullable(usersById.get(id));
+    }
+
+    @Override
+    public Optional<User> findByLoginId(String loginId) {
+        return Optional.ofNullable(usersByLoginId.get(loginId));
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryById(Long id) {
+        return findById(id).map(DetachedUserSummary::from);
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryByLoginId(String loginId) {
+        return findByLoginId(loginId).map(DetachedUserSummary::from);
+    }
+
+    //  메모리의 유저 중 cursor 이후 id 를 size 명만 남겨서 정렬 (전체를 정렬하지 않는다.)
+    @Override
+    public List<User> findPage(long cursor, int size) {
+        PriorityQueue<User> page = new PriorityQueue<>(size + 1, BY_ID.reversed());
+        for (User user : usersByLoginId.values()) {
+            if (user.getId() > cursor) {
+                page.add(user);
+                if (page.size() > size) {
+                    page.poll();
+                }
+            }
+        }
+        List<User> users = new ArrayList<>(page);
+        users.sort(BY_ID);
+        return users;
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = usersById.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    //  유저는 이미 메모리에 있으므로 참조만 모아서 id 순으로 정렬 (DB 에 아직 저장하지 않은 유저도 포함)
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        List<User> users = new ArrayList<>(usersByLoginId.values());
+        users.sort(BY_ID);
+        users.forEach(action);
+    }
+
+    @Override
+    public User save(User user) {
+        //  id 발급, journal 추가, pending 추가 순서가 다른 저장과 섞이지 않도록 한 번에 하나씩
+        synchronized (writeLock) {
+            User saved = user.getId() == 0 ? user.toBuilder().id(idAllocator.nextId()).build() : user;
+
+            UserWriteJournal.Entry entry;
+            try {
+                entry = journal.append(saved);
+            } catch (IOException e) {
+                throw new UncheckedIOException("유저 journal 저장 실패", e);
+            }
+
+            index(saved);
+            pending.add(entry);
+            return saved;
+        }
+    }
+
+    /**
+     * pending 유저를 DB 에 batch 로 저장하고 journal 에 checkpoint 를 남긴다.
+     * 저장에 실패하면 다음 flush 에서 같은 batch 를 다시 시도한다.
+     * 다른 유저가 같은 id 로 먼저 저장되어 있으면 새 id 를 발급해서 pending 에 다시 넣는다.
+     */
+    public synchronized void flush() throws IOException {
+        while (true) {
+            if (inFlight.isEmpty()) {
+                pending.drainTo(inFlight, FLUSH_BATCH_SIZE);
+                if (inFlight.isEmpty()) {
+                    return;
+                }
+            }
+
+            List<User> users = new ArrayList<>(inFlight.size());
+            List<Object[]> rows = new ArrayList<>(inFlight.size());
+            for (UserWriteJournal.Entry entry : inFlight) {
+                User user = entry.getUser();
+                //  이미 새 id 로 다시 저장하기로 한 유저
+                if (isReassigned(user)) {
+                    continue;
+                }
+                users.add(user);
+                rows.add(new Object[]{user.getId(), user.getLoginId(), user.getPassword(), user.getNickname(),
+                        user.getRole() == null ? null : user.getRole().ordinal(), user.getProvider(), user.getProviderId(),
+                        user.getId()});
+            }
+
+            if (!rows.isEmpty()) {
+                int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                for (int i = 0; i < counts.length; i++) {
+                    //  0 : 같은 id 가 이미 있음, 음수 : driver 가 건수를 알려주지 않음 => DB 에서 확인
+                    if (counts[i] != 1 && !isStored(users.get(i))) {
+                        reassign(users.get(i));
+                    }
+                }
+            }
+
+            journal.acknowledge(inFlight.get(inFlight.size() - 1).getEndOffset());
+            inFlight.clear();
+        }
+    }
+
+    private boolean isReassigned(User user) {
+        User current = usersByLoginId.get(user.getLoginId());
+        return current != null && current.getId() != user.getId();
+    }
+
+    private boolean isStored(User user) {
+        List<String> passwords = jdbcTemplate.queryForList(SELECT_STORED_SQL, String.class, user.getId(), user.getLoginId());
+        return !passwords.isEmpty() && Objects.equals(passwords.get(0), user.getPassword());
+    }
+
+    //  id 가 다른 유저와 겹친 경우 새 id 로 journal 에 다시 기록하고 다음 batch 에서 저장
+    private void reassign(User user) throws IOException {
+        synchronized (writeLock) {
+            User reassigned = user.toBuilder().id(idAllocator.nextId()).build();
+            UserWriteJournal.Entry entry = journal.append(reassigned);
+            index(reassigned);
+            pending.add(entry);
+            log.warn("유저 id 가 이미 사용 중이어서 새 id 로 저장합니다. : {} {} -> {}", user.getLoginId(), user.getId(), reassigned.getId());
+        }
+        eventPublisher.publishEvent(new UserIdReassignedEvent(user.getId(), reassigned));
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                //  batch 크기만큼 쌓이지 않았으면 flushInterval 만큼 기다렸다가 저장
+                if (pending.size() < FLUSH_BATCH_SIZE) {
+                    TimeUnit.MILLISECONDS.sleep(flushIntervalMillis);
+                }
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("유저 DB 저장 실패, 다시 시도합니다. (대기 {}명)", pending.size() + inFlight.size(), e);
+            }
+        }
+    }
+
+    private void index(User user) {
+        usersById.put(user);
+        User previous = usersByLoginId.put(user.getLoginId(), user);
+        //  새 id 를 받은 유저 => 이전 id 로는 더 이상 찾지 않는다.
+        if (previous != null && previous.getId() != user.getId()) {
+            usersById.remove(previous.getId(), previous);
+        }
+        if (user.getNickname() != null) {
+            nicknames.add(user.getNickname());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        stopFlusher();
+        try {
+            flush();
+        } finally {
+            journal.close();
+        }
+    }
+
+    //  DB 에 저장하지 않고 종료 (비정상 종료 테스트용)
+    void closeWithoutFlush() throws IOException, InterruptedException {
+        stopFlusher();
+        journal.close();
+    }
+
+    private void stopFlusher() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+}
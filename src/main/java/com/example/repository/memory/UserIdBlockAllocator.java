@@ -0,0 +1,97 @@
+package com.example.repository.memory;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * memory-store 의 유저 id 발급기
+ *
+ * DB 의 user_id_block 테이블에서 id 를 blockSize 개씩 예약하고, 예약한 범위 안에서는 DB 없이 발급한다.
+ * 예약은 select ... for update 트랜잭션으로 하므로 여러 서버가 같은 범위를 받지 않는다.
+ * 예약 시작 값은 user 테이블의 max(id) 보다 크게 잡아서 이미 저장된 유저의 id 와 겹치지 않게 한다.
+ * (그래도 예약 후에 JPA 등 다른 경로로 같은 id 가 저장될 수 있으므로 InMemoryUserStore.flush 에서 한 번 더 확인한다.)
+ */
+class UserIdBlockAllocator {
+
+    static final String CREATE_TABLE_SQL =
+            "create table if not exists user_id_block (name varchar(32) not null primary key, next_id bigint not null)";
+    static final String SELECT_BLOCK_SQL = "select next_id from user_id_block where name = ? for update";
+    static final String INSERT_BLOCK_SQL = "insert into user_id_block (name, next_id) values (?, 1)";
+    static final String MAX_USER_ID_SQL = "select coalesce(max(id), 0) from user";
+    static final String UPDATE_BLOCK_SQL = "update user_id_block set next_id = ? where name = ?";
+
+    private static final String BLOCK_NAME = "user";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final int blockSize;
+
+    //  예약한 범위 [next, end)
+    private long next;
+    private long end;
+    //  이 값 이하의 id 는 발급하지 않는다. (journal 에서 복구했지만 아직 DB 에 없는 id)
+    private long floor;
+
+    UserIdBlockAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.blockSize = blockSize;
+    }
+
+    //  MySQL 의 DDL 은 트랜잭션을 commit 시키므로 예약 트랜잭션과 따로 실행
+    void createTable() {
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+    }
+
+    //  id 이하는 발급하지 않는다. (예약한 범위가 id 이하를 포함하면 버리고 다음 발급 때 새로 예약)
+    synchronized void skipPast(long id) {
+        floor = Math.max(floor, id);
+        if (next <= floor) {
+            next = end;
+        }
+    }
+
+    /**
+     * 다음 id 발급
+     * 예약한 범위를 다 쓰면 DB 에서 새로 예약한다. (DB 에 연결할 수 없으면 예외)
+     */
+    synchronized long nextId() {
+        if (next == end) {
+            long start = reserve();
+            next = start;
+            end = start + blockSize;
+        }
+        return next++;
+    }
+
+    private long reserve() {
+        Long start = transaction.execute(status -> {
+            long nextId = lockBlock();
+            Long maxUserId = jdbcTemplate.queryForObject(MAX_USER_ID_SQL, Long.class);
+            long blockStart = Math.max(Math.max(nextId, (maxUserId == null ? 0L : maxUserId) + 1), floor + 1);
+
+            jdbcTemplate.update(UPDATE_BLOCK_SQL, blockStart + blockSize, BLOCK_NAME);
+            return blockStart;
+        });
+        return start;
+    }
+
+    private long lockBlock() {
+        List<Long> nextIds = jdbcTemplate.queryForList(SELECT_BLOCK_SQL, Long.class, BLOCK_NAME);
+        if (!nextIds.isEmpty()) {
+            return nextIds.get(0);
+        }
+
+        //  처음 예약하는 경우 (다른 서버가 동시에 만들었으면 그 행을 다시 읽는다.)
+        try {
+            jdbcTemplate.update(INSERT_BLOCK_SQL, BLOCK_NAME);
+        } catch (DuplicateKeyException e) {
+            // 다른 서버가 먼저 만든 경우
+        }
+        return jdbcTemplate.queryForList(SELECT_BLOCK_SQL, Long.class, BLOCK_NAME).get(0);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.repository.memory;
+
+import com.example.domain.User;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * id(long) -> User open addressing hash table
+ *
+ * 조회는 lock 없이 하고, 추가 / 삭제는 synchronized 로 한 스레드씩 한다.
+ * key 를 먼저 쓰고 value 를 volatile 로 쓰기 때문에, value 가 보이면 key 도 항상 보인다.
+ * 크기를 늘릴 때는 새 table 을 다 만든 뒤에 바꿔 끼우므로 조회 중인 스레드는 이전 table 을 그대로 읽는다.
+ * 삭제한 칸은 REMOVED 로 표시만 해두고(탐색이 끊기지 않도록) 같은 id 를 다시 넣거나 크기를 늘릴 때 정리한다.
+ */
+class UserIdTable {
+
+    private static final User REMOVED = new User();
+
+    private static class Table {
+        private final long[] keys;
+        private final AtomicReferenceArray<User> values;
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+    }
+
+    private volatile Table table = new Table(1024);
+    private int size;
+    //  사용 중인 칸 수 (REMOVED 포함)
+    private int usedSlots;
+
+    User get(long id) {
+        Table current = table;
+        int index = slot(id, current.mask);
+
+        while (true) {
+            User user = current.values.get(index);
+            if (user == null) {
+                return null;
+            }
+            if (current.keys[index] == id) {
+                return user == REMOVED ? null : user;
+            }
+            index = (index + 1) & current.mask;
+        }
+    }
+
+    synchronized void put(User user) {
+        if ((usedSlots + 1) * 2 > table.keys.length) {
+            //  REMOVED 칸이 많으면 크기는 그대로 두고 정리만 한다.
+            Table resized = new Table(size * 4 > table.keys.length ? table.keys.length * 2 : table.keys.length);
+            Table current = table;
+            for (int i = 0; i < current.keys.length; i++) {
+                User existing = current.values.get(i);
+                if (existing != null && existing != REMOVED) {
+                    insert(resized, current.keys[i], existing);
+                }
+            }
+            table = resized;
+            usedSlots = size;
+        }
+
+        int index = find(table, user.getId());
+        if (index >= 0) {
+            if (table.values.get(index) == REMOVED) {
+                size++;
+            }
+            table.values.set(index, user);
+            return;
+        }
+        insert(table, user.getId(), user);
+        size++;
+        usedSlots++;
+    }
+
+    //  user 가 현재 id 에 저장된 값과 같을 때만 삭제 (그 사이 다른 유저로 바뀐 경우 그대로 둔다)
+    synchronized boolean remove(long id, User user) {
+        int index = find(table, id);
+        if (index < 0 || table.values.get(index) != user) {
+            return false;
+        }
+        table.values.set(index, REMOVED);
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    //  id 가 있는 칸 번호 (REMOVED 포함), 없으면 -1
+    private static int find(Table target, long id) {
+        int index = slot(id, target.mask);
+        while (target.values.get(index) != null) {
+            if (target.keys[index] == id) {
+                return index;
+            }
+            index = (index + 1) & target.mask;
+        }
+        return -1;
+    }
+
+    private static void insert(Table target, long id, User user) {
+        int index = slot(id, target.mask);
+        while (target.values.get(index) != null) {
+            index = (index + 1) & target.mask;
+        }
+        target.keys[index] = id;
+        target.values.set(index, user);
+    }
+
+    private static int slot(long id, int mask) {
+        id ^= id >>> 33;
+        id *= 0xff51afd7ed558ccdL;
+        id ^= id >>> 33;
+        return (int) id & mask;
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.repository.memory;
+
+import com.example.domain.User;
+import com.example.domain.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 아직 DB 에 저장하지 못한 유저를 보관하는 append-only journal 파일 (write-behind 용 durable queue)
+ *
+ * 유저를 저장할 때마다 journal 에 추가하고 디스크에 반영(force)한 뒤에 return 한다.
+ * DB 에 저장이 끝나면 acknowledge 로 checkpoint(어디까지 저장했는지)를 기록한다.
+ * 서버가 비정상 종료되면 다음 시작 시 checkpoint 이후의 레코드를 다시 읽어서(recover) DB 에 저장한다.
+ *
+ * 레코드 형식 : int payload 길이, int CRC32, payload
+ * 마지막 레코드가 쓰다가 끊긴 경우(길이 부족, CRC 불일치) 그 레코드부터는 버린다.
+ * payload 형식 : long id, loginId, password, nickname, role 이름, provider, providerId
+ */
+public class UserWriteJournal implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_PAYLOAD_SIZE = 64 * 1024;
+    //  전부 저장된 journal 이 이 크기보다 커지면 비운다.
+    private static final long COMPACT_THRESHOLD = 16 * 1024 * 1024;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private User user;
+        private long endOffset;     //  이 레코드가 끝나는 위치 (acknowledge 에 사용)
+    }
+
+    private final Path checkpointPath;
+    private final FileChannel channel;
+    private final List<Entry> recovered;
+
+    private long checkpoint;
+    private long writePosition;
+
+    public UserWriteJournal(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.checkpointPath = directory.resolve("users.checkpoint");
+        this.channel = FileChannel.open(directory.resolve("users.journal"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        //  journal 을 비운 직후 checkpoint 를 쓰기 전에 종료된 경우 checkpoint 가 파일보다 클 수 있다.
+        this.checkpoint = Math.min(readCheckpoint(), channel.size());
+        this.recovered = readEntries(checkpoint);
+
+        //  쓰다가 끊긴 레코드는 잘라낸다.
+        channel.truncate(writePosition);
+    }
+
+    //  journal 을 열 때 checkpoint 이후에 남아있던(= DB 에 저장되지 않은) 레코드
+    public List<Entry> recovered() {
+        return Collections.unmodifiableList(recovered);
+    }
+
+    public synchronized Entry append(User user) throws IOException {
+        byte[] payload = encode(user);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        buffer.flip();
+
+        long position = writePosition;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        channel.force(false);
+
+        writePosition = position;
+        return new Entry(user, position);
+    }
+
+    /**
+     * offset 까지의 레코드가 DB 에 저장되었음을 기록
+     */
+    public synchronized void acknowledge(long offset) throws IOException {
+        if (offset <= checkpoint) {
+            return;
+        }
+        checkpoint = offset;
+
+        //  모두 저장되었고 파일이 커졌으면 비운다.
+        if (checkpoint == writePosition && writePosition >= COMPACT_THRESHOLD) {
+            channel.truncate(0);
+            channel.force(true);
+            writePosition = 0;
+            checkpoint = 0;
+        }
+        writeCheckpoint(checkpoint);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private List<Entry> readEntries(long from) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        long position = from;
+        long size = channel.size();
+
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int length = header.getInt();
+            int crcValue = header.getInt();
+
+            if (length <= 0 || length > MAX_PAYLOAD_SIZE || position + HEADER_SIZE + length > size) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + HEADER_SIZE);
+
+            CRC32 crc = new CRC32();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != crcValue) {
+                break;
+            }
+
+            position += HEADER_SIZE + length;
+            entries.add(new Entry(decode(payload.array()), position));
+        }
+
+        writePosition = position;
+        return entries;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("journal 파일이 예상보다 짧습니다.");
+            }
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointPath)) {
+            return 0L;
+        }
+        return Long.parseLong(Files.readString(checkpointPath).trim());
+    }
+
+    //  임시 파일에 쓴 뒤 이름을 바꿔서, 쓰다가 끊겨도 이전 checkpoint 가 남아있도록 한다.
+    private void writeCheckpoint(long value) throws IOException {
+        Path temp = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+        try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            file.write(ByteBuffer.wrap(Long.toString(value).getBytes()));
+            file.force(true);
+        }
+        Files.move(temp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] encode(User user) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(user.getId());
+            writeNullable(out, user.getLoginId());
+            writeNullable(out, user.getPassword());
+            writeNullable(out, user.getNickname());
+            writeNullable(out, user.getRole() == null ? null : user.getRole().name());
+            writeNullable(out, user.getProvider());
+            writeNullable(out, user.getProviderId());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static User decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            long id = in.readLong();
+            String loginId = readNullable(in);
+            String password = readNullable(in);
+            String nickname = readNullable(in);
+            UserRole role = readRole(in);
+
+            return User.builder()
+                    .id(id)
+                    .loginId(loginId)
+                    .password(password)
+                    .nickname(nickname)
+                    .role(role)
+                    .provider(readNullable(in))
+                    .providerId(readNullable(in))
+                    .build();
+        }
+    }
+
+    private static UserRole readRole(DataInputStream in) throws IOException {
+        String role = readNullable(in);
+        return role == null ? null : UserRole.valueOf(role);
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.repository.shard;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * bucket -> shard 배정표
+ *
+ * 배정표는 shard 0(meta shard)의 user_bucket 테이블에 저장하고, 서버는 메모리에 올려두고 주기적으로 다시 읽는다.
+ * 처음 시작할 때 테이블이 비어있으면 bucket % shard 수 로 배정한다.
+ * moving 인 bucket 은 resharding 중이므로 저장(write)을 받지 않는다. (조회는 원래 shard 에서 계속 가능)
+ */
+public class ShardDirectory {
+
+    private final JdbcTemplate meta;
+    private final int shardCount;
+
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(int[] shards, boolean[] moving) {
+    }
+
+    public ShardDirectory(JdbcTemplate meta, int shardCount) {
+        this.meta = meta;
+        this.shardCount = shardCount;
+    }
+
+    public void initialize() {
+        meta.execute("create table if not exists user_bucket (" +
+                "bucket int not null primary key, " +
+                "shard int not null, " +
+                "moving tinyint not null default 0)");
+
+        Integer count = meta.queryForObject("select count(*) from user_bucket", Integer.class);
+        if (count == null || count == 0) {
+            List<Object[]> rows = new ArrayList<>(UserIdAllocator.BUCKETS);
+            for (int bucket = 0; bucket < UserIdAllocator.BUCKETS; bucket++) {
+                rows.add(new Object[]{bucket, bucket % shardCount});
+            }
+            meta.batchUpdate("insert into user_bucket (bucket, shard, moving) values (?, ?, 0)", rows);
+        }
+        reload();
+    }
+
+    public void reload() {
+        int[] shards = new int[UserIdAllocator.BUCKETS];
+        boolean[] moving = new boolean[UserIdAllocator.BUCKETS];
+
+        meta.query("select bucket, shard, moving from user_bucket", resultSet -> {
+            int bucket = resultSet.getInt(1);
+            int shard = resultSet.getInt(2);
+            if (shard >= shardCount) {
+                throw new IllegalStateException("bucket " + bucket + " 이 설정에 없는 shard " + shard + " 에 배정되어 있습니다.");
+            }
+            shards[bucket] = shard;
+            moving[bucket] = resultSet.getInt(3) != 0;
+        });
+        snapshot = new Snapshot(shards, moving);
+    }
+
+    public int shardOf(int bucket) {
+        return snapshot.shards()[bucket];
+    }
+
+    public boolean isMoving(int bucket) {
+        return snapshot.moving()[bucket];
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    void setMoving(int bucket, boolean moving) {
+        meta.update("update user_bucket set moving = ? where bucket = ?", moving ? 1 : 0, bucket);
+    }
+
+    //  bucket 을 shard 에 배정하고 moving 해제
+    void assign(int bucket, int shard) {
+        meta.update("update user_bucket set shard = ?, moving = 0 where bucket = ?", shard, bucket);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.repository.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서버를 멈추지 않고 bucket 을 다른 shard 로 옮기는 도구 (shard 추가 후 실행)
+ *
+ * bucket 하나를 옮기는 순서
+ *  1. 원래 shard 의 bucket 유저를 새 shard 로 복사 (이 동안에도 저장을 받는다)
+ *  2. bucket 을 moving 으로 표시하고 settle 시간만큼 기다린다. -> 모든 서버가 배정표를 다시 읽어서 이 bucket 의 저장을 멈춘다.
+ *  3. 1 이후에 저장된 유저를 한 번 더 복사
+ *  4. bucket 을 새 shard 에 배정(moving 해제)하고 settle 시간만큼 기다린다. -> 모든 서버가 새 shard 에서 조회한다.
+ *  5. moving 표시를 보기 직전에 검사를 통과한 저장이 3 이후에 들어왔을 수 있으므로 한 번 더 복사
+ *  6. 원래 shard 의 유저 중 새 shard 에 있는 것을 확인한 id 만 삭제 (확인하지 못한 유저는 남기고 경고)
+ * bucket 마다 저장이 멈추는 시간은 settle 시간 정도이고, 조회는 멈추지 않는다.
+ * settle 시간은 서버의 배정표 갱신 주기(user-store.shard.refresh-interval-ms)보다 충분히 길어야 한다.
+ *
+ * 복사는 같은 id 가 있으면 건너뛰므로 중간에 실패하면 다시 실행하면 된다. 한 번에 하나만 실행해야 한다.
+ *
+ * 사용법
+ *  java -cp app.jar -Dloader.main=com.example.repository.shard.ShardRebalancer org.springframework.boot.loader.launch.PropertiesLauncher \
+ *      <user> <password> <settle-ms> <shard0 url> <shard1 url> ...
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private static final String COPY_SQL =
+            "insert into sharded_user (" + ShardedUserStore.USER_COLUMNS + ") " +
+            "select ?, ?, ?, ?, ?, ?, ?, ? from dual where not exists (select 1 from sharded_user where id = ?)";
+    private static final String DELETE_SQL = "delete from sharded_user where id = ?";
+
+    private final List<JdbcTemplate> shards;
+    private final ShardDirectory directory;
+    private final long settleMillis;
+
+    public ShardRebalancer(List<DataSource> shardDataSources, long settleMillis) {
+        this.shards = shardDataSources.stream().map(JdbcTemplate::new).toList();
+        this.directory = new ShardDirectory(shards.get(0), shards.size());
+        this.settleMillis = settleMillis;
+    }
+
+    /**
+     * 모든 bucket 이 bucket % shard 수 의 shard 에 오도록 옮긴다.
+     * @return 옮긴 bucket 수
+     */
+    public int rebalance() throws InterruptedException {
+        for (JdbcTemplate shard : shards) {
+            ShardedUserStore.createUserTable(shard);
+        }
+        directory.initialize();
+
+        int moved = 0;
+        for (int bucket = 0; bucket < UserIdAllocator.BUCKETS; bucket++) {
+            int target = bucket % shards.size();
+            //  이전 실행이 moving 에서 멈췄으면 같은 shard 라도 moving 을 해제해야 하므로 다시 옮긴다.
+            if (directory.shardOf(bucket) != target || directory.isMoving(bucket)) {
+                moveBucket(bucket, target);
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    public void moveBucket(int bucket, int target) throws InterruptedException {
+        directory.reload();
+        int source = directory.shardOf(bucket);
+        if (source == target) {
+            directory.assign(bucket, target);
+            return;
+        }
+
+        int copied = copy(bucket, source, target);
+
+        directory.setMoving(bucket, true);
+        TimeUnit.MILLISECONDS.sleep(settleMillis);
+        copied += copy(bucket, source, target);
+
+        directory.assign(bucket, target);
+        TimeUnit.MILLISECONDS.sleep(settleMillis);
+        copied += copy(bucket, source, target);
+
+        //  bucket 전체를 지우지 않고 새 shard 에 있는 것을 확인한 id 만 지운다. (복사되지 않은 유저를 잃어버리지 않도록)
+        Set<Long> copiedIds = new HashSet<>(ids(target, bucket));
+        List<Object[]> deletable = new ArrayList<>();
+        List<Long> remaining = new ArrayList<>();
+        for (Long id : ids(source, bucket)) {
+            if (copiedIds.contains(id)) {
+                deletable.add(new Object[]{id});
+            } else {
+                remaining.add(id);
+            }
+        }
+        int deleted = deletable.isEmpty() ? 0
+                : Arrays.stream(shards.get(source).batchUpdate(DELETE_SQL, deletable)).map(count -> Math.max(count, 0)).sum();
+
+        if (!remaining.isEmpty()) {
+            log.warn("bucket {} : shard {} 에 새 shard 로 복사되지 않은 유저가 남아있습니다. id = {}", bucket, source, remaining);
+        }
+        log.info("bucket {} : shard {} -> {} (복사 {}명, 삭제 {}명)", bucket, source, target, copied, deleted);
+    }
+
+    private List<Long> ids(int shard, int bucket) {
+        return shards.get(shard).queryForList("select id from sharded_user where bucket = ?", Long.class, bucket);
+    }
+
+    private int copy(int bucket, int source, int target) {
+        List<Object[]> rows = new ArrayList<>();
+        shards.get(source).query("select " + ShardedUserStore.USER_COLUMNS + " from sharded_user where bucket = ?", resultSet -> {
+            Object[] row = new Object[9];
+            for (int i = 0; i < 8; i++) {
+                row[i] = resultSet.getObject(i + 1);
+            }
+            row[8] = row[0];
+            rows.add(row);
+        }, bucket);
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        return Arrays.stream(shards.get(target).batchUpdate(COPY_SQL, rows)).map(count -> Math.max(count, 0)).sum();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 4) {
+            System.err.println("usage: ShardRebalancer <user> <password> <settle-ms> <shard0 url> [<shard1 url> ...]");
+            System.exit(1);
+        }
+
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 3; i < args.length; i++) {
+            shards.add(new DriverManagerDataSource(args[i], args[0], args[1]));
+        }
+
+        int moved = new ShardRebalancer(shards, Long.parseLong(args[2])).rebalance();
+        System.err.println(moved + " buckets moved");
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.repository.shard;
+
+import com.example.domain.User;
+import com.example.domain.enums.UserRole;
+import com.example.repository.DetachedUserSummary;
+import com.example.repository.UserStore;
+import com.example.repository.UserSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 유저를 loginId 의 hash 로 여러 DB(shard)에 나눠 저장하는 UserStore (sharded-store profile)
+ *
+ * loginId -> bucket(1024개) -> shard 순서로 저장할 shard 를 정한다. (bucket -> shard 배정표는 ShardDirectory)
+ * id 에도 bucket 이 들어있으므로(UserIdAllocator) id 로 조회할 때도 shard 하나만 조회한다.
+ * 같은 loginId 는 항상 같은 shard 에 저장되므로 loginId 중복은 shard 의 unique 제약으로 막는다.
+ *
+ * nickname 은 어느 shard 에 있는지 알 수 없으므로 shard 0(meta shard)의 user_nickname 테이블에 먼저 예약하고 유저를 저장한다.
+ * 유저 저장에 실패하면 예약을 지운다.
+ * OAuth2 유저는 Provider 의 이름을 그대로 nickname 으로 사용하므로 중복이면 예약 없이 저장한다. (JPA 저장소와 같은 동작)
+ *
+ * 유저 목록(관리자 페이지, export, 검색 인덱스)은 모든 shard 에서 id 순으로 조회해서 합친다.
+ * bucket 을 옮기는 중에는 두 shard 에 같은 유저가 있을 수 있으므로 배정표상 그 bucket 의 shard 에서 읽은 유저만 사용한다.
+ */
+@Slf4j
+public class ShardedUserStore implements UserStore, AutoCloseable {
+
+    static final String CREATE_USER_TABLE =
+            "create table if not exists sharded_user (" +
+            "id bigint not null primary key, " +
+            "bucket int not null, " +
+            "login_id varchar(255) not null, " +
+            "password varchar(255), " +
+            "nickname varchar(255), " +
+            "role varchar(16), " +
+            "provider varchar(255), " +
+            "provider_id varchar(255), " +
+            "constraint uk_sharded_user_login_id unique (login_id), " +
+            "index idx_sharded_user_bucket (bucket))";
+
+    static final String CREATE_NICKNAME_TABLE =
+            "create table if not exists user_nickname (" +
+            "nickname varchar(255) not null primary key, " +
+            "user_id bigint not null)";
+
+    static final String USER_COLUMNS = "id, bucket, login_id, password, nickname, role, provider, provider_id";
+
+    private static final String INSERT_SQL = "insert into sharded_user (" + USER_COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String PAGE_SQL = "select " + USER_COLUMNS + " from sharded_user where id > ? order by id limit ?";
+
+    private static final int FOR_EACH_BATCH_SIZE = 1000;
+    private static final Comparator<User> BY_ID = Comparator.comparingLong(User::getId);
+
+    static final RowMapper<User> USER_ROW_MAPPER = (resultSet, rowNum) -> User.builder()
+            .id(resultSet.getLong("id"))
+            .loginId(resultSet.getString("login_id"))
+            .password(resultSet.getString("password"))
+            .nickname(resultSet.getString("nickname"))
+            .role(roleOf(resultSet.getString("role")))
+            .provider(resultSet.getString("provider"))
+            .providerId(resultSet.getString("provider_id"))
+            .build();
+
+    private final List<DataSource> shardDataSources;
+    private final List<JdbcTemplate> shards;
+    private final JdbcTemplate meta;
+    private final ShardDirectory directory;
+    private final UserIdAllocator idAllocator;
+    private final long refreshIntervalMillis;
+
+    private ScheduledExecutorService refresher;
+
+    public ShardedUserStore(List<DataSource> shardDataSources, int nodeId, long refreshIntervalMillis) {
+        if (shardDataSources.isEmpty()) {
+            throw new IllegalArgumentException("shard 가 하나 이상 필요합니다.");
+        }
+        this.shardDataSources = shardDataSources;
+        this.shards = shardDataSources.stream().map(JdbcTemplate::new).toList();
+        this.meta = shards.get(0);
+        this.directory = new ShardDirectory(meta, shards.size());
+        this.idAllocator = new UserIdAllocator(nodeId);
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    public void start() {
+        for (JdbcTemplate shard : shards) {
+            createUserTable(shard);
+        }
+        meta.execute(CREATE_NICKNAME_TABLE);
+        directory.initialize();
+
+        //  다른 서버(또는 ShardRebalancer)가 바꾼 배정표를 주기적으로 다시 읽는다.
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-shard-directory-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshDirectory, refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("유저 shard 저장소 시작 : shard {}개", shards.size());
+    }
+
+    public void refreshDirectory() {
+        try {
+            directory.reload();
+        } catch (Exception e) {
+            log.warn("유저 shard 배정표 갱신 실패, 이전 배정표를 계속 사용합니다.", e);
+        }
+    }
+
+    @Override
+    public boolean existsByLoginId(String loginId) {
+        Integer count = shardOf(UserIdAllocator.bucketOf(loginId))
+                .queryForObject("select count(*) from sharded_user where login_id = ?", Integer.class, loginId);
+        return count != null && count > 0;
+    }
+
+    @Override
+    public boolean existsByNickname(String nickname) {
+        Integer count = meta.queryForObject("select count(*) from user_nickname where nickname = ?", Integer.class, nickname);
+        return count != null && count > 0;
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return shardOf(UserIdAllocator.bucketOf(id))
+                .query("select " + USER_COLUMNS + " from sharded_user where id = ?", USER_ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    @Override
+    public Optional<User> findByLoginId(String loginId) {
+        return shardOf(UserIdAllocator.bucketOf(loginId))
+                .query("select " + USER_COLUMNS + " from sharded_user where login_id = ?", USER_ROW_MAPPER, loginId)
+                .stream().findFirst();
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryById(Long id) {
+        return findById(id).map(DetachedUserSummary::from);
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryByLoginId(String loginId) {
+        return findByLoginId(loginId).map(DetachedUserSummary::from);
+    }
+
+    @Override
+    public List<User> findPage(long cursor, int size) {
+        return readPage(cursor, size).users();
+    }
+
+    //  id 에 bucket 이 들어있으므로 shard 별로 모아서 한 번씩 조회
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        Map<Integer, List<Long>> idsByShard = new HashMap<>();
+        for (Long id : ids) {
+            idsByShard.computeIfAbsent(directory.shardOf(UserIdAllocator.bucketOf(id)), shard -> new ArrayList<>()).add(id);
+        }
+
+        List<User> users = new ArrayList<>(ids.size());
+        idsByShard.forEach((shard, shardIds) -> {
+            String placeholders = String.join(", ", Collections.nCopies(shardIds.size(), "?"));
+            users.addAll(shards.get(shard).query("select " + USER_COLUMNS + " from sharded_user where id in (" + placeholders + ")",
+                    USER_ROW_MAPPER, shardIds.toArray()));
+        });
+        return users;
+    }
+
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        long cursor = 0L;
+        while (true) {
+            UserPage page = readPage(cursor, FOR_EACH_BATCH_SIZE);
+            page.users().forEach(action);
+            if (page.last()) {
+                return;
+            }
+            cursor = page.users().get(page.users().size() - 1).getId();
+        }
+    }
+
+    /**
+     * 유저 목록 한 페이지
+     * last : 모든 shard 를 끝까지 읽었고 잘라낸 유저도 없음 (다음 페이지 없음)
+     */
+    private record UserPage(List<User> users, boolean last) {
+    }
+
+    //  shard 마다 cursor 이후 배정된 유저를 size 명까지 읽어서 id 순으로 합친 뒤 앞에서부터 size 명
+    private UserPage readPage(long cursor, int size) {
+        List<User> users = new ArrayList<>();
+        boolean exhausted = true;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            exhausted &= readOwnedUsers(shard, cursor, size, users);
+        }
+        users.sort(BY_ID);
+        if (users.size() > size) {
+            return new UserPage(new ArrayList<>(users.subList(0, size)), false);
+        }
+        return new UserPage(users, exhausted);
+    }
+
+    //  배정되지 않은 유저(옮기는 중인 bucket)를 걸러내도 size 명이 될 때까지 이어서 읽는다. (걸러낸 만큼 다음 유저를 건너뛰지 않도록)
+    //  shard 를 끝까지 읽었으면 true
+    private boolean readOwnedUsers(int shard, long cursor, int size, List<User> users) {
+        int owned = 0;
+        long from = cursor;
+        while (true) {
+            List<User> rows = shards.get(shard).query(PAGE_SQL, USER_ROW_MAPPER, from, size);
+            for (User user : rows) {
+                if (isOwner(shard, user)) {
+                    users.add(user);
+                    owned++;
+                }
+            }
+            if (rows.size() < size) {
+                return true;
+            }
+            if (owned >= size) {
+                return false;
+            }
+            from = rows.get(rows.size() - 1).getId();
+        }
+    }
+
+    //  유저 정보를 수정하는 기능은 없으므로 항상 새로 저장(insert)한다.
+    @Override
+    public User save(User user) {
+        int bucket = UserIdAllocator.bucketOf(user.getLoginId());
+        if (directory.isMoving(bucket)) {
+            throw new TransientDataAccessResourceException("유저 bucket " + bucket + " 을 다른 shard 로 옮기는 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        User saved = user.getId() == 0 ? user.toBuilder().id(idAllocator.nextId(bucket)).build() : user;
+        if (UserIdAllocator.bucketOf(saved.getId()) != bucket) {
+            throw new IllegalArgumentException("id 의 bucket 이 loginId 의 bucket 과 다릅니다. : " + saved.getId());
+        }
+
+        boolean reserved = reserveNickname(saved);
+        try {
+            shardOf(bucket).update(INSERT_SQL, saved.getId(), bucket, saved.getLoginId(), saved.getPassword(), saved.getNickname(),
+                    saved.getRole() == null ? null : saved.getRole().name(), saved.getProvider(), saved.getProviderId());
+        } catch (RuntimeException e) {
+            if (reserved) {
+                meta.update("delete from user_nickname where nickname = ? and user_id = ?", saved.getNickname(), saved.getId());
+            }
+            throw e;
+        }
+        return saved;
+    }
+
+    private boolean reserveNickname(User user) {
+        if (user.getNickname() == null) {
+            return false;
+        }
+        try {
+            meta.update("insert into user_nickname (nickname, user_id) values (?, ?)", user.getNickname(), user.getId());
+            return true;
+        } catch (DuplicateKeyException e) {
+            if (user.getProvider() == null) {
+                throw e;
+            }
+            return false;
+        }
+    }
+
+    private JdbcTemplate shardOf(int bucket) {
+        return shards.get(directory.shardOf(bucket));
+    }
+
+    //  bucket 을 옮기는 중 원래 shard 에 남은 유저, 새 shard 에 미리 복사된 유저는 건너뛴다.
+    private boolean isOwner(int shard, User user) {
+        return directory.shardOf(UserIdAllocator.bucketOf(user.getId())) == shard;
+    }
+
+    //  ShardRebalancer 도 같은 테이블을 사용한다.
+    static void createUserTable(JdbcTemplate shard) {
+        shard.execute(CREATE_USER_TABLE);
+    }
+
+    //  role 은 enum 이름으로 저장
+    static UserRole roleOf(String value) {
+        return value == null ? null : UserRole.valueOf(value);
+    }
+
+    //  shard DataSource(connection pool)도 함께 닫는다.
+    @Override
+    public void close() throws Exception {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+        for (DataSource dataSource : shardDataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.repository.shard;
+
+import java.util.function.LongSupplier;
+
+/**
+ * sharding 용 유저 id 발급 (GenerationType.IDENTITY 대신 사용)
+ *
+ * id 구성 (63 bit, 양수)
+ *  41 bit : 발급 시각 (EPOCH 이후 millis, 약 69년)
+ *   6 bit : 서버 번호 (nodeId, 서버마다 다르게 설정)
+ *   6 bit : 같은 millis 안에서의 순번
+ *  10 bit : bucket (loginId 의 hash)
+ *
+ * bucket 을 id 에 포함하기 때문에 id 만으로도 유저가 있는 shard 를 찾을 수 있다.
+ * shard 가 아니라 bucket 을 넣어두므로 resharding 으로 bucket 이 다른 shard 로 옮겨가도 id 는 바뀌지 않는다.
+ */
+public class UserIdAllocator {
+
+    public static final int BUCKET_BITS = 10;
+    public static final int BUCKETS = 1 << BUCKET_BITS;
+
+    private static final int SEQUENCE_BITS = 6;
+    private static final int NODE_BITS = 6;
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    //  2024-01-01T00:00:00Z
+    private static final long EPOCH = 1704067200000L;
+
+    private final int nodeId;
+    private final LongSupplier clock;
+
+    private long lastMillis = -1;
+    private int sequence;
+
+    public UserIdAllocator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    UserIdAllocator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId 는 0 ~ " + MAX_NODE_ID + " 사이여야 합니다. : " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public synchronized long nextId(int bucket) {
+        //  시계가 뒤로 가더라도 마지막으로 사용한 시각 이후의 id 를 발급한다.
+        long now = Math.max(clock.getAsLong(), lastMillis);
+        if (now == lastMillis) {
+            //  같은 millis 의 순번을 다 쓰면 다음 millis 를 미리 사용한다. (기다리지 않음)
+            if (++sequence > MAX_SEQUENCE) {
+                now++;
+                sequence = 0;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+
+        return ((now - EPOCH) << (NODE_BITS + SEQUENCE_BITS + BUCKET_BITS))
+                | ((long) nodeId << (SEQUENCE_BITS + BUCKET_BITS))
+                | ((long) sequence << BUCKET_BITS)
+                | bucket;
+    }
+
+    //  loginId 의 bucket (String.hashCode 는 JVM 과 상관 없이 항상 같은 값이다)
+    public static int bucketOf(String loginId) {
+        int hash = loginId.hashCode();
+        //  비슷한 loginId 가 고르게 퍼지도록 섞는다. (murmur3 finalizer)
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash & (BUCKETS - 1);
+    }
+
+    //  id 에 포함된 bucket
+    public static int bucketOf(long id) {
+        return (int) (id & (BUCKETS - 1));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.search;
+
+/**
+ * long -> int open addressing hash map (boxing 없이 primitive 배열만 사용)
+ * key 0 은 빈 칸 표시로 쓰기 때문에 사용할 수 없다.
+ * 동기화하지 않으므로 사용하는 쪽에서 lock 을 잡아야 한다.
+ */
+class LongIntHashMap {
+
+    static final int NOT_FOUND = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    int get(long key) {
+        int index = slot(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    void put(long key, int value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("key 0 은 사용할 수 없습니다.");
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+
+        int index = slot(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        //  murmur3 fmix64
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb53a1a3ec1fbL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+}
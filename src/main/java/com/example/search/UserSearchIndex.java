@@ -0,0 +1,278 @@
+package com.example.search;
+
+import com.example.domain.User;
+import com.example.domain.event.UserIdReassignedEvent;
+import com.example.domain.event.UserJoinedEvent;
+import com.example.repository.UserStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * nickname, loginId 부분 문자열 검색용 in-memory 3-gram 인덱스
+ *
+ * nickname, loginId 를 소문자로 바꿔 3글자씩 잘라(3-gram) gram 마다 해당하는 유저 번호(ordinal) 목록을 가지고 있는다.
+ * 검색어의 모든 gram 목록의 교집합을 구한 뒤 실제로 포함하는지 한 번 더 확인한다.
+ * 2글자 검색어(한글 닉네임 등)를 위해 2-gram 목록도 따로 가지고 있고, 1글자 검색어는 받지 않는다. (전체 확인 X)
+ *
+ * 유저 번호는 추가된 순서대로 붙이기 때문에 gram 목록은 항상 유저 번호 순서로 정렬되어 있다.
+ * 회원가입은 commit 순서대로 추가되므로 유저 번호 순서와 id 순서는 다를 수 있다.
+ * 그래서 다음 페이지 cursor 는 id 가 아닌 유저 번호를 사용한다. (늦게 추가된 유저도 건너뛰지 않는다.)
+ * boxing 을 피하기 위해 모든 데이터는 primitive 배열에 저장한다.
+ *
+ * 서버 시작 시 UserStore 의 전체 유저를 읽어서 만들고, 이후에는 UserJoinedEvent 로 새 유저를 추가한다.
+ * 저장 중 id 가 바뀐 유저(UserIdReassignedEvent)는 같은 유저 번호의 id 만 새 id 로 바꾼다.
+ * (JPA 테이블이 아닌 UserStore 에서 읽으므로 sharded-store 등 다른 저장소에서도 동작한다.)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserSearchIndex {
+
+    private static final int GRAM_SIZE = 3;
+    private static final int SHORT_GRAM_SIZE = 2;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    //  이보다 짧은 검색어는 받지 않는다.
+    public static final int MIN_QUERY_LENGTH = SHORT_GRAM_SIZE;
+
+    /**
+     * 검색 결과 한 페이지
+     * nextCursor : 다음 페이지 조회 시 넘겨줄 cursor (마지막 페이지면 null)
+     */
+    public record Page(List<Long> ids, Long nextCursor) {
+    }
+
+    private final UserStore userStore;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    //  유저 번호(ordinal) 별 데이터
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private String[] loginIds = new String[INITIAL_CAPACITY];
+    private String[] nicknames = new String[INITIAL_CAPACITY];
+    private int userCount;
+
+    //  id -> 유저 번호 (중복 추가 방지)
+    private final LongIntHashMap ordinalById = new LongIntHashMap(INITIAL_CAPACITY);
+
+    //  gram -> postings 번호
+    private final LongIntHashMap postingByGram = new LongIntHashMap(INITIAL_CAPACITY);
+    private int[][] postings = new int[INITIAL_CAPACITY][];
+    private int[] postingSizes = new int[INITIAL_CAPACITY];
+    private int postingCount;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+
+        //  인덱스를 만드는 동안 들어온 회원가입은 write lock 을 기다렸다가 추가된다.
+        lock.writeLock().lock();
+        try {
+            userStore.forEachUser(user -> addUser(user.getId(), user.getLoginId(), user.getNickname()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("유저 검색 인덱스 생성 완료 : 유저 {}명, gram {}개, {}ms", userCount, postingCount, System.currentTimeMillis() - start);
+    }
+
+    //  회원가입 트랜잭션이 commit 된 후에 추가 (트랜잭션 밖에서 저장한 경우 바로 추가)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserJoined(UserJoinedEvent event) {
+        User user = event.getUser();
+
+        lock.writeLock().lock();
+        try {
+            addUser(user.getId(), user.getLoginId(), user.getNickname());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //  memory-store 의 flush 스레드에서 publish (트랜잭션 밖)
+    @EventListener
+    public void onUserIdReassigned(UserIdReassignedEvent event) {
+        User user = event.getUser();
+
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinalById.get(event.getPreviousId());
+            if (ordinal == LongIntHashMap.NOT_FOUND) {
+                addUser(user.getId(), user.getLoginId(), user.getNickname());
+                ordinal = ordinalById.get(user.getId());
+            } else {
+                ids[ordinal] = user.getId();
+                ordinalById.put(user.getId(), ordinal);
+            }
+            //  이전 id 의 회원가입 event 가 늦게 도착해도 다시 추가하지 않도록 이전 id 도 같은 유저 번호로 남겨둔다.
+            ordinalById.put(event.getPreviousId(), ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * nickname 또는 loginId 에 query 가 포함된 유저의 id 를 인덱스에 추가된 순서대로 최대 size 개 return
+     * cursor 가 있으면 이전 페이지의 마지막 유저 다음부터 찾는다. (cursor 는 이전 Page 의 nextCursor)
+     * query 가 MIN_QUERY_LENGTH 보다 짧으면 IllegalArgumentException
+     */
+    public Page search(String query, Long cursor, int size) {
+        if (query.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("검색어는 " + MIN_QUERY_LENGTH + "글자 이상이어야 합니다.");
+        }
+        String lowerQuery = query.toLowerCase(Locale.ROOT);
+        int after = cursor == null ? -1 : (int) Math.min(cursor, Integer.MAX_VALUE - 1);
+
+        lock.readLock().lock();
+        try {
+            return searchByGrams(lowerQuery, after, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return userCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Page searchByGrams(String lowerQuery, int after, int size) {
+        //  검색어의 gram 별 postings 번호 (하나라도 없으면 결과 없음)
+        int gramSize = lowerQuery.length() < GRAM_SIZE ? SHORT_GRAM_SIZE : GRAM_SIZE;
+        int gramCount = lowerQuery.length() - gramSize + 1;
+        int[] postingIndexes = new int[gramCount];
+        int smallest = 0;
+
+        for (int i = 0; i < gramCount; i++) {
+            int postingIndex = postingByGram.get(gram(lowerQuery, i, gramSize));
+            if (postingIndex == LongIntHashMap.NOT_FOUND) {
+                return new Page(List.of(), null);
+            }
+            postingIndexes[i] = postingIndex;
+            if (postingSizes[postingIndex] < postingSizes[postingIndexes[smallest]]) {
+                smallest = i;
+            }
+        }
+
+        //  가장 짧은 postings 를 기준으로 나머지 postings 에 모두 있는지 확인
+        int[] candidates = postings[postingIndexes[smallest]];
+        int candidateCount = postingSizes[postingIndexes[smallest]];
+        List<Long> result = new ArrayList<>(size);
+        int lastOrdinal = after;
+
+        //  postings 는 유저 번호 순서로 정렬되어 있으므로 cursor 다음 위치부터 확인
+        int start = Arrays.binarySearch(candidates, 0, candidateCount, after + 1);
+        for (int c = start >= 0 ? start : -start - 1; c < candidateCount && result.size() < size; c++) {
+            int ordinal = candidates[c];
+
+            boolean inAll = true;
+            for (int i = 0; i < gramCount && inAll; i++) {
+                int postingIndex = postingIndexes[i];
+                inAll = i == smallest || Arrays.binarySearch(postings[postingIndex], 0, postingSizes[postingIndex], ordinal) >= 0;
+            }
+
+            //  gram 이 모두 있어도 순서가 다를 수 있으므로 실제로 포함하는지 확인
+            if (inAll && matches(ordinal, lowerQuery)) {
+                result.add(ids[ordinal]);
+                lastOrdinal = ordinal;
+            }
+        }
+
+        //  size 만큼 꽉 채웠으면 다음 페이지가 있을 수 있으므로 마지막 유저 번호를 cursor 로 넘겨준다.
+        return new Page(result, result.size() < size ? null : (long) lastOrdinal);
+    }
+
+    private boolean matches(int ordinal, String lowerQuery) {
+        return (loginIds[ordinal] != null && loginIds[ordinal].contains(lowerQuery))
+                || (nicknames[ordinal] != null && nicknames[ordinal].contains(lowerQuery));
+    }
+
+    //  write lock 을 잡은 상태에서 호출
+    private void addUser(long id, String loginId, String nickname) {
+        if (ordinalById.get(id) != LongIntHashMap.NOT_FOUND) {
+            return;
+        }
+
+        if (userCount == ids.length) {
+            int capacity = userCount + (userCount >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            loginIds = Arrays.copyOf(loginIds, capacity);
+            nicknames = Arrays.copyOf(nicknames, capacity);
+        }
+
+        int ordinal = userCount++;
+        ids[ordinal] = id;
+        loginIds[ordinal] = loginId == null ? null : loginId.toLowerCase(Locale.ROOT);
+        nicknames[ordinal] = nickname == null ? null : nickname.toLowerCase(Locale.ROOT);
+        ordinalById.put(id, ordinal);
+
+        addGrams(loginIds[ordinal], ordinal, GRAM_SIZE);
+        addGrams(nicknames[ordinal], ordinal, GRAM_SIZE);
+        addGrams(loginIds[ordinal], ordinal, SHORT_GRAM_SIZE);
+        addGrams(nicknames[ordinal], ordinal, SHORT_GRAM_SIZE);
+    }
+
+    private void addGrams(String text, int ordinal, int gramSize) {
+        if (text == null) {
+            return;
+        }
+
+        for (int i = 0; i + gramSize <= text.length(); i++) {
+            long gram = gram(text, i, gramSize);
+            int postingIndex = postingByGram.get(gram);
+
+            if (postingIndex == LongIntHashMap.NOT_FOUND) {
+                if (postingCount == postings.length) {
+                    int capacity = postingCount + (postingCount >> 1);
+                    postings = Arrays.copyOf(postings, capacity);
+                    postingSizes = Arrays.copyOf(postingSizes, capacity);
+                }
+                postingIndex = postingCount++;
+                postings[postingIndex] = new int[4];
+                postingByGram.put(gram, postingIndex);
+            }
+
+            int[] posting = postings[postingIndex];
+            int postingSize = postingSizes[postingIndex];
+
+            //  같은 유저에 같은 gram 이 여러 번 나오면 한 번만 추가
+            if (postingSize > 0 && posting[postingSize - 1] == ordinal) {
+                continue;
+            }
+            if (postingSize == posting.length) {
+                posting = Arrays.copyOf(posting, postingSize + (postingSize >> 1) + 1);
+                postings[postingIndex] = posting;
+            }
+            posting[postingSize] = ordinal;
+            postingSizes[postingIndex] = postingSize + 1;
+        }
+    }
+
+    //  3글자(char 16bit x 3)를 long 하나로 (0 이 되지 않도록 48번째 bit 를 켠다)
+    //  2글자는 49번째 bit 를 켜서 3-gram 과 겹치지 않게 한다.
+    private static long gram(String text, int offset, int gramSize) {
+        if (gramSize == SHORT_GRAM_SIZE) {
+            return (1L << 49)
+                    | ((long) text.charAt(offset) << 16)
+                    | text.charAt(offset + 1);
+        }
+        return (1L << 48)
+                | ((long) text.charAt(offset) << 32)
+                | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 같은 key 로 동시에 들어온 조회를 하나로 합치는 도구 (request coalescing)
+ *
+ * key 마다 처음 들어온 스레드(leader)만 loader 를 실행하고,
+ * 그동안 같은 key 로 들어온 스레드는 loader 를 실행하지 않고 leader 의 결과(또는 예외)를 기다렸다가 같이 받는다.
+ * 결과를 저장해두지는 않으므로(cache X) leader 가 끝난 뒤에 들어온 요청은 다시 loader 를 실행한다.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    //  leader 에서 발생한 예외는 감싸지 않고 그대로 던진다.
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
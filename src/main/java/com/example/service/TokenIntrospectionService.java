@@ -0,0 +1,98 @@
+package com.example.service;
+
+import com.example.auth.JwtTokenUtil;
+import com.example.converter.TokenConverter;
+import com.example.web.dto.tokenDTO.TokenResponseDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 여러 개의 Jwt Token 을 한 번에 검증 (Token introspection)
+ *
+ * JwtTokenFilter 와 같은 JwtTokenUtil.verify 로 검증하고, DB 는 조회하지 않는다.
+ * Token 목록을 스레드 수 만큼 나눠서 고정 크기 스레드 풀에서 병렬로 검증한다.
+ * 풀의 대기열이 가득 차면 요청한 스레드에서 직접 검증한다. (CallerRunsPolicy)
+ */
+@Service
+public class TokenIntrospectionService {
+
+    //  이 개수보다 적으면 나눠서 처리하는 비용이 더 크므로 요청 스레드에서 바로 검증
+    private static final int MIN_TOKENS_PER_TASK = 16;
+
+    private final String secretKey;
+    private final int maxTokens;
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+
+    public TokenIntrospectionService(@Value("${jwt.secret-key}") String secretKey,
+                                     @Value("${jwt.introspection.max-tokens}") int maxTokens,
+                                     @Value("${jwt.introspection.threads}") int threads) {
+        this.secretKey = secretKey;
+        this.maxTokens = maxTokens;
+        this.threads = threads;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "token-introspection-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public TokenResponseDTO.IntrospectResponseDTO introspect(List<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            return TokenConverter.toIntrospectResponseDTO(List.of());
+        }
+        if (tokens.size() > maxTokens) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "한 번에 검증할 수 있는 Token 은 최대 " + maxTokens + "개 입니다.");
+        }
+
+        TokenResponseDTO.TokenStatusDTO[] results = new TokenResponseDTO.TokenStatusDTO[tokens.size()];
+
+        int chunkSize = Math.max(MIN_TOKENS_PER_TASK, (tokens.size() + threads - 1) / threads);
+        if (tokens.size() <= chunkSize) {
+            verifyRange(tokens, results, 0, tokens.size());
+            return TokenConverter.toIntrospectResponseDTO(Arrays.asList(results));
+        }
+
+        //  마지막 구간은 요청 스레드에서 직접 검증하고, 나머지 구간은 풀에 맡긴다.
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        int start = 0;
+        while (start + chunkSize < tokens.size()) {
+            int from = start;
+            int to = start + chunkSize;
+            futures.add(CompletableFuture.runAsync(() -> verifyRange(tokens, results, from, to), executor));
+            start = to;
+        }
+        verifyRange(tokens, results, start, tokens.size());
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return TokenConverter.toIntrospectResponseDTO(Arrays.asList(results));
+    }
+
+    private void verifyRange(List<String> tokens, TokenResponseDTO.TokenStatusDTO[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = TokenConverter.toTokenStatusDTO(JwtTokenUtil.verify(tokens.get(i), secretKey));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.service;
+
+import com.example.converter.UserConverter;
+import com.example.repository.UserStore;
+import com.example.web.dto.userDTO.UserResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * 관리자용 유저 내보내기(export)
+ *
+ * 전체 유저를 한번에 List로 조회하지 않고, UserStore.forEachUser 로 한 줄씩 읽어서 바로 응답에 써준다.
+ * (JPA 저장소는 forward-only 커서로 읽고 쓴 유저는 영속성 컨텍스트에서 detach, sharded 저장소는 shard 를 합쳐서 id 순으로 나눠 읽는다.)
+ * 유저 수와 상관없이 메모리 사용량이 일정하다.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+
+    private final UserStore userStore;
+    private final ObjectMapper objectMapper;
+
+    //  FLUSH_INTERVAL 줄마다 응답 버퍼를 비워준다.
+    private static final int FLUSH_INTERVAL = 1000;
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Format {
+        NDJSON("application/x-ndjson", "users.ndjson"),
+        CSV("text/csv", "users.csv");
+
+        private final String contentType;
+        private final String fileName;
+    }
+
+    //  파일 다운로드 응답으로 내보내기 (관리자 export API 공통)
+    public void export(HttpServletResponse response, Format format) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + format.getFileName() + "\"");
+        export(response.getWriter(), format);
+    }
+
+    public void export(Writer writer, Format format) throws IOException {
+        if (format == Format.CSV) {
+            writer.write("id,loginId,nickname,role,provider\n");
+        }
+
+        int[] count = new int[1];
+        try {
+            userStore.forEachUser(user -> {
+                try {
+                    writeUser(writer, format, UserConverter.toUserInfoDTO(user));
+                    if (++count[0] % FLUSH_INTERVAL == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeUser(Writer writer, Format format, UserResponseDTO.UserInfoDTO userInfo) throws IOException {
+        if (format == Format.CSV) {
+            writeCsvLine(writer, userInfo);
+        } else {
+            writer.write(objectMapper.writeValueAsString(userInfo));
+            writer.write('\n');
+        }
+    }
+
+    private void writeCsvLine(Writer writer, UserResponseDTO.UserInfoDTO userInfo) throws IOException {
+        writer.write(String.valueOf(userInfo.getId()));
+        writer.write(',');
+        writer.write(escapeCsv(userInfo.getLoginId()));
+        writer.write(',');
+        writer.write(escapeCsv(userInfo.getNickname()));
+        writer.write(',');
+        writer.write(userInfo.getRole() == null ? "" : userInfo.getRole().name());
+        writer.write(',');
+        writer.write(escapeCsv(userInfo.getProvider()));
+        writer.write('\n');
+    }
+
+    //  쉼표, 따옴표, 줄바꿈이 들어있는 값은 따옴표로 감싸준다.
+    //  =, +, -, @ 로 시작하는 값은 엑셀 등에서 수식으로 실행되지 않도록 앞에 ' 를 붙인다. (CSV injection)
+    static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.service;
+
+import com.example.auth.AuthResult;
+import com.example.auth.JwtTokenVerification;
+import com.example.repository.UserStore;
+import com.example.repository.UserSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * 인증, 화면 표시용 로그인 유저 조회 (loginId, nickname, role)
+ *
+ * 같은 유저를 동시에 조회하는 요청은 DB 조회 한 번으로 합친다. (인증 시 같은 계정으로 요청이 몰리는 경우)
+ * 이 클래스에는 @Transactional 을 붙이지 않는다.
+ * 트랜잭션 안에서 합치면 기다리는 요청도 이미 커넥션을 하나씩 잡고 있게 되므로, 트랜잭션은 leader 의 UserStore 조회에서만 시작된다.
+ * 합쳐진 요청들은 같은 결과를 받으므로 영속성 컨텍스트에 올라가지 않는 UserSummary 만 return 한다. (엔티티 X)
+ */
+@Service
+@RequiredArgsConstructor
+public class UserLookupService {
+
+    private final UserStore userStore;
+
+    private final SingleFlight<Long, Optional<UserSummary>> summaryByIdFlight = new SingleFlight<>();
+    private final SingleFlight<String, Optional<UserSummary>> summaryByLoginIdFlight = new SingleFlight<>();
+
+    /**
+     * 검증한 Jwt Token 으로 로그인 유저 정보(loginId, nickname, role)를 return 해주는 기능
+     * JwtTokenFilter 에서 사용
+     * 만료된 Token 이면 EXPIRED, 잘못된 Token 이면 INVALID, Token 의 유저가 없으면 NOT_FOUND return
+     */
+    public AuthResult<UserSummary> authenticate(JwtTokenVerification verification) {
+        switch (verification.getStatus()) {
+            case EXPIRED:
+                return AuthResult.expired();
+            case INVALID:
+                return AuthResult.invalid();
+            default:
+                UserSummary loginUser = getLoginUserSummaryByLoginId(verification.getLoginId());
+                return loginUser == null ? AuthResult.notFound() : AuthResult.found(loginUser);
+        }
+    }
+
+    /**
+     * userId(Long)를 입력받아 화면에 필요한 정보(loginId, nickname, role)만 return 해주는 기능
+     * userId가 null이거나(로그인 X) userId로 찾아온 User가 없으면 null return
+     * 엔티티 전체(password 포함)를 조회하지 않기 때문에 조회만 하는 화면에서는 이 메서드를 사용
+     */
+    public UserSummary getLoginUserSummaryById(Long userId) {
+        if (userId == null)
+            return null;
+
+        return summaryByIdFlight.execute(userId, () -> userStore.findSummaryById(userId)).orElse(null);
+    }
+
+    /**
+     * loginId(String)를 입력받아 화면에 필요한 정보(loginId, nickname, role)만 return 해주는 기능
+     * loginId가 null이거나(로그인 X) loginId로 찾아온 User가 없으면 null return
+     */
+    public UserSummary getLoginUserSummaryByLoginId(String loginId) {
+        if (loginId == null)
+            return null;
+
+        return summaryByLoginIdFlight.execute(loginId, () -> userStore.findSummaryByLoginId(loginId)).orElse(null);
+    }
+}
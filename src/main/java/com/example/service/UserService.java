@@ -1,22 +1,41 @@
 package com.example.service;
 
+import com.example.auth.AuthResult;
 import com.example.config.BCryptConfig;
 import com.example.converter.UserConverter;
 import com.example.domain.User;
-import com.example.repository.UserRepository;
+import com.example.domain.event.UserJoinedEvent;
+import com.example.jfr.AuthPhase;
+import com.example.jfr.AuthPhaseEvent;
+import com.example.repository.UserStore;
+import com.example.search.UserSearchIndex;
 import com.example.web.dto.userDTO.UserRequestDTO;
+import com.example.web.dto.userDTO.UserResponseDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class UserService {
 
-    private final UserRepository userRepository;
+    private final UserStore userStore;
     private final BCryptPasswordEncoder encoder;
+    private final UserSearchIndex userSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_PAGE_SIZE = 100;
 
     // Spring Security를 사용한 로그인 구현 시 사용
     // private final BCryptPasswordEncoder encoder;
@@ -27,7 +46,7 @@ public class UserService {
      * 중복되면 true return
      */
     public boolean checkLoginIdDuplicate(String loginId) {
-        return userRepository.existsByLoginId(loginId);
+        return userStore.existsByLoginId(loginId);
     }
 
     /**
@@ -37,7 +56,7 @@ public class UserService {
      * @param nickname 중복되면 true return
      */
     public boolean checkNicknameDuplicate(String nickname) {
-        return userRepository.existsByNickname(nickname);
+        return userStore.existsByNickname(nickname);
     }
 
     /**
@@ -47,9 +66,12 @@ public class UserService {
      *
      * @param request
      */
+    @Transactional
     public User join(UserRequestDTO.JoinRequestDTO request) {
+        User user = userStore.save(UserConverter.toUser(request));
+        eventPublisher.publishEvent(new UserJoinedEvent(user));
 
-        return userRepository.save(UserConverter.toUser(request));
+        return user;
     }
 
     /**
@@ -60,59 +82,127 @@ public class UserService {
      *
      * @param request
      */
+    @Transactional
     public User join2(UserRequestDTO.JoinRequestDTO request) {
-
-        return userRepository.save(UserConverter.toUser(request, encoder.encode(request.getPassword())));
+        AuthPhaseEvent event = AuthPhaseEvent.begin(AuthPhase.USER_JOIN);
+        String outcome = "error";
+        try {
+            User user = userStore.save(UserConverter.toUser(request, encoder.encode(request.getPassword())));
+            eventPublisher.publishEvent(new UserJoinedEvent(user));
+            outcome = "success";
+            return user;
+        } finally {
+            event.finish(outcome, request.getLoginId());
+        }
     }
 
 
     /**
      * 로그인 기능
-     * 화면에서 LoginRequest(loginId, password)을 입력받아 loginId와 password가 일치하면 User return
+     * 화면에서 LoginRequest(loginId, password)을 입력받아 loginId와 password가 일치하면 FOUND(User) return
+     * 유저가 없으면 NOT_FOUND, password가 다르면 BAD_PASSWORD return (예외 X)
      *
      * @param request
      * @return
      */
-    public User login(UserRequestDTO.LoginRequestDTO request) {
-        User user = userRepository.findByLoginId(request.getLoginId())
-                .orElseThrow(() -> new IllegalArgumentException("유저가 존재하지 않습니다."));
-
-        // loginId로 찾은 유저의 password와 입력된 password가 다를 경우 null return
-        if (!user.getPassword().equals(request.getPassword())) {
-            return null;
+    public AuthResult<User> login(UserRequestDTO.LoginRequestDTO request) {
+        AuthPhaseEvent event = AuthPhaseEvent.begin(AuthPhase.USER_LOGIN);
+        String outcome = "not_found";
+        try {
+            Optional<User> optionalUser = userStore.findByLoginId(request.getLoginId());
+            if (optionalUser.isEmpty()) {
+                return AuthResult.notFound();
+            }
+
+            // loginId로 찾은 유저의 password와 입력된 password가 다를 경우 BAD_PASSWORD return
+            User user = optionalUser.get();
+            if (!user.getPassword().equals(request.getPassword())) {
+                outcome = "bad_password";
+                return AuthResult.badPassword();
+            }
+
+            outcome = "success";
+            return AuthResult.found(user);
+        } finally {
+            event.finish(outcome, request.getLoginId());
         }
-
-        return user;
     }
 
     /**
      * userId(Long)를 입력받아 User을 return 해주는 기능
      * 인증, 인가 시 사용
-     * userId가 null이거나(로그인 X) userId로 찾아온 User가 없으면 null return
-     * userId로 찾아온 User가 존재하면 User return
+     * userId가 null이거나(로그인 X) userId로 찾아온 User가 없으면 NOT_FOUND return
+     * userId로 찾아온 User가 존재하면 FOUND(User) return
      */
-    public User getLoginUserById(Long userId) {
+    public AuthResult<User> getLoginUserById(Long userId) {
         if (userId == null)
-            return null;
-
-        User user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("유저가 존재하지 않습니다."));
+            return AuthResult.notFound();
 
-        return user;
+        return userStore.findById(userId)
+                .map(AuthResult::found)
+                .orElseGet(AuthResult::notFound);
     }
 
     /**
      * loginId(String)를 입력받아 User을 return 해주는 기능
      * 인증, 인가 시 사용
-     * loginId가 null이거나(로그인 X) userId로 찾아온 User가 없으면 null return
-     * loginId로 찾아온 User가 존재하면 User return
+     * loginId가 null이거나(로그인 X) loginId로 찾아온 User가 없으면 NOT_FOUND return
+     * loginId로 찾아온 User가 존재하면 FOUND(User) return
      */
-    public User getLoginUserByLoginId(String loginId) {
+    public AuthResult<User> getLoginUserByLoginId(String loginId) {
         if (loginId == null)
-            return null;
+            return AuthResult.notFound();
 
-        User user = userRepository.findByLoginId(loginId).orElseThrow(() -> new IllegalArgumentException("유저가 존재하지 않습니다."));
+        return userStore.findByLoginId(loginId)
+                .map(AuthResult::found)
+                .orElseGet(AuthResult::notFound);
+    }
 
-        return user;
+    /**
+     * 관리자 페이지 유저 목록 조회 기능
+     * cursor(이전 페이지의 마지막 유저 id) 이후의 유저를 id 순서대로 size 만큼 return
+     * OFFSET 대신 id 조건으로 조회하기 때문에 뒤 페이지로 갈수록 느려지지 않는다.
+     * cursor가 null이면 첫 페이지
+     */
+    public UserResponseDTO.UserPageDTO getUserPage(Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        List<User> users = userStore.findPage(cursor == null ? 0L : cursor, pageSize);
+
+        return UserConverter.toUserPageDTO(users, pageSize);
     }
 
+    /**
+     * 관리자 페이지 유저 검색 기능
+     * nickname 또는 loginId 에 query 가 포함된 유저를 인덱스에 추가된 순서대로 size 만큼 return (UserSearchIndex 사용)
+     * 검색 결과의 cursor 는 UserSearchIndex 가 넘겨준 값을 그대로 사용한다. (유저 id 가 아님)
+     * query 가 비어있으면 전체 유저 목록 조회와 같고, UserSearchIndex.MIN_QUERY_LENGTH 보다 짧으면 400 에러
+     */
+    public UserResponseDTO.UserPageDTO searchUsers(String query, Long cursor, int size) {
+        if (query == null || query.isBlank()) {
+            return getUserPage(cursor, size);
+        }
+
+        String trimmedQuery = query.trim();
+        if (trimmedQuery.length() < UserSearchIndex.MIN_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "검색어는 " + UserSearchIndex.MIN_QUERY_LENGTH + "글자 이상 입력해주세요.");
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        UserSearchIndex.Page page = userSearchIndex.search(trimmedQuery, cursor, pageSize);
+
+        //  인덱스가 찾은 순서대로 정렬 (findAllById 는 순서를 보장하지 않음)
+        Map<Long, User> usersById = new HashMap<>();
+        userStore.findAllById(page.ids()).forEach(user -> usersById.put(user.getId(), user));
+        List<User> users = new ArrayList<>(page.ids().size());
+        for (Long id : page.ids()) {
+            User user = usersById.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+
+        return UserConverter.toUserPageDTO(users, page.nextCursor());
+    }
 }
@@ -0,0 +1,165 @@
+package com.example.session;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * memory-mapped segment 파일을 고정 크기 block 으로 나눠 byte 배열을 저장하는 공간 (heap 밖)
+ *
+ * 데이터 하나는 block 여러 개를 연결(linked list)해서 저장한다. block 의 앞 4 byte 는 다음 block 번호(-1 이면 끝)이다.
+ * 반납한 block 도 같은 방식으로 연결해서(free list) 다시 사용하므로 빈 공간을 관리하는 데 heap 을 쓰지 않는다.
+ * segment 는 필요할 때마다 하나씩 추가로 map 하고, maxSegments 개를 다 쓰면 더 저장할 수 없다.
+ *
+ * 서버가 재시작되면 이전 데이터는 사용하지 않으므로 시작할 때 이전 segment 파일을 지운다.
+ * 오래 사용하지 않은 page 는 OS 가 디스크로 내보낼 수 있다.
+ */
+public class OffHeapBlockArena implements Closeable {
+
+    static final int BLOCK_SIZE = 256;
+    private static final int NEXT_SIZE = 4;
+    static final int BLOCK_DATA_SIZE = BLOCK_SIZE - NEXT_SIZE;
+    private static final int END = -1;
+
+    private static final String SEGMENT_PREFIX = "sessions-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int blocksPerSegment;
+    private final int maxBlocks;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    //  한 번도 사용하지 않은 첫 block 번호
+    private int highWaterMark;
+    private int freeHead = END;
+    private int freeBlocks;
+
+    public OffHeapBlockArena(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize < BLOCK_SIZE || (long) segmentSize * maxSegments / BLOCK_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segment 크기 또는 개수가 잘못되었습니다.");
+        }
+        this.directory = directory;
+        this.blocksPerSegment = segmentSize / BLOCK_SIZE;
+        this.maxBlocks = blocksPerSegment * maxSegments;
+
+        Files.createDirectories(directory);
+        deleteSegments();
+    }
+
+    /**
+     * data 를 저장하고 첫 block 번호를 return
+     * 남은 공간이 부족하면 IOException
+     */
+    public synchronized int write(byte[] data) throws IOException {
+        int required = Math.max(1, (data.length + BLOCK_DATA_SIZE - 1) / BLOCK_DATA_SIZE);
+        if (required > freeBlocks + (maxBlocks - highWaterMark)) {
+            throw new IOException("off-heap 저장 공간이 부족합니다. (필요 block " + required + ", 사용 " + usedBlocks() + " / " + maxBlocks + ")");
+        }
+
+        int first = allocate();
+        int block = first;
+        int offset = 0;
+        while (true) {
+            int length = Math.min(BLOCK_DATA_SIZE, data.length - offset);
+            MappedByteBuffer segment = segments.get(block / blocksPerSegment);
+            int position = (block % blocksPerSegment) * BLOCK_SIZE;
+            segment.put(position + NEXT_SIZE, data, offset, length);
+            offset += length;
+
+            if (offset >= data.length) {
+                segment.putInt(position, END);
+                return first;
+            }
+            int next = allocate();
+            segment.putInt(position, next);
+            block = next;
+        }
+    }
+
+    public synchronized byte[] read(int first, int length) {
+        byte[] data = new byte[length];
+        int block = first;
+        int offset = 0;
+        while (offset < length) {
+            MappedByteBuffer segment = segments.get(block / blocksPerSegment);
+            int position = (block % blocksPerSegment) * BLOCK_SIZE;
+            int chunk = Math.min(BLOCK_DATA_SIZE, length - offset);
+            segment.get(position + NEXT_SIZE, data, offset, chunk);
+            offset += chunk;
+            block = segment.getInt(position);
+        }
+        return data;
+    }
+
+    //  first 부터 연결된 block 을 모두 free list 에 반납
+    public synchronized void free(int first) {
+        int block = first;
+        while (block != END) {
+            MappedByteBuffer segment = segments.get(block / blocksPerSegment);
+            int position = (block % blocksPerSegment) * BLOCK_SIZE;
+            int next = segment.getInt(position);
+            segment.putInt(position, freeHead);
+            freeHead = block;
+            freeBlocks++;
+            block = next;
+        }
+    }
+
+    public synchronized int usedBlocks() {
+        return highWaterMark - freeBlocks;
+    }
+
+    public synchronized long mappedBytes() {
+        return (long) segments.size() * blocksPerSegment * BLOCK_SIZE;
+    }
+
+    private int allocate() throws IOException {
+        if (freeHead != END) {
+            int block = freeHead;
+            freeHead = segments.get(block / blocksPerSegment).getInt((block % blocksPerSegment) * BLOCK_SIZE);
+            freeBlocks--;
+            return block;
+        }
+        if (highWaterMark % blocksPerSegment == 0) {
+            mapSegment();
+        }
+        return highWaterMark++;
+    }
+
+    private void mapSegment() throws IOException {
+        Path path = directory.resolve(SEGMENT_PREFIX + segments.size() + SEGMENT_SUFFIX);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw");
+             FileChannel channel = file.getChannel()) {
+            //  map 한 버퍼는 channel 을 닫아도 유효하다.
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) blocksPerSegment * BLOCK_SIZE));
+        }
+    }
+
+    private void deleteSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    //  map 한 버퍼는 GC 될 때 해제되므로 여기서는 참조만 끊고 파일을 지운다.
+    @Override
+    public synchronized void close() throws IOException {
+        segments.clear();
+        highWaterMark = 0;
+        freeHead = END;
+        freeBlocks = 0;
+        deleteSegments();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.session;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.Globals;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Manager;
+import org.apache.catalina.Session;
+import org.apache.catalina.session.StandardSession;
+import org.apache.catalina.session.StoreBase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PersistentManager 가 오래 사용하지 않은(idle) 세션을 내보내는(swap out) Store
+ *
+ * 세션을 직렬화해서 OffHeapBlockArena(memory-mapped 파일)에 저장하고, heap 에는 세션 id 와 위치, 만료 확인용 시간만 남긴다.
+ * 다음 요청에서 PersistentManager 가 load 로 다시 읽어서 heap 에 올린다.(swap in)
+ *
+ * StoreBase 의 만료 확인은 저장된 세션을 모두 역직렬화해서 확인하므로,
+ * expiredKeys 에서 heap 에 남겨둔 시간으로 만료된 세션만 골라서 넘겨준다.
+ */
+public class OffHeapSessionStore extends StoreBase {
+
+    private static final String STORE_NAME = "offHeapSessionStore";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile OffHeapBlockArena arena;
+
+    //  thisAccessedTime, maxInactiveInterval 은 저장할 때의 값 (swap out 된 세션은 접근되지 않으므로 바뀌지 않는다)
+    private record Entry(int firstBlock, int length, long thisAccessedTime, int maxInactiveInterval) {
+
+        boolean isExpired(long now) {
+            return maxInactiveInterval > 0 && now - thisAccessedTime >= TimeUnit.SECONDS.toMillis(maxInactiveInterval);
+        }
+    }
+
+    public OffHeapSessionStore(Path directory, int segmentSize, int maxSegments) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+    }
+
+    @Override
+    public String getStoreName() {
+        return STORE_NAME;
+    }
+
+    @Override
+    protected synchronized void startInternal() throws LifecycleException {
+        try {
+            arena = new OffHeapBlockArena(directory, segmentSize, maxSegments);
+        } catch (IOException e) {
+            throw new LifecycleException("off-heap 세션 저장소를 만들 수 없습니다. : " + directory, e);
+        }
+        super.startInternal();
+    }
+
+    @Override
+    protected synchronized void stopInternal() throws LifecycleException {
+        super.stopInternal();
+        entries.clear();
+        try {
+            arena.close();
+        } catch (IOException e) {
+            throw new LifecycleException("off-heap 세션 저장소를 닫을 수 없습니다.", e);
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return entries.size();
+    }
+
+    @Override
+    public String[] keys() {
+        return entries.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    protected String[] expiredKeys() {
+        long now = System.currentTimeMillis();
+        List<String> expired = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().isExpired(now)) {
+                expired.add(entry.getKey());
+            }
+        }
+        return expired.toArray(new String[0]);
+    }
+
+    @Override
+    public Session load(String id) throws ClassNotFoundException, IOException {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+
+        byte[] data;
+        //  읽는 동안 다른 스레드가 같은 세션을 지우고 block 을 다시 사용하지 않도록
+        synchronized (entry) {
+            if (entries.get(id) != entry) {
+                return null;
+            }
+            data = arena.read(entry.firstBlock(), entry.length());
+        }
+
+        Manager manager = getManager();
+        Context context = manager.getContext();
+        ClassLoader oldClassLoader = context.bind(Globals.IS_SECURITY_ENABLED, null);
+        try (ObjectInputStream in = getObjectInputStream(new ByteArrayInputStream(data))) {
+            StandardSession session = (StandardSession) manager.createEmptySession();
+            session.readObjectData(in);
+            session.setManager(manager);
+            return session;
+        } finally {
+            context.unbind(Globals.IS_SECURITY_ENABLED, oldClassLoader);
+        }
+    }
+
+    @Override
+    public void save(Session session) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            ((StandardSession) session).writeObjectData(out);
+        }
+        byte[] data = bytes.toByteArray();
+
+        Entry entry = new Entry(arena.write(data), data.length,
+                session.getThisAccessedTimeInternal(), session.getMaxInactiveInterval());
+        release(entries.put(session.getIdInternal(), entry));
+    }
+
+    @Override
+    public void remove(String id) {
+        release(entries.remove(id));
+    }
+
+    @Override
+    public void clear() {
+        for (String id : keys()) {
+            remove(id);
+        }
+    }
+
+    //  off-heap 사용량 (block 수 x block 크기)
+    public long usedBytes() {
+        return (long) arena.usedBlocks() * OffHeapBlockArena.BLOCK_SIZE;
+    }
+
+    private void release(Entry entry) {
+        if (entry != null) {
+            synchronized (entry) {
+                arena.free(entry.firstBlock());
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.warmup;
+
+import com.example.auth.JwtTokenUtil;
+import com.example.repository.UserStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 배포 직후 첫 요청들이 느린 문제(JIT 컴파일 전, Hibernate query plan / Thymeleaf template 캐시가 비어있음)를 줄이기 위한 warm-up
+ *
+ * ApplicationRunner 는 readiness 가 ACCEPTING_TRAFFIC 으로 바뀌기 전에 실행되므로 warm-up 이 끝난 뒤에 트래픽을 받는다.
+ * DB 에 저장하지 않는 fixture(존재하지 않는 loginId, 메모리에서 만든 BCrypt hash)만 사용한다.
+ *  - JWT, compact Token 발급 / 검증
+ *  - BCrypt 비밀번호 확인
+ *  - UserStore.findByLoginId (Hibernate query plan)
+ *  - HTTP 요청 : home, login, join 화면(Thymeleaf), Jwt Token 으로 /jwt-login/info (JwtTokenFilter -> 유저 조회)
+ * max-iterations 번 또는 time-budget-ms 동안 반복하고, 단계별로 첫 실행 시간과 마지막 구간의 p99 를 로그로 남긴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "warm-up.enabled", havingValue = "true")
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final String FIXTURE_LOGIN_ID = "__warm-up__";
+    private static final String FIXTURE_PASSWORD = "warm-up-password";
+    private static final String[] PAGES = {"/session-login", "/session-login/login", "/session-login/join"};
+
+    private final UserStore userStore;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final Environment environment;
+    private final String secretKey;
+    private final int maxIterations;
+    private final long timeBudgetMillis;
+    private final int bcryptIterations;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    public WarmUpRunner(UserStore userStore, BCryptPasswordEncoder passwordEncoder, Environment environment,
+                        @Value("${jwt.secret-key}") String secretKey,
+                        @Value("${warm-up.max-iterations}") int maxIterations,
+                        @Value("${warm-up.time-budget-ms}") long timeBudgetMillis,
+                        @Value("${warm-up.bcrypt-iterations}") int bcryptIterations) {
+        this.userStore = userStore;
+        this.passwordEncoder = passwordEncoder;
+        this.environment = environment;
+        this.secretKey = secretKey;
+        this.maxIterations = maxIterations;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.bcryptIterations = bcryptIterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        String passwordHash = passwordEncoder.encode(FIXTURE_PASSWORD);
+        String jwt = JwtTokenUtil.createToken(FIXTURE_LOGIN_ID, secretKey, TimeUnit.MINUTES.toMillis(1));
+
+        Map<String, long[]> latencies = new LinkedHashMap<>();
+        int iteration = 0;
+        try {
+            for (; iteration < maxIterations && System.nanoTime() < deadline; iteration++) {
+                int index = iteration;
+                measure(latencies, "jwt", index, () -> {
+                    JwtTokenUtil.verify(JwtTokenUtil.createToken(FIXTURE_LOGIN_ID, secretKey, 60_000), secretKey);
+                    JwtTokenUtil.verify(JwtTokenUtil.createCompactToken(FIXTURE_LOGIN_ID, secretKey, 60_000), secretKey);
+                });
+                //  BCrypt 는 한 번에 수십 ms 가 걸리므로 정해진 횟수만
+                if (iteration < bcryptIterations) {
+                    measure(latencies, "bcrypt", index, () -> passwordEncoder.matches(FIXTURE_PASSWORD, passwordHash));
+                }
+                measure(latencies, "findByLoginId", index, () -> userStore.findByLoginId(FIXTURE_LOGIN_ID));
+                if (port != null) {
+                    for (String page : PAGES) {
+                        measure(latencies, "GET " + page, index, () -> send(port, page, null));
+                    }
+                    measure(latencies, "GET /jwt-login/info", index, () -> send(port, "/jwt-login/info", jwt));
+                }
+            }
+        } catch (Exception e) {
+            //  warm-up 실패로 서버가 뜨지 않으면 안 되므로 로그만 남긴다.
+            log.warn("warm-up 중단 ({}회 실행)", iteration, e);
+        }
+
+        log.info("warm-up 완료 : {}회, {}ms", iteration, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        int finalIteration = iteration;
+        latencies.forEach((phase, samples) -> report(phase, samples, Math.min(finalIteration, phase.equals("bcrypt") ? bcryptIterations : finalIteration)));
+    }
+
+    private interface Phase {
+        void run() throws Exception;
+    }
+
+    private void measure(Map<String, long[]> latencies, String phase, int iteration, Phase body) throws Exception {
+        long start = System.nanoTime();
+        body.run();
+        latencies.computeIfAbsent(phase, key -> new long[maxIterations])[iteration] = System.nanoTime() - start;
+    }
+
+    //  응답 내용은 사용하지 않는다. (로그인 하지 않은 요청이므로 화면 또는 401 / 302)
+    private void send(int port, String path, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(5))
+                .GET();
+        if (token != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    //  첫 실행 시간과 마지막 10% 구간의 p99 비교
+    private static void report(String phase, long[] samples, int count) {
+        if (count == 0) {
+            return;
+        }
+        long[] tail = Arrays.copyOfRange(samples, count - Math.max(1, count / 10), count);
+        Arrays.sort(tail);
+        long p99 = tail[Math.min(tail.length - 1, (int) Math.ceil(tail.length * 0.99) - 1)];
+        log.info("warm-up {} : 첫 실행 {}us -> 마지막 {}회 p99 {}us", phase,
+                TimeUnit.NANOSECONDS.toMicros(samples[0]), tail.length, TimeUnit.NANOSECONDS.toMicros(p99));
+    }
+}
@@ -1,7 +1,15 @@
 package com.example.web.controller;
 
+import com.example.activeuser.ActiveUserTracker;
+import com.example.audit.AuditEventType;
+import com.example.audit.AuditLog;
+import com.example.auth.AuthResult;
 import com.example.domain.User;
-import com.example.domain.enums.UserRole;
+import com.example.domain.enums.LoginType;
+import com.example.domain.enums.Permission;
+import com.example.repository.UserSummary;
+import com.example.service.UserExportService;
+import com.example.service.UserLookupService;
 import com.example.service.UserService;
 import com.example.web.dto.userDTO.UserRequestDTO;
 import jakarta.servlet.http.Cookie;
@@ -14,6 +22,8 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 /**
  * 쿠키: 사용자가 웹사이트에 접속 시 사용자의 개인 장치에 다운로드되고, 브라우저에 저장되는 작은 텍스트 파일
  *
@@ -32,13 +42,19 @@ import org.springframework.web.bind.annotation.*;
 public class CookieLoginController {
 
     private final UserService userService;
+    private final UserLookupService userLookupService;
+    private final AuditLog auditLog;
+    private final UserExportService userExportService;
+    private final ActiveUserTracker activeUserTracker;
 
     @GetMapping(value = {"", "/"})
     public String home(@CookieValue(name = "userId", required = false) Long userId, Model model) {  //애노테이션의 required 속성을 true로 지정 시, value 속성의 이름을 가진 쿠키가 존재하지 않을 경우 예외 발생시킴.
         model.addAttribute("loginType", "cookie-login");
         model.addAttribute("pageName", "쿠키 로그인");
 
-        User loginUser = userService.getLoginUserById(userId);
+        UserSummary loginUser = userLookupService.getLoginUserSummaryById(userId);
+
+        recordActiveUser(loginUser);
 
         if (loginUser != null) {
             model.addAttribute("nickname", loginUser.getNickname());
@@ -76,6 +92,7 @@ public class CookieLoginController {
         }
 
         userService.join(joinRequest);
+        auditLog.publish(AuditEventType.JOIN, LoginType.COOKIE, joinRequest.getLoginId());
         return "redirect:/cookie-login";
     }
 
@@ -93,15 +110,18 @@ public class CookieLoginController {
         model.addAttribute("loginType", "cookie-login");
         model.addAttribute("pageName", "쿠키 로그인");
 
-        User user = userService.login(loginRequest);
+        AuthResult<User> loginResult = userService.login(loginRequest);
 
-        if (user == null) {
+        if (!loginResult.isFound()) {
             bindingResult.reject("loginFail", " 로그인 아이디 또는 비밀번호가 틀렸습니다.");
         }
 
         if (bindingResult.hasErrors()) {
+            auditLog.publish(AuditEventType.LOGIN_FAIL, LoginType.COOKIE, loginRequest.getLoginId());
             return "login";
         }
+        User user = loginResult.getUser();
+        auditLog.publish(AuditEventType.LOGIN_SUCCESS, LoginType.COOKIE, user.getLoginId());
 
         // 로그인 성공 -> 쿠키 생성
         Cookie cookie = new Cookie("userId", String.valueOf(user.getId()));
@@ -112,10 +132,16 @@ public class CookieLoginController {
     }
 
     @GetMapping(value = "/logout")
-    public String logout(HttpServletResponse response, Model model) {
+    public String logout(@CookieValue(name = "userId", required = false) Long userId, HttpServletResponse response, Model model) {
         model.addAttribute("loginType", "cookie-login");
         model.addAttribute("pageName", "쿠키 로그인");
 
+        //  감사 로그의 subject 는 다른 이벤트와 같이 loginId
+        UserSummary loginUser = userLookupService.getLoginUserSummaryById(userId);
+        if (loginUser != null) {
+            auditLog.publish(AuditEventType.LOGOUT, LoginType.COOKIE, loginUser.getLoginId());
+        }
+
         //쿠키 파기
         Cookie cookie = new Cookie("userId", null);
         cookie.setMaxAge(0);
@@ -129,7 +155,9 @@ public class CookieLoginController {
         model.addAttribute("loginType", "cookie-login");
         model.addAttribute("pageName", "쿠키 로그인");
 
-        User loginUser = userService.getLoginUserById(userId);  //  쿠키에 담긴 유저의 id를 통해 유저를 get
+        UserSummary loginUser = userLookupService.getLoginUserSummaryById(userId);  //  쿠키에 담긴 유저의 id를 통해 유저를 get
+
+        recordActiveUser(loginUser);
 
         if (loginUser == null) {
             return "redirect:/cookie-login/login";
@@ -140,19 +168,48 @@ public class CookieLoginController {
     }
 
     @GetMapping("/admin")
-    public String adminPage(@CookieValue(name = "userId", required = false) Long userId, Model model) {
+    public String adminPage(@CookieValue(name = "userId", required = false) Long userId,
+                            @RequestParam(required = false) String q,
+                            @RequestParam(required = false) Long cursor, Model model) {
         model.addAttribute("loginType", "cookie-login");
         model.addAttribute("pageName", "쿠키 로그인");
 
-        User loginUser = userService.getLoginUserById(userId);
+        UserSummary loginUser = userLookupService.getLoginUserSummaryById(userId);
+
+        recordActiveUser(loginUser);
 
         if (loginUser == null) {
             return "redirect:/cookie-login/login";
         }
 
-        if (!loginUser.getRole().equals(UserRole.ADMIN)) {
+        if (!loginUser.getRole().has(Permission.ACCESS_ADMIN)) {
             return "redirect:/cookie-login";
         }
+
+        model.addAttribute("q", q);
+        model.addAttribute("userPage", userService.searchUsers(q, cursor, 20));
         return "admin";
     }
+
+    @GetMapping("/admin/users/export")
+    public void exportUsers(@CookieValue(name = "userId", required = false) Long userId,
+                            @RequestParam(defaultValue = "NDJSON") UserExportService.Format format,
+                            HttpServletResponse response) throws IOException {
+        UserSummary loginUser = userLookupService.getLoginUserSummaryById(userId);
+        recordActiveUser(loginUser);
+
+        if (loginUser == null || !loginUser.getRole().has(Permission.EXPORT_USERS)) {
+            response.sendRedirect("/cookie-login");
+            return;
+        }
+
+        userExportService.export(response, format);
+    }
+
+    //  활성 유저 수 집계 (로그인 하지 않은 요청은 제외)
+    private void recordActiveUser(UserSummary loginUser) {
+        if (loginUser != null) {
+            activeUserTracker.record(LoginType.COOKIE, loginUser.getLoginId());
+        }
+    }
 }
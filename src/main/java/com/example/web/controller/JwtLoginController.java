@@ -1,19 +1,64 @@
 package com.example.web.controller;
 
+import com.example.activeuser.ActiveUserTracker;
+import com.example.activeuser.ActiveUserWindow;
+import com.example.audit.AuditEventType;
+import com.example.audit.AuditLog;
+import com.example.auth.AuthResult;
 import com.example.auth.JwtTokenUtil;
+import com.example.auth.RequirePermission;
+import com.example.converter.ActiveUserConverter;
+import com.example.converter.BulkheadConverter;
+import com.example.converter.SqlProfileConverter;
 import com.example.domain.User;
+import com.example.domain.enums.LoginType;
+import com.example.domain.enums.Permission;
+import com.example.domain.enums.UserRole;
+import com.example.jdbc.SqlProfiler;
+import com.example.limit.BulkheadFilter;
+import com.example.repository.UserSummary;
+import com.example.service.TokenIntrospectionService;
+import com.example.service.UserExportService;
+import com.example.service.UserLookupService;
 import com.example.service.UserService;
+import com.example.web.dto.activeUserDTO.ActiveUserResponseDTO;
+import com.example.web.dto.bulkheadDTO.BulkheadResponseDTO;
+import com.example.web.dto.sqlDTO.SqlProfileResponseDTO;
+import com.example.web.dto.tokenDTO.TokenRequestDTO;
+import com.example.web.dto.tokenDTO.TokenResponseDTO;
 import com.example.web.dto.userDTO.UserRequestDTO;
+import com.example.web.dto.userDTO.UserResponseDTO;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/jwt-login")
 public class JwtLoginController {
 
     private final UserService userService;
+    private final UserLookupService userLookupService;
+    private final AuditLog auditLog;
+    private final UserExportService userExportService;
+    private final TokenIntrospectionService tokenIntrospectionService;
+    private final ObjectProvider<SqlProfiler> sqlProfiler;
+    private final ActiveUserTracker activeUserTracker;
+    private final BulkheadFilter bulkheadFilter;
+
+    @Value("${jwt.secret-key}")
+    private String secretKey;
+
+    @Value("${jwt.expire-time-ms}")
+    private long expireTimeMs;     // Token 유효 시간
+
+    @Value("${jwt.compact-format}")
+    private boolean compactFormat; // true 이면 compact 형식으로 발급
 
     @PostMapping("/join")
     public String join(@RequestBody UserRequestDTO.JoinRequestDTO joinRequest) {
@@ -32,31 +77,41 @@ public class JwtLoginController {
         }
 
         userService.join2(joinRequest);
+        auditLog.publish(AuditEventType.JOIN, LoginType.JWT, joinRequest.getLoginId());
         return "회원가입 성공";
     }
     @PostMapping("/login")
     public String login(@RequestBody UserRequestDTO.LoginRequestDTO loginRequest) {
 
-        User user = userService.login(loginRequest);
+        AuthResult<User> loginResult = userService.login(loginRequest);
 
         // 로그인 아이디나 비밀번호가 틀린 경우 global error return
-        if(user == null) {
+        if(!loginResult.isFound()) {
+            auditLog.publish(AuditEventType.LOGIN_FAIL, LoginType.JWT, loginRequest.getLoginId());
             return"로그인 아이디 또는 비밀번호가 틀렸습니다.";
         }
+        User user = loginResult.getUser();
+        auditLog.publish(AuditEventType.LOGIN_SUCCESS, LoginType.JWT, user.getLoginId());
 
-        // 로그인 성공 => Jwt Token 발급
-
-        String secretKey = "my-secret-key-123123";
-        long expireTimeMs = 1000 * 60 * 60;     // Token 유효 시간 = 60분
-
-        String jwtToken = JwtTokenUtil.createToken(user.getLoginId(), secretKey, expireTimeMs);
+        // 로그인 성공 => Jwt Token 발급 (role 의 권한 bitmask 를 perm claim 으로 포함)
+        String jwtToken = JwtTokenUtil.createToken(user.getLoginId(), UserRole.permissionsOf(user.getRole()),
+                secretKey, expireTimeMs, compactFormat);
 
         return jwtToken;
     }
 
+    //  여러 개의 Token을 한 번에 검증 (API Gateway 등에서 사용)
+    //  DB 조회 없이 서명, 만료 시간만 확인해서 Token 마다 active / expired / invalid 를 return
+    //  INTROSPECT_TOKENS 권한이 있는 Token 으로만 호출 가능 (SecurityConfig)
+    @PostMapping("/introspect")
+    @RequirePermission(Permission.INTROSPECT_TOKENS)
+    public TokenResponseDTO.IntrospectResponseDTO introspect(@RequestBody TokenRequestDTO.IntrospectRequestDTO introspectRequest) {
+        return tokenIntrospectionService.introspect(introspectRequest.getTokens());
+    }
+
     @GetMapping("/info")
     public String userInfo(Authentication auth) {
-        User loginUser = userService.getLoginUserByLoginId(auth.getName());
+        UserSummary loginUser = userLookupService.getLoginUserSummaryByLoginId(auth.getName());
 
         return String.format("loginId : %s\nnickname : %s\nrole : %s",
                 loginUser.getLoginId(), loginUser.getNickname(), loginUser.getRole().name());
@@ -66,4 +121,52 @@ public class JwtLoginController {
     public String adminPage() {
         return "관리자 페이지 접근 성공";
     }
+
+    @GetMapping("/admin/users")
+    public UserResponseDTO.UserPageDTO userList(@RequestParam(required = false) Long cursor,
+                                                @RequestParam(defaultValue = "20") int size) {
+        return userService.getUserPage(cursor, size);
+    }
+
+    @GetMapping("/admin/users/search")
+    public UserResponseDTO.UserPageDTO searchUsers(@RequestParam String q,
+                                                   @RequestParam(required = false) Long cursor,
+                                                   @RequestParam(defaultValue = "20") int size) {
+        return userService.searchUsers(q, cursor, size);
+    }
+
+    @GetMapping("/admin/users/export")
+    @RequirePermission(Permission.EXPORT_USERS)
+    public void exportUsers(@RequestParam(defaultValue = "NDJSON") UserExportService.Format format,
+                            HttpServletResponse response) throws IOException {
+        userExportService.export(response, format);
+    }
+
+    //  SQL 형태 / 서비스 메서드 / route 별 실행 통계 (총 실행 시간이 긴 순서로 limit 개)
+    @GetMapping("/admin/sql-profile")
+    @RequirePermission(Permission.VIEW_METRICS)
+    public SqlProfileResponseDTO.SqlProfileDTO sqlProfile(@RequestParam(defaultValue = "50") int limit) {
+        return SqlProfileConverter.toSqlProfileDTO(sqlProfiler.getIfAvailable(), limit);
+    }
+
+    //  로그인 방식별 최근 1분 / 1시간 / 24시간 활성 유저 수 (HyperLogLog 추정값)
+    @GetMapping("/admin/active-users")
+    @RequirePermission(Permission.VIEW_METRICS)
+    public ActiveUserResponseDTO.ActiveUserDTO activeUsers() {
+        return ActiveUserConverter.toActiveUserDTO(activeUserTracker);
+    }
+
+    //  여러 서버의 활성 유저 수를 합칠 때 사용하는 sketch (서버별 sketch 를 HyperLogLog.merge 하면 중복 없이 합쳐진다)
+    @GetMapping("/admin/active-users/sketches")
+    @RequirePermission(Permission.VIEW_METRICS)
+    public ActiveUserResponseDTO.SketchDTO activeUserSketches(@RequestParam(defaultValue = "HOUR") ActiveUserWindow window) {
+        return ActiveUserConverter.toSketchDTO(activeUserTracker, window);
+    }
+
+    //  로그인 방식별 bulkhead 사용량 (saturation 이 1 에 가깝거나 rejected 가 늘어나면 해당 방식의 max-concurrent 가 부족)
+    @GetMapping("/admin/bulkheads")
+    @RequirePermission(Permission.VIEW_METRICS)
+    public BulkheadResponseDTO.BulkheadListDTO bulkheads() {
+        return BulkheadConverter.toBulkheadListDTO(bulkheadFilter.getBulkheads());
+    }
 }
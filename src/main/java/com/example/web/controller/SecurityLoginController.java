@@ -1,11 +1,22 @@
 package com.example.web.controller;
 
-import com.example.domain.User;
+import com.example.activeuser.ActiveUserTracker;
+import com.example.audit.AuditEventType;
+import com.example.audit.AuditLog;
+import com.example.auth.PrincipalDetails;
+import com.example.auth.RequirePermission;
+import com.example.domain.enums.LoginType;
+import com.example.domain.enums.Permission;
+import com.example.repository.UserSummary;
+import com.example.service.UserExportService;
+import com.example.service.UserLookupService;
 import com.example.service.UserService;
 import com.example.web.dto.userDTO.UserRequestDTO;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -14,6 +25,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
 
 
 /**
@@ -27,14 +41,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 public class SecurityLoginController {
 
     private final UserService userService;
+    private final UserLookupService userLookupService;
+    private final AuditLog auditLog;
+    private final UserExportService userExportService;
+    private final ActiveUserTracker activeUserTracker;
 
     @GetMapping(value = {"", "/"})
     public String home(Model model, Authentication auth) {
         model.addAttribute("loginType", "security-login");
         model.addAttribute("pageName", "security 로그인");
+        recordActiveUser(auth);
 
         if (auth != null) {
-            User loginUser = userService.getLoginUserByLoginId(auth.getName());
+            UserSummary loginUser = userLookupService.getLoginUserSummaryByLoginId(auth.getName());
             if (loginUser != null) {
                 model.addAttribute("nickname", loginUser.getNickname());
             }
@@ -75,6 +94,7 @@ public class SecurityLoginController {
         }
 
         userService.join2(joinRequest);
+        auditLog.publish(AuditEventType.JOIN, LoginType.SECURITY, joinRequest.getLoginId());
 
         return "redirect:/security-login";
     }
@@ -93,8 +113,9 @@ public class SecurityLoginController {
     public String userInfo(Model model, Authentication auth) {
         model.addAttribute("loginType", "security-login");
         model.addAttribute("pageName", "security 로그인");
+        recordActiveUser(auth);
 
-        User loginUser = userService.getLoginUserByLoginId(auth.getName());
+        UserSummary loginUser = userLookupService.getLoginUserSummaryByLoginId(auth.getName());
 
         if (loginUser == null) {
             return "redirect:/security-login/login";
@@ -105,10 +126,33 @@ public class SecurityLoginController {
     }
 
     @GetMapping("/admin")
-    public String adminPage(Model model) {
+    public String adminPage(@RequestParam(required = false) String q,
+                            @RequestParam(required = false) Long cursor, Model model, Authentication auth) {
         model.addAttribute("loginType", "security-login");
         model.addAttribute("pageName", "security 로그인");
+        recordActiveUser(auth);
 
+        model.addAttribute("q", q);
+        model.addAttribute("userPage", userService.searchUsers(q, cursor, 20));
         return "admin";
     }
+
+    //  /security-login/admin/** 은 SecurityConfig 에서 ACCESS_ADMIN 권한 체크, export 는 EXPORT_USERS 권한도 필요
+    @GetMapping("/admin/users/export")
+    @RequirePermission(Permission.EXPORT_USERS)
+    public void exportUsers(@RequestParam(defaultValue = "NDJSON") UserExportService.Format format,
+                            HttpServletResponse response, Authentication auth) throws IOException {
+        recordActiveUser(auth);
+        userExportService.export(response, format);
+    }
+
+    //  활성 유저 수 집계 (OAuth2 로그인 유저는 auth.getName() 이 null 이므로 PrincipalDetails 의 loginId 사용)
+    private void recordActiveUser(Authentication auth) {
+        if (auth == null) {
+            return;
+        }
+        LoginType loginType = auth instanceof OAuth2AuthenticationToken ? LoginType.OAUTH2 : LoginType.SECURITY;
+        String loginId = auth.getPrincipal() instanceof PrincipalDetails principal ? principal.getUsername() : auth.getName();
+        activeUserTracker.record(loginType, loginId);
+    }
 }
@@ -1,10 +1,19 @@
 package com.example.web.controller;
 
+import com.example.activeuser.ActiveUserTracker;
+import com.example.audit.AuditEventType;
+import com.example.audit.AuditLog;
+import com.example.auth.AuthResult;
 import com.example.domain.User;
-import com.example.domain.enums.UserRole;
+import com.example.domain.enums.LoginType;
+import com.example.domain.enums.Permission;
+import com.example.repository.UserSummary;
+import com.example.service.UserExportService;
+import com.example.service.UserLookupService;
 import com.example.service.UserService;
 import com.example.web.dto.userDTO.UserRequestDTO;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +23,8 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.FieldError;
 
+import java.io.IOException;
+
 /**
  *  세션: 일정 시간동안 같은 사용자로부터 들어오는 일련의 요구를 하나의 상태로 보고 그 상태를 일정하게 유지시키는 기술.
  *       쿠키와 달리 사용자의 정보를 사용자의 메모리가 아닌 서버측에 저장한다.
@@ -32,13 +43,19 @@ import org.springframework.validation.FieldError;
 public class SessionLoginController {
 
     private final UserService userService;
+    private final UserLookupService userLookupService;
+    private final AuditLog auditLog;
+    private final UserExportService userExportService;
+    private final ActiveUserTracker activeUserTracker;
 
     @GetMapping(value = {"", "/"})
     public String home(Model model, @SessionAttribute(name = "userId", required = false) Long userId) {
         model.addAttribute("loginType", "session-login");
         model.addAttribute("pageName", "세션 로그인");
 
-        User loginUser = userService.getLoginUserById(userId);
+        UserSummary loginUser = userLookupService.getLoginUserSummaryById(userId);
+
+        recordActiveUser(loginUser);
 
         if (loginUser != null) {
             model.addAttribute("nickname", loginUser.getNickname());
@@ -80,6 +97,7 @@ public class SessionLoginController {
         }
 
         userService.join(joinRequest);
+        auditLog.publish(AuditEventType.JOIN, LoginType.SESSION, joinRequest.getLoginId());
         return "redirect:/session-login";
     }
 
@@ -98,16 +116,19 @@ public class SessionLoginController {
         model.addAttribute("loginType", "session-login");
         model.addAttribute("pageName", "세션 로그인");
 
-        User user = userService.login(loginRequest);
+        AuthResult<User> loginResult = userService.login(loginRequest);
 
         // 로그인 아이디나 비밀번호가 틀린 경우 global error return
-        if (user == null) {
+        if (!loginResult.isFound()) {
             bindingResult.reject("loginFail", "로그인 아이디 또는 비밀번호가 틀렸습니다.");
         }
 
         if (bindingResult.hasErrors()) {
+            auditLog.publish(AuditEventType.LOGIN_FAIL, LoginType.SESSION, loginRequest.getLoginId());
             return "login";
         }
+        User user = loginResult.getUser();
+        auditLog.publish(AuditEventType.LOGIN_SUCCESS, LoginType.SESSION, user.getLoginId());
 
         // 로그인 성공 => 세션 생성
 
@@ -128,6 +149,11 @@ public class SessionLoginController {
 
         HttpSession session = request.getSession(false);    //session이 이미 만료되어 없으면 false 리턴
         if (session != null) {  // session이 존재할 경우 로그아웃을 해야하니까 기존의 session을 파기한다.
+            //  감사 로그의 subject 는 다른 이벤트와 같이 loginId
+            UserSummary loginUser = userLookupService.getLoginUserSummaryById((Long) session.getAttribute("userId"));
+            if (loginUser != null) {
+                auditLog.publish(AuditEventType.LOGOUT, LoginType.SESSION, loginUser.getLoginId());
+            }
             session.invalidate();
         }
 
@@ -139,7 +165,9 @@ public class SessionLoginController {
         model.addAttribute("loginType", "session-login");
         model.addAttribute("pageName", "세션 로그인");
 
-        User loginUser = userService.getLoginUserById(userId);
+        UserSummary loginUser = userLookupService.getLoginUserSummaryById(userId);
+
+        recordActiveUser(loginUser);
 
         if(loginUser == null) {
             return "redirect:/session-login/login";
@@ -150,20 +178,48 @@ public class SessionLoginController {
     }
 
     @GetMapping("/admin")
-    public String adminPage(@SessionAttribute(name = "userId", required = false) Long userId, Model model) {
+    public String adminPage(@SessionAttribute(name = "userId", required = false) Long userId,
+                            @RequestParam(required = false) String q,
+                            @RequestParam(required = false) Long cursor, Model model) {
         model.addAttribute("loginType", "session-login");
         model.addAttribute("pageName", "세션 로그인");
 
-        User loginUser = userService.getLoginUserById(userId);
+        UserSummary loginUser = userLookupService.getLoginUserSummaryById(userId);
+
+        recordActiveUser(loginUser);
 
         if(loginUser == null) {
             return "redirect:/session-login/login";
         }
 
-        if(!loginUser.getRole().equals(UserRole.ADMIN)) {
+        if(!loginUser.getRole().has(Permission.ACCESS_ADMIN)) {
             return "redirect:/session-login";
         }
 
+        model.addAttribute("q", q);
+        model.addAttribute("userPage", userService.searchUsers(q, cursor, 20));
         return "admin";
     }
+
+    @GetMapping("/admin/users/export")
+    public void exportUsers(@SessionAttribute(name = "userId", required = false) Long userId,
+                            @RequestParam(defaultValue = "NDJSON") UserExportService.Format format,
+                            HttpServletResponse response) throws IOException {
+        UserSummary loginUser = userLookupService.getLoginUserSummaryById(userId);
+        recordActiveUser(loginUser);
+
+        if(loginUser == null || !loginUser.getRole().has(Permission.EXPORT_USERS)) {
+            response.sendRedirect("/session-login");
+            return;
+        }
+
+        userExportService.export(response, format);
+    }
+
+    //  활성 유저 수 집계 (로그인 하지 않은 요청은 제외)
+    private void recordActiveUser(UserSummary loginUser) {
+        if (loginUser != null) {
+            activeUserTracker.record(LoginType.SESSION, loginUser.getLoginId());
+        }
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.web.dto.activeUserDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+public class ActiveUserResponseDTO {
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class ActiveUserDTO {
+        //  HyperLogLog 추정값이므로 약 1.6% 의 오차가 있다.
+        private Map<String, Long> minute;   // 최근 1분
+        private Map<String, Long> hour;     // 최근 1시간
+        private Map<String, Long> day;      // 최근 24시간
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class SketchDTO {
+        private String window;
+        private int precision;
+        //  로그인 방식별 HyperLogLog.toBytes() 의 base64 (다른 서버의 sketch 와 merge 용)
+        private Map<String, String> sketches;
+    }
+}
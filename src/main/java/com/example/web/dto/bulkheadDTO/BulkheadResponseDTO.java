@@ -0,0 +1,31 @@
+package com.example.web.dto.bulkheadDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+public class BulkheadResponseDTO {
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class BulkheadStatusDTO {
+        private String name;            // 로그인 방식
+        private int maxConcurrent;
+        private int inFlight;           // 지금 처리 중인 요청 수
+        private int peakInFlight;       // 서버 시작 이후 최대 동시 처리 수
+        private double saturation;      // inFlight / maxConcurrent (1 이면 가득 참)
+        private long accepted;
+        private long rejected;          // 가득 차서 503 으로 거절한 수
+        private double rejectRate;      // rejected / (accepted + rejected)
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class BulkheadListDTO {
+        private List<BulkheadStatusDTO> bulkheads;
+    }
+}
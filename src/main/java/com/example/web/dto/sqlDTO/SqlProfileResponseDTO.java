@@ -0,0 +1,39 @@
+package com.example.web.dto.sqlDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+public class SqlProfileResponseDTO {
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class StatementDTO {
+        private String sql;         // 값을 ? 로 바꾼 SQL 형태
+        private String caller;      // 서비스 메서드 (없으면 -)
+        private String route;       // HTTP method + URI (없으면 -)
+        private long calls;
+        private long errors;
+        private long rows;
+        private long totalMillis;
+        private long avgMicros;
+        //  아래 백분위는 log2 histogram bucket 의 상한 (us)
+        private long p50Micros;
+        private long p99Micros;
+        private long maxMicros;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class SqlProfileDTO {
+        private boolean enabled;
+        private long slowThresholdMillis;
+        private long droppedSlowStatements;     // slow 로그 queue 가 가득 차서 버린 수
+        //  총 실행 시간이 긴 순서
+        private List<StatementDTO> statements;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.web.dto.tokenDTO;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+public class TokenRequestDTO {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class IntrospectRequestDTO {
+        private List<String> tokens;
+    }
+}
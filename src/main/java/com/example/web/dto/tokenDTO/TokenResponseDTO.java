@@ -0,0 +1,34 @@
+package com.example.web.dto.tokenDTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+public class TokenResponseDTO {
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class TokenStatusDTO {
+        private String status;      // active, expired, invalid
+        private boolean active;
+
+        //  invalid 인 경우 아래 claim 들은 null
+        private String loginId;
+        private Long issuedAt;      // epoch seconds
+        private Long expiresAt;     // epoch seconds
+        private Long permissions;   // 권한 bitmask (perm claim 이 없는 이전 Token 이면 null)
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class IntrospectResponseDTO {
+        //  요청한 tokens 와 같은 순서
+        private List<TokenStatusDTO> results;
+    }
+}
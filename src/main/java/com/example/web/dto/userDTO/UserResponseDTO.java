@@ -0,0 +1,32 @@
+package com.example.web.dto.userDTO;
+
+import com.example.domain.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+public class UserResponseDTO {
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class UserInfoDTO {
+        private long id;
+        private String loginId;
+        private String nickname;
+        private UserRole role;
+        private String provider;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class UserPageDTO {
+        private List<UserInfoDTO> users;
+
+        // 다음 페이지 조회 시 넘겨줄 cursor (마지막 페이지면 null)
+        private Long nextCursor;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.activeuser;
+
+import com.example.domain.enums.LoginType;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActiveUserTrackerTest {
+
+    @Test
+    void 십만명의_추정값은_오차_5퍼센트_이내() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) {
+            sketch.offer(HyperLogLog.hash("user" + i));
+            sketch.offer(HyperLogLog.hash("user" + i));     //  같은 유저는 한 번만 센다
+        }
+
+        assertThat(sketch.estimate()).isBetween(95_000L, 105_000L);
+    }
+
+    @Test
+    void 적은_수는_거의_정확하다() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 100; i++) {
+            sketch.offer(HyperLogLog.hash("user" + i));
+        }
+
+        assertThat(sketch.estimate()).isBetween(98L, 102L);
+    }
+
+    @Test
+    void 직렬화한_sketch_를_합치면_중복없이_센다() {
+        //  두 서버가 유저 절반씩 겹치게 받은 경우
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 20_000; i++) {
+            first.offer(HyperLogLog.hash("user" + i));
+            second.offer(HyperLogLog.hash("user" + (i + 10_000)));
+        }
+
+        HyperLogLog merged = HyperLogLog.fromBytes(first.toBytes());
+        merged.merge(HyperLogLog.fromBytes(second.toBytes()));
+
+        assertThat(HyperLogLog.fromBytes(first.toBytes()).estimate()).isEqualTo(first.estimate());
+        assertThat(merged.estimate()).isBetween(28_500L, 31_500L);
+    }
+
+    @Test
+    void 기간이_지난_유저는_빠진다() {
+        AtomicLong now = new AtomicLong(1_000_000_000L);
+        ActiveUserTracker tracker = new ActiveUserTracker(now::get);
+
+        tracker.record(LoginType.JWT, "user1");
+        tracker.record(LoginType.SESSION, "user1");
+        tracker.record(LoginType.SESSION, "user2");
+
+        assertThat(tracker.sketch(LoginType.SESSION, ActiveUserWindow.MINUTE).estimate()).isEqualTo(2L);
+        //  여러 방식으로 로그인한 유저는 한 번만 센다
+        assertThat(tracker.sketch(ActiveUserWindow.MINUTE).estimate()).isEqualTo(2L);
+
+        now.addAndGet(2 * 60 * 1000L);
+        tracker.record(LoginType.COOKIE, "user3");
+
+        assertThat(tracker.sketch(ActiveUserWindow.MINUTE).estimate()).isEqualTo(1L);
+        assertThat(tracker.sketch(ActiveUserWindow.HOUR).estimate()).isEqualTo(3L);
+        assertThat(tracker.sketch(ActiveUserWindow.DAY).estimate()).isEqualTo(3L);
+
+        now.addAndGet(25 * 60 * 60 * 1000L);
+        assertThat(tracker.sketch(ActiveUserWindow.DAY).estimate()).isEqualTo(0L);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.audit;
+
+import com.example.domain.enums.LoginType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void 쓰지_못한_레코드는_버린_것으로_세고_다음_레코드는_계속_쓴다() throws Exception {
+        AuditLog auditLog = new AuditLog(directory.toString(), 4096, 16);
+        auditLog.start();
+
+        //  로그인 방식이 없으면 code 를 구하지 못해 RuntimeException
+        auditLog.publish(AuditEventType.LOGIN_SUCCESS, null, "broken");
+        auditLog.publish(AuditEventType.LOGIN_SUCCESS, LoginType.JWT, "user1");
+        auditLog.stop();
+
+        assertThat(auditLog.getDroppedCount()).isEqualTo(1);
+        List<AuditRecord> records = new ArrayList<>();
+        AuditLogReader.read(directory, record -> true, records::add);
+        assertThat(records).extracting(AuditRecord::getSubject).containsExactly("user1");
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.audit;
+
+import com.example.domain.enums.LoginType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    void 가득_차면_버리고_읽은_만큼_다시_받는다() {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ringBuffer.tryPublish(i, AuditEventType.LOGIN_SUCCESS, LoginType.JWT, "user" + i)).isTrue();
+        }
+
+        assertThat(ringBuffer.tryPublish(4, AuditEventType.LOGIN_FAIL, LoginType.JWT, "user4")).isFalse();
+        assertThat(ringBuffer.getDroppedCount()).isEqualTo(1);
+
+        List<String> subjects = new ArrayList<>();
+        assertThat(ringBuffer.drain((timestamp, type, loginType, subject) -> subjects.add(subject), 2)).isEqualTo(2);
+
+        //  읽은 2개 만큼 slot 이 비었다.
+        assertThat(ringBuffer.tryPublish(5, AuditEventType.LOGOUT, LoginType.COOKIE, "user5")).isTrue();
+        assertThat(ringBuffer.tryPublish(6, AuditEventType.LOGOUT, LoginType.SESSION, "user6")).isTrue();
+        assertThat(ringBuffer.tryPublish(7, AuditEventType.LOGOUT, LoginType.SESSION, "user7")).isFalse();
+        assertThat(ringBuffer.getDroppedCount()).isEqualTo(2);
+
+        List<AuditRecord> records = new ArrayList<>();
+        ringBuffer.drain((timestamp, type, loginType, subject) -> records.add(new AuditRecord(timestamp, type, loginType, subject)), 100);
+
+        //  버려진 이벤트를 제외하고 publish 순서대로 읽는다.
+        assertThat(subjects).containsExactly("user0", "user1");
+        assertThat(records).extracting(AuditRecord::getSubject).containsExactly("user2", "user3", "user5", "user6");
+        assertThat(records.get(2).getType()).isEqualTo(AuditEventType.LOGOUT);
+        assertThat(records.get(2).getLoginType()).isEqualTo(LoginType.COOKIE);
+    }
+
+    @Test
+    void 여러_producer_가_동시에_publish_해도_이벤트를_잃지_않는다() throws InterruptedException {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(64);
+        int producers = 4;
+        int eventsPerProducer = 20_000;
+        CountDownLatch done = new CountDownLatch(producers);
+        AtomicLong accepted = new AtomicLong();
+
+        for (int p = 0; p < producers; p++) {
+            String subject = "producer" + p;
+            new Thread(() -> {
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    if (ringBuffer.tryPublish(i, AuditEventType.LOGIN_SUCCESS, LoginType.JWT, subject)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+
+        long consumed = 0;
+        long[] lastTimestamp = new long[producers];
+        Arrays.fill(lastTimestamp, -1);
+        while (done.getCount() > 0 || consumed < accepted.get()) {
+            consumed += ringBuffer.drain((timestamp, type, loginType, subject) -> {
+                //  producer 하나가 publish 한 이벤트는 순서대로 읽힌다.
+                int producer = subject.charAt(subject.length() - 1) - '0';
+                assertThat(timestamp).isGreaterThan(lastTimestamp[producer]);
+                lastTimestamp[producer] = timestamp;
+            }, 1024);
+        }
+
+        assertThat(consumed).isEqualTo(accepted.get());
+        assertThat(accepted.get() + ringBuffer.getDroppedCount()).isEqualTo((long) producers * eventsPerProducer);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.audit;
+
+import com.example.domain.enums.LoginType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditSegmentWriterTest {
+
+    //  subject 5 byte 레코드(19 byte) 3개가 들어가고 4번째에서 다음 segment 로 넘어가는 크기
+    private static final int SEGMENT_SIZE = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void 공간이_부족하면_다음_segment_에_이어서_쓴다() throws IOException {
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 7; i++) {
+                writer.append(1_000L + i, AuditEventType.LOGIN_SUCCESS, LoginType.JWT, "user" + i);
+            }
+        }
+
+        assertThat(segments()).containsExactly(
+                AuditSegmentWriter.segmentFileName(1), AuditSegmentWriter.segmentFileName(2), AuditSegmentWriter.segmentFileName(3));
+        assertThat(readAll()).extracting(AuditRecord::getSubject)
+                .containsExactly("user0", "user1", "user2", "user3", "user4", "user5", "user6");
+    }
+
+    @Test
+    void 다시_열면_기존_segment_를_두고_다음_번호부터_쓴다() throws IOException {
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, SEGMENT_SIZE)) {
+            writer.append(1L, AuditEventType.JOIN, LoginType.COOKIE, "user1");
+        }
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, SEGMENT_SIZE)) {
+            writer.append(2L, AuditEventType.LOGOUT, LoginType.SESSION, "user1");
+        }
+
+        assertThat(segments()).hasSize(2);
+        List<AuditRecord> records = readAll();
+        assertThat(records).extracting(AuditRecord::getType).containsExactly(AuditEventType.JOIN, AuditEventType.LOGOUT);
+        assertThat(records).extracting(AuditRecord::getLoginType).containsExactly(LoginType.COOKIE, LoginType.SESSION);
+    }
+
+    @Test
+    void enum_순서가_아닌_고정_code_를_저장한다() throws IOException {
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, SEGMENT_SIZE)) {
+            writer.append(1L, AuditEventType.OAUTH_JOIN, LoginType.OAUTH2, "user1");
+        }
+
+        ByteBuffer segment = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(AuditSegmentWriter.segmentFileName(1))));
+        //  short 길이, long timestamp 다음이 이벤트 code, 로그인 방식 code
+        assertThat(segment.get(10)).isEqualTo((byte) 4);
+        assertThat(segment.get(11)).isEqualTo((byte) 4);
+        assertThat(AuditEventType.fromCode((byte) 4)).isEqualTo(AuditEventType.OAUTH_JOIN);
+        assertThat(LoginType.fromCode((byte) 4)).isEqualTo(LoginType.OAUTH2);
+    }
+
+    @Test
+    void 모르는_code_의_레코드는_건너뛴다() throws IOException {
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, SEGMENT_SIZE)) {
+            writer.append(1L, AuditEventType.LOGIN_FAIL, LoginType.JWT, "user1");
+            writer.append(2L, AuditEventType.LOGIN_SUCCESS, LoginType.JWT, "user2");
+        }
+
+        //  첫 레코드의 이벤트 code 를 이 버전이 모르는 값으로 바꾼다. (새 버전이 쓴 레코드)
+        Path segment = directory.resolve(AuditSegmentWriter.segmentFileName(1));
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[10] = 99;
+        Files.write(segment, bytes);
+
+        assertThat(readAll()).extracting(AuditRecord::getSubject).containsExactly("user2");
+    }
+
+    @Test
+    void 긴_subject_는_UTF_8_문자_중간에서_자르지_않는다() throws IOException {
+        //  3 byte 문자 400개 (1200 byte) => 1024 byte 에서 자르면 342번째 문자가 잘리므로 341개만 남긴다.
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 4096)) {
+            writer.append(1L, AuditEventType.JOIN, LoginType.SESSION, "가".repeat(400));
+        }
+
+        assertThat(readAll()).extracting(AuditRecord::getSubject).containsExactly("가".repeat(341));
+        assertThat(AuditSegmentWriter.truncatedLength("a가".getBytes(StandardCharsets.UTF_8), 2)).isEqualTo(1);
+        assertThat(AuditSegmentWriter.truncatedLength("ab".getBytes(StandardCharsets.UTF_8), 4)).isEqualTo(2);
+    }
+
+    private List<String> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private List<AuditRecord> readAll() throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        AuditLogReader.read(directory, record -> true, records::add);
+        return records;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.auth;
+
+import com.example.domain.enums.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenRenewerTest {
+
+    private static final String SECRET_KEY = "test-secret-key";
+    private static final long EXPIRE_TIME_MS = TimeUnit.HOURS.toMillis(1);
+    private static final long RENEWAL_WINDOW_MS = TimeUnit.MINUTES.toMillis(15);
+
+    private static final long USER_PERMISSIONS = UserRole.USER.getPermissions();
+
+    @Test
+    void 만료까지_여유가_있는_Token_은_연장하지_않는다() {
+        JwtTokenRenewer renewer = renewer(10);
+
+        assertThat(renewer.renewIfNeeded("a.b.first", verification("user1", TimeUnit.MINUTES.toMillis(30)), USER_PERMISSIONS)).isNull();
+        assertThat(renewer.trackedTokens()).isEqualTo(0);
+    }
+
+    @Test
+    void 같은_Token_으로_다시_요청하면_처음_연장한_Token_을_다시_준다() {
+        JwtTokenRenewer renewer = renewer(10);
+        JwtTokenVerification verification = verification("user1", TimeUnit.MINUTES.toMillis(5));
+
+        String renewedToken = renewer.renewIfNeeded("a.b.first", verification, USER_PERMISSIONS);
+        assertThat(renewedToken).isNotNull();
+        JwtTokenVerification renewed = JwtTokenUtil.verify(renewedToken, SECRET_KEY);
+        assertThat(renewed.isActive()).isTrue();
+        assertThat(renewed.getLoginId()).isEqualTo("user1");
+
+        //  새 Token 을 담은 응답을 받지 못해서 원래 Token 으로 다시 요청한 경우
+        assertThat(renewer.renewIfNeeded("a.b.first", verification, USER_PERMISSIONS)).isEqualTo(renewedToken);
+        assertThat(renewer.trackedTokens()).isEqualTo(1);
+    }
+
+    @Test
+    void 권한이_바뀌었으면_다시_발급한다() {
+        JwtTokenRenewer renewer = renewer(10);
+        JwtTokenVerification verification = verification("user1", TimeUnit.MINUTES.toMillis(5));
+
+        String renewedToken = renewer.renewIfNeeded("a.b.first", verification, USER_PERMISSIONS);
+        String promotedToken = renewer.renewIfNeeded("a.b.first", verification, UserRole.ADMIN.getPermissions());
+
+        assertThat(promotedToken).isNotEqualTo(renewedToken);
+        assertThat(JwtTokenUtil.verify(promotedToken, SECRET_KEY).getPermissions()).isEqualTo(UserRole.ADMIN.getPermissions());
+        assertThat(renewer.trackedTokens()).isEqualTo(1);
+    }
+
+    @Test
+    void 기억할_수_있는_개수를_넘으면_새_Token_은_연장하지_않고_이미_연장한_Token_은_그대로_준다() {
+        JwtTokenRenewer renewer = renewer(1);
+        JwtTokenVerification first = verification("user1", TimeUnit.MINUTES.toMillis(5));
+
+        String renewedToken = renewer.renewIfNeeded("a.b.first", first, USER_PERMISSIONS);
+        assertThat(renewer.renewIfNeeded("a.b.second", verification("user2", TimeUnit.MINUTES.toMillis(5)), USER_PERMISSIONS)).isNull();
+        assertThat(renewer.renewIfNeeded("a.b.first", first, USER_PERMISSIONS)).isEqualTo(renewedToken);
+        assertThat(renewer.trackedTokens()).isEqualTo(1);
+    }
+
+    @Test
+    void 가득_차면_원래_Token_이_만료된_기록을_지우고_연장한다() throws InterruptedException {
+        JwtTokenRenewer renewer = renewer(1);
+
+        assertThat(renewer.renewIfNeeded("a.b.first", verification("user1", 50), USER_PERMISSIONS)).isNotNull();
+        Thread.sleep(100);
+
+        assertThat(renewer.renewIfNeeded("a.b.second", verification("user2", TimeUnit.MINUTES.toMillis(5)), USER_PERMISSIONS)).isNotNull();
+        assertThat(renewer.trackedTokens()).isEqualTo(1);
+    }
+
+    private JwtTokenRenewer renewer(int maxTrackedTokens) {
+        return new JwtTokenRenewer(SECRET_KEY, EXPIRE_TIME_MS, RENEWAL_WINDOW_MS, maxTrackedTokens, false);
+    }
+
+    //  만료 시각을 ms 단위로 정하기 위해 Token 을 만들지 않고 검증 결과를 바로 만든다. (Token 의 exp 는 초 단위)
+    private JwtTokenVerification verification(String loginId, long expiresInMs) {
+        Claims claims = Jwts.claims();
+        claims.put("loginId", loginId);
+        claims.setExpiration(new Date(System.currentTimeMillis() + expiresInMs));
+        return JwtTokenVerification.active(claims);
+    }
+}
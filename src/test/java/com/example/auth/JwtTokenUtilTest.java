@@ -0,0 +1,74 @@
+package com.example.auth;
+
+import com.example.domain.enums.Permission;
+import com.example.domain.enums.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenUtilTest {
+
+    private static final String SECRET_KEY = "test-secret-key";
+    private static final long EXPIRE_TIME_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    void JWT_와_compact_형식을_모두_검증한다() {
+        String jwt = JwtTokenUtil.createToken("user1", SECRET_KEY, EXPIRE_TIME_MS);
+        String compactToken = JwtTokenUtil.createCompactToken("유저1", SECRET_KEY, EXPIRE_TIME_MS);
+
+        assertThat(compactToken).startsWith(JwtTokenUtil.COMPACT_PREFIX);
+        assertThat(compactToken.length()).isLessThan(jwt.length());
+
+        JwtTokenVerification jwtVerification = JwtTokenUtil.verify(jwt, SECRET_KEY);
+        JwtTokenVerification compactVerification = JwtTokenUtil.verify(compactToken, SECRET_KEY);
+        assertThat(jwtVerification.isActive()).isTrue();
+        assertThat(jwtVerification.getLoginId()).isEqualTo("user1");
+        assertThat(compactVerification.isActive()).isTrue();
+        assertThat(compactVerification.getLoginId()).isEqualTo("유저1");
+
+        //  TokenConverter, JwtTokenRenewer 에서 사용하는 발급 / 만료 시각 (초 단위)
+        long expiresIn = compactVerification.getClaims().getExpiration().getTime() - compactVerification.getClaims().getIssuedAt().getTime();
+        assertThat(expiresIn).isBetween(EXPIRE_TIME_MS - 1000, EXPIRE_TIME_MS + 1000);
+    }
+
+    @Test
+    void 만료된_compact_Token() {
+        String token = JwtTokenUtil.createCompactToken("user1", SECRET_KEY, -TimeUnit.MINUTES.toMillis(1));
+
+        JwtTokenVerification verification = JwtTokenUtil.verify(token, SECRET_KEY);
+        assertThat(verification.getStatus()).isEqualTo(JwtTokenVerification.Status.EXPIRED);
+        assertThat(verification.getLoginId()).isEqualTo("user1");
+    }
+
+    @Test
+    void 서명이_틀리거나_형식이_잘못된_compact_Token() {
+        String token = JwtTokenUtil.createCompactToken("user1", SECRET_KEY, EXPIRE_TIME_MS);
+        String otherToken = JwtTokenUtil.createCompactToken("admin", SECRET_KEY, EXPIRE_TIME_MS);
+        String signature = otherToken.substring(otherToken.lastIndexOf('.'));
+
+        assertThat(JwtTokenUtil.verify(token, "other-secret-key").getStatus()).isEqualTo(JwtTokenVerification.Status.INVALID);
+        assertThat(JwtTokenUtil.verify(token.substring(0, token.lastIndexOf('.')) + signature, SECRET_KEY).getStatus())
+                .isEqualTo(JwtTokenVerification.Status.INVALID);
+        assertThat(JwtTokenUtil.verify("c1.", SECRET_KEY).getStatus()).isEqualTo(JwtTokenVerification.Status.INVALID);
+        assertThat(JwtTokenUtil.verify("c1.!!!!" + token.substring(7), SECRET_KEY).getStatus()).isEqualTo(JwtTokenVerification.Status.INVALID);
+    }
+
+    @Test
+    void 권한_bitmask_를_perm_claim_으로_전달한다() {
+        long permissions = UserRole.ADMIN.getPermissions();
+        String jwt = JwtTokenUtil.createToken("admin", permissions, SECRET_KEY, EXPIRE_TIME_MS);
+        String compactToken = JwtTokenUtil.createCompactToken("admin", permissions, SECRET_KEY, EXPIRE_TIME_MS);
+
+        assertThat(compactToken).startsWith(JwtTokenUtil.COMPACT_V2_PREFIX);
+        assertThat(JwtTokenUtil.verify(jwt, SECRET_KEY).getPermissions()).isEqualTo(permissions);
+        assertThat(JwtTokenUtil.verify(compactToken, SECRET_KEY).getPermissions()).isEqualTo(permissions);
+        assertThat(JwtTokenUtil.verify(compactToken, SECRET_KEY).getLoginId()).isEqualTo("admin");
+        assertThat((permissions & Permission.EXPORT_USERS.getMask()) != 0).isTrue();
+
+        //  perm claim 이 없는 이전 Token 은 null (JwtTokenFilter 에서 role 의 권한을 사용)
+        assertThat(JwtTokenUtil.verify(JwtTokenUtil.createToken("user1", SECRET_KEY, EXPIRE_TIME_MS), SECRET_KEY).getPermissions()).isNull();
+        assertThat(JwtTokenUtil.verify(JwtTokenUtil.createCompactToken("user1", SECRET_KEY, EXPIRE_TIME_MS), SECRET_KEY).getPermissions()).isNull();
+    }
+}
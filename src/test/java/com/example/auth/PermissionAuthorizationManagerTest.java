@@ -0,0 +1,65 @@
+package com.example.auth;
+
+import com.example.domain.User;
+import com.example.domain.enums.Permission;
+import com.example.domain.enums.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PermissionAuthorizationManagerTest {
+
+    private final PermissionAuthorizationManager<Object> adminOnly = PermissionAuthorizationManager.require(Permission.ACCESS_ADMIN);
+    private final PermissionAuthorizationManager<Object> exportUsers =
+            PermissionAuthorizationManager.require(Permission.ACCESS_ADMIN, Permission.EXPORT_USERS);
+
+    @Test
+    void Jwt_Token_인증은_Token_의_권한으로_확인한다() {
+        Authentication user = jwtAuthentication(UserRole.USER);
+        Authentication admin = jwtAuthentication(UserRole.ADMIN);
+
+        assertThat(adminOnly.check(() -> user, null).isGranted()).isFalse();
+        assertThat(adminOnly.check(() -> admin, null).isGranted()).isTrue();
+        assertThat(exportUsers.check(() -> admin, null).isGranted()).isTrue();
+
+        //  필요한 권한 중 하나라도 없으면 거부
+        Authentication adminWithoutExport = new LoginUserAuthentication("admin", RoleAuthorities.of(UserRole.ADMIN),
+                Permission.maskOf(Permission.ACCESS_ADMIN), null);
+        assertThat(exportUsers.check(() -> adminWithoutExport, null).isGranted()).isFalse();
+    }
+
+    @Test
+    void form_로그인은_PrincipalDetails_의_role_권한으로_확인한다() {
+        PrincipalDetails principal = new PrincipalDetails(User.builder().loginId("admin").role(UserRole.ADMIN).build());
+        Authentication admin = UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+
+        assertThat(exportUsers.check(() -> admin, null).isGranted()).isTrue();
+    }
+
+    @Test
+    void Token_일괄_검증은_INTROSPECT_TOKENS_권한이_있어야_한다() {
+        PermissionAuthorizationManager<Object> introspect = PermissionAuthorizationManager.require(Permission.INTROSPECT_TOKENS);
+
+        assertThat(introspect.check(() -> jwtAuthentication(UserRole.USER), null).isGranted()).isFalse();
+        assertThat(introspect.check(() -> jwtAuthentication(UserRole.ADMIN), null).isGranted()).isTrue();
+        assertThat(introspect.check(() -> null, null).isGranted()).isFalse();
+    }
+
+    @Test
+    void 익명_사용자와_인증_취소된_사용자는_거부한다() {
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser", RoleAuthorities.of(UserRole.USER));
+        Authentication revoked = jwtAuthentication(UserRole.ADMIN);
+        revoked.setAuthenticated(false);
+
+        assertThat(adminOnly.check(() -> anonymous, null).isGranted()).isFalse();
+        assertThat(adminOnly.check(() -> revoked, null).isGranted()).isFalse();
+        assertThat(adminOnly.check(() -> null, null).isGranted()).isFalse();
+    }
+
+    private static Authentication jwtAuthentication(UserRole role) {
+        return new LoginUserAuthentication(role.name().toLowerCase(), RoleAuthorities.of(role), role.getPermissions(), null);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.auth.oauth;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 응답 지연을 넣을 수 있는 로컬 userinfo Provider(stub)로 timeout, bulkhead, cache 동작 확인
+ */
+class OAuth2UserInfoClientTest {
+
+    private static final long READ_TIMEOUT_MILLIS = 500;
+    private static final int MAX_CONCURRENT_CALLS = 2;
+
+    private HttpServer provider;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile long delayMillis;
+    private volatile CountDownLatch hold = new CountDownLatch(0);
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    void startProvider() throws Exception {
+        provider = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        provider.setExecutor(Executors.newCachedThreadPool());
+        provider.createContext("/userinfo", exchange -> {
+            requests.incrementAndGet();
+            inFlight.incrementAndGet();
+            try {
+                hold.await();
+                Thread.sleep(delayMillis);
+
+                byte[] body = "{\"sub\":\"1234\",\"name\":\"stub-user\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (Exception e) {
+                exchange.close();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        provider.start();
+    }
+
+    @AfterEach
+    void stopProvider() {
+        hold.countDown();
+        callers.shutdownNow();
+        provider.stop(0);
+    }
+
+    @Test
+    void 같은_Access_Token_은_Provider_를_한_번만_호출한다() {
+        OAuth2UserInfoClient client = newClient(0);
+
+        OAuth2User first = client.loadUser(userRequest("token-1"));
+        OAuth2User second = client.loadUser(userRequest("token-1"));
+        client.loadUser(userRequest("token-2"));
+
+        assertThat(first.getName()).isEqualTo("1234");
+        assertThat(second).isSameAs(first);
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void Provider_가_느리면_read_timeout_으로_로그인_실패() {
+        OAuth2UserInfoClient client = newClient(0);
+        delayMillis = READ_TIMEOUT_MILLIS * 4;
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.loadUser(userRequest("slow-token")))
+                .isInstanceOf(OAuth2AuthenticationException.class);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(elapsedMillis).isLessThan(delayMillis);
+    }
+
+    @Test
+    void 동시_호출_수를_넘으면_기다리지_않고_실패한다() throws Exception {
+        OAuth2UserInfoClient client = newClient(0);
+        hold = new CountDownLatch(1);
+
+        List<Future<OAuth2User>> holding = new ArrayList<>();
+        for (int i = 0; i < MAX_CONCURRENT_CALLS; i++) {
+            String token = "holding-" + i;
+            holding.add(callers.submit(() -> client.loadUser(userRequest(token))));
+        }
+        awaitProviderInFlight(MAX_CONCURRENT_CALLS);
+
+        //  자리가 없으므로 Provider 를 호출하지 않고 바로 실패
+        assertThatThrownBy(() -> client.loadUser(userRequest("rejected")))
+                .isInstanceOfSatisfying(OAuth2AuthenticationException.class, e ->
+                        assertThat(e.getError().getErrorCode()).isEqualTo(OAuth2UserInfoClient.PROVIDER_BUSY_ERROR_CODE));
+        assertThat(requests.get()).isEqualTo(MAX_CONCURRENT_CALLS);
+
+        hold.countDown();
+        for (Future<OAuth2User> future : holding) {
+            assertThat(future.get(5, TimeUnit.SECONDS).getName()).isEqualTo("1234");
+        }
+
+        //  자리가 나면 다시 호출할 수 있다.
+        assertThat(client.loadUser(userRequest("after")).getName()).isEqualTo("1234");
+    }
+
+    private OAuth2UserInfoClient newClient(long bulkheadWaitMillis) {
+        return new OAuth2UserInfoClient(500, READ_TIMEOUT_MILLIS, MAX_CONCURRENT_CALLS, bulkheadWaitMillis, 60_000, 100);
+    }
+
+    private OAuth2UserRequest userRequest(String accessToken) {
+        String baseUrl = "http://127.0.0.1:" + provider.getAddress().getPort();
+        ClientRegistration registration = ClientRegistration.withRegistrationId("stub")
+                .clientId("client-id")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+                .authorizationUri(baseUrl + "/authorize")
+                .tokenUri(baseUrl + "/token")
+                .userInfoUri(baseUrl + "/userinfo")
+                .userNameAttributeName("sub")
+                .build();
+        Instant now = Instant.now();
+        return new OAuth2UserRequest(registration,
+                new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, accessToken, now, now.plusSeconds(60)));
+    }
+
+    private void awaitProviderInFlight(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (inFlight.get() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Provider 요청이 " + expected + "개가 되지 않았습니다.");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
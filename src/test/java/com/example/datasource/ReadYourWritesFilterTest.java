@@ -0,0 +1,47 @@
+package com.example.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+
+    private static final long WINDOW_MILLIS = 5_000;
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(WINDOW_MILLIS, "test-secret-key");
+
+    @Test
+    void write_후_발급한_cookie_로_요청하면_primary_에서_읽는다() throws Exception {
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), writeResponse,
+                (request, response) -> ReadYourWrites.written(System.currentTimeMillis() + WINDOW_MILLIS));
+
+        Cookie cookie = writeResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(isPinned(cookie.getValue())).isTrue();
+    }
+
+    @Test
+    void 서명이_없거나_틀린_cookie_는_무시한다() throws Exception {
+        long farFuture = Long.MAX_VALUE / 2;
+        String signed = filter.sign(System.currentTimeMillis() + WINDOW_MILLIS);
+        String otherSigned = new ReadYourWritesFilter(WINDOW_MILLIS, "other-secret-key").sign(farFuture);
+
+        assertThat(isPinned(Long.toString(farFuture))).isFalse();
+        assertThat(isPinned(farFuture + signed.substring(signed.indexOf('.')))).isFalse();
+        assertThat(isPinned(otherSigned)).isFalse();
+        assertThat(isPinned(farFuture + ".!!!")).isFalse();
+    }
+
+    private boolean isPinned(String cookieValue) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, cookieValue));
+        boolean[] pinned = new boolean[1];
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (chainRequest, chainResponse) -> pinned[0] = ReadYourWrites.isPinned(System.currentTimeMillis()));
+        return pinned[0];
+    }
+}
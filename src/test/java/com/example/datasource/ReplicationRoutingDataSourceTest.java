@@ -0,0 +1,251 @@
+package com.example.datasource;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 in-memory DB 두 개를 primary, replica 로 사용하는 라우팅 테스트
+ * 각 DB 의 node 테이블에 자기 이름을 넣어두고, 조회 결과로 어느 DB 에서 읽었는지 확인한다.
+ * 애플리케이션과 같이 Hibernate + JpaTransactionManager 로 트랜잭션을 시작한다. (readOnly 가 정해진 뒤에 connection 을 가져오는지 확인)
+ */
+class ReplicationRoutingDataSourceTest {
+
+    private static final long READ_YOUR_WRITES_MILLIS = 5_000;
+    private static final long MAX_LAG_MILLIS = 500;
+
+    private final long[] now = {1_000_000L};
+    private DriverManagerDataSource primary;
+    private FailingDataSource replica;
+    private ReplicationRoutingDataSource routingDataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = new FailingDataSource(h2("replica"));
+
+        routingDataSource = new ReplicationRoutingDataSource(primary, List.of(replica), READ_YOUR_WRITES_MILLIS, MAX_LAG_MILLIS, () -> now[0]);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setManagedTypes(PersistenceManagedTypes.of(Node.class.getName()));
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "none"));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ReadYourWrites.end();
+        entityManagerFactory.close();
+        routingDataSource.close();
+    }
+
+    @Test
+    void 읽기_전용_트랜잭션은_replica_나머지는_primary() {
+        assertThat(readOnlyTransaction.execute(status -> currentNode())).isEqualTo("replica");
+        assertThat(writeTransaction.execute(status -> currentNode())).isEqualTo("primary");
+        assertThat(currentNode()).isEqualTo("primary");
+    }
+
+    @Test
+    void 저장한_유저는_일정_시간_동안_primary_에서_읽는다() {
+        AtomicLong pinnedUntil = new AtomicLong();
+        ReadYourWrites.begin(0L, pinnedUntil::set);
+
+        writeTransaction.executeWithoutResult(status -> entityManager.persist(new Node("written")));
+
+        assertThat(pinnedUntil.get()).isEqualTo(now[0] + READ_YOUR_WRITES_MILLIS);
+        assertThat(readOnlyTransaction.execute(status -> countWritten())).isEqualTo(1);
+
+        //  다음 요청 : cookie 로 전달받은 시각까지는 primary
+        ReadYourWrites.end();
+        ReadYourWrites.begin(pinnedUntil.get(), value -> { });
+        now[0] += READ_YOUR_WRITES_MILLIS - 1;
+        assertThat(readOnlyTransaction.execute(status -> currentNode())).isEqualTo("primary");
+
+        now[0] += 1;
+        assertThat(readOnlyTransaction.execute(status -> currentNode())).isEqualTo("replica");
+    }
+
+    @Test
+    void 다른_유저의_읽기는_저장_직후에도_replica() {
+        writeTransaction.executeWithoutResult(status -> entityManager.persist(new Node("written")));
+
+        //  replica 에는 아직 반영되지 않음
+        assertThat(readOnlyTransaction.execute(status -> countWritten())).isZero();
+    }
+
+    @Test
+    void username_password_를_지정한_connection_도_같은_규칙으로_보낸다() {
+        assertThat(readOnlyTransaction.execute(status -> nodeWithCredentials())).isEqualTo("replica");
+        assertThat(writeTransaction.execute(status -> nodeWithCredentials())).isEqualTo("primary");
+
+        replica.down = true;
+        assertThat(readOnlyTransaction.execute(status -> nodeWithCredentials())).isEqualTo("primary");
+        assertThat(routingDataSource.isHealthy(0)).isFalse();
+    }
+
+    @Test
+    void replica_가_실패하면_제외했다가_health_check_에_성공하면_복귀한다() {
+        replica.down = true;
+
+        assertThat(readOnlyTransaction.execute(status -> currentNode())).isEqualTo("primary");
+        assertThat(routingDataSource.isHealthy(0)).isFalse();
+
+        //  제외된 동안에는 replica 를 시도하지 않는다.
+        int attempts = replica.attempts;
+        assertThat(readOnlyTransaction.execute(status -> currentNode())).isEqualTo("primary");
+        assertThat(replica.attempts).isEqualTo(attempts);
+
+        routingDataSource.checkHealth(1);
+        assertThat(routingDataSource.isHealthy(0)).isFalse();
+
+        replica.down = false;
+        routingDataSource.checkHealth(1);
+        assertThat(routingDataSource.isHealthy(0)).isTrue();
+        assertThat(readOnlyTransaction.execute(status -> currentNode())).isEqualTo("replica");
+    }
+
+    @Test
+    void 복제가_지연된_replica_는_제외했다가_따라잡으면_복귀한다() {
+        //  첫 health check 에서 primary 에 heartbeat 를 기록하고, 다음 health check 부터 replica 와 비교
+        routingDataSource.checkHealth(1);
+        replicate();
+
+        now[0] += 1_000;
+        routingDataSource.checkHealth(1);
+        assertThat(routingDataSource.isHealthy(0)).isTrue();
+
+        //  replica 에 heartbeat 가 반영되지 않은 채로 시간이 지나면 제외
+        now[0] += 1_000;
+        routingDataSource.checkHealth(1);
+        assertThat(routingDataSource.isHealthy(0)).isFalse();
+        assertThat(readOnlyTransaction.execute(status -> currentNode())).isEqualTo("primary");
+
+        replicate();
+        now[0] += 1_000;
+        routingDataSource.checkHealth(1);
+        assertThat(routingDataSource.isHealthy(0)).isTrue();
+        assertThat(readOnlyTransaction.execute(status -> currentNode())).isEqualTo("replica");
+    }
+
+    private String currentNode() {
+        return (String) entityManager.createNativeQuery("select name from node where name in ('primary', 'replica')").getSingleResult();
+    }
+
+    private long countWritten() {
+        return entityManager.createQuery("select count(n) from Node n where n.name = 'written'", Long.class)
+                .getSingleResult();
+    }
+
+    private String nodeWithCredentials() {
+        try (Connection connection = routingDataSource.getConnection("sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select name from node")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //  primary 의 heartbeat 를 replica 로 복사 (복제가 따라잡은 상태)
+    private void replicate() {
+        Long heartbeat = new JdbcTemplate(primary).queryForObject(ReplicationRoutingDataSource.SELECT_HEARTBEAT_SQL, Long.class);
+        new JdbcTemplate(replica).update(ReplicationRoutingDataSource.UPDATE_HEARTBEAT_SQL, heartbeat);
+    }
+
+    private DriverManagerDataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20) not null primary key)");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        //  replica 는 primary 에서 복제된 heartbeat 테이블을 가지고 있다.
+        jdbcTemplate.execute(ReplicationRoutingDataSource.CREATE_HEARTBEAT_TABLE_SQL);
+        jdbcTemplate.update(ReplicationRoutingDataSource.INSERT_HEARTBEAT_SQL, now[0]);
+        return dataSource;
+    }
+
+    @Entity(name = "Node")
+    @Table(name = "node")
+    static class Node {
+        @Id
+        private String name;
+
+        protected Node() {
+        }
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+
+    //  down 이면 connection 을 주지 않는 replica
+    private static class FailingDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+        private volatile int attempts;
+
+        private FailingDataSource(DriverManagerDataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            attempts++;
+            if (down) {
+                throw new SQLException("replica down");
+            }
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            attempts++;
+            if (down) {
+                throw new SQLException("replica down");
+            }
+            return super.getConnection(username, password);
+        }
+    }
+}
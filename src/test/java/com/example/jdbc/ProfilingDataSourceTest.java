@@ -0,0 +1,75 @@
+package com.example.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProfilingDataSourceTest {
+
+    private final SqlProfiler profiler = new SqlProfiler(60_000, 100, 10);
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new ProfilingDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:profiling-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""), profiler));
+
+    @AfterEach
+    void tearDown() {
+        profiler.close();
+    }
+
+    @Test
+    void SQL_형태_서비스_메서드_route_별로_호출_수와_row_수를_기록한다() {
+        jdbcTemplate.execute("create table item (id bigint primary key, name varchar(20))");
+
+        String previousRoute = SqlProfilingContext.enterRoute("POST /items");
+        String previousCaller = SqlProfilingContext.enterCaller("ItemService.save");
+        try {
+            for (int i = 0; i < 3; i++) {
+                jdbcTemplate.update("insert into item (id, name) values (?, ?)", i, "item" + i);
+            }
+            //  literal 만 다른 SQL 은 같은 형태로 합쳐진다.
+            jdbcTemplate.queryForList("select name from item where id in (1, 2)");
+            jdbcTemplate.queryForList("select name from item where id in (0)");
+        } finally {
+            SqlProfilingContext.restoreCaller(previousCaller);
+            SqlProfilingContext.restoreRoute(previousRoute);
+        }
+
+        List<SqlStatementStats> statements = profiler.topStatements(10);
+
+        SqlStatementStats insert = find(statements, "insert into item (id, name) values (?, ?)");
+        assertThat(insert.getCaller()).isEqualTo("ItemService.save");
+        assertThat(insert.getRoute()).isEqualTo("POST /items");
+        assertThat(insert.getCalls().sum()).isEqualTo(3);
+        assertThat(insert.getRows().sum()).isEqualTo(3);
+
+        SqlStatementStats select = find(statements, "select name from item where id in (?)");
+        assertThat(select.getCalls().sum()).isEqualTo(2);
+        assertThat(select.getRows().sum()).isEqualTo(3);
+        assertThat(select.percentileMicros(0.99)).isPositive();
+
+        //  context 밖에서 실행한 SQL
+        assertThat(find(statements, "create table item (id bigint primary key, name varchar(?))").getCaller()).isEqualTo("-");
+    }
+
+    @Test
+    void 실패한_SQL_도_기록한다() {
+        try {
+            jdbcTemplate.queryForList("select * from missing_table");
+        } catch (RuntimeException expected) {
+            //  테이블이 없어서 실패
+        }
+
+        SqlStatementStats stats = find(profiler.topStatements(10), "select * from missing_table");
+        assertThat(stats.getCalls().sum()).isEqualTo(1);
+        assertThat(stats.getErrors().sum()).isEqualTo(1);
+    }
+
+    private static SqlStatementStats find(List<SqlStatementStats> statements, String sql) {
+        return statements.stream().filter(stats -> stats.getSql().equals(sql)).findFirst().orElseThrow();
+    }
+}
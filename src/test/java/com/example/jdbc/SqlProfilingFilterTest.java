@@ -0,0 +1,65 @@
+package com.example.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlProfilingFilterTest {
+
+    private final SqlProfilingFilter filter = new SqlProfilingFilter(
+            () -> SqlProfilingFilter.prefixesOf(List.of("/jwt-login/info", "/jwt-login/admin/users", "/session-login", "/{id}", "/css/**")));
+
+    @Test
+    void 컨트롤러_URL_pattern_의_고정된_첫_경로만_알려진_경로로_사용한다() {
+        assertThat(SqlProfilingFilter.prefixesOf(List.of("/jwt-login/info", "/session-login", "/{id}", "/**", "/css/**", "")))
+                .isEqualTo(Set.of("jwt-login", "session-login", "css"));
+    }
+
+    @Test
+    void handler_가_정해지기_전에는_알려진_첫_경로로_기록한다() throws Exception {
+        assertThat(routeOf(new MockHttpServletRequest("GET", "/jwt-login/info"))).isEqualTo("GET /jwt-login/**");
+        assertThat(routeOf(new MockHttpServletRequest("POST", "/session-login"))).isEqualTo("POST /session-login/**");
+
+        //  임의의 경로, method 로 요청해도 route 가 늘어나지 않는다.
+        assertThat(routeOf(new MockHttpServletRequest("GET", "/random-1234/info"))).isEqualTo("GET " + SqlProfilingFilter.UNKNOWN_PATH);
+        assertThat(routeOf(new MockHttpServletRequest("GET", "/"))).isEqualTo("GET " + SqlProfilingFilter.UNKNOWN_PATH);
+        assertThat(routeOf(new MockHttpServletRequest("RANDOM", "/jwt-login/info")))
+                .isEqualTo(SqlProfilingFilter.UNKNOWN_METHOD + " /jwt-login/**");
+    }
+
+    @Test
+    void handler_가_정해지면_매핑된_URL_pattern_으로_기록하고_요청이_끝나면_되돌린다() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/jwt-login/users/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/jwt-login/users/{id}");
+
+        String[] route = new String[1];
+        filter.doFilter(request, new MockHttpServletResponse(), (chainRequest, chainResponse) -> {
+            new SqlProfilingRouteInterceptor().preHandle(request, new MockHttpServletResponse(), new Object());
+            route[0] = SqlProfilingContext.route();
+        });
+
+        assertThat(route[0]).isEqualTo("GET /jwt-login/users/{id}");
+        assertThat(SqlProfilingContext.route()).isNull();
+    }
+
+    @Test
+    void 필터_밖에서는_route_를_바꾸지_않는다() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/error");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/error");
+
+        new SqlProfilingRouteInterceptor().preHandle(request, new MockHttpServletResponse(), new Object());
+        assertThat(SqlProfilingContext.route()).isNull();
+    }
+
+    private String routeOf(MockHttpServletRequest request) throws Exception {
+        String[] route = new String[1];
+        filter.doFilter(request, new MockHttpServletResponse(), (chainRequest, chainResponse) -> route[0] = SqlProfilingContext.route());
+        return route[0];
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 가상 시간으로 진행하는 부하 테스트
+ *
+ * 서버 : CPU 4개, 요청 하나에 CPU 100ms (BCrypt) => 최대 처리량 40 req/s
+ *        동시에 처리하는 요청이 CPU 수보다 많으면 CPU 를 나눠 쓰므로 모든 요청이 함께 느려진다. (processor sharing)
+ * 클라이언트 : 1초 안에 응답을 받은 요청만 성공 (goodput)
+ * 시작 후 절반의 시간은 warm-up 으로 보고 나머지 절반 동안의 결과로 비교한다.
+ */
+class AdaptiveConcurrencyLimiterLoadTest {
+
+    private static final int CORES = 4;
+    private static final double SERVICE_MILLIS = 100;
+    private static final double CAPACITY_PER_SECOND = CORES * 1000 / SERVICE_MILLIS;
+    private static final long CLIENT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int SECONDS = 60;
+
+    @Test
+    void 처리량_이하의_부하에서는_거절하지_않는다() {
+        Result limited = simulate(CAPACITY_PER_SECOND * 0.5, true);
+
+        assertThat(limited.rejected).isZero();
+        assertThat(limited.goodputPerSecond()).isGreaterThan(CAPACITY_PER_SECOND * 0.5 * 0.95);
+    }
+
+    @Test
+    void 과부하에서_limiter_가_없으면_goodput_이_무너진다() {
+        Result unlimited = simulate(CAPACITY_PER_SECOND * 2, false);
+
+        assertThat(unlimited.goodputPerSecond()).isLessThan(CAPACITY_PER_SECOND * 0.1);
+        assertThat(unlimited.maxInFlight).isGreaterThan(1000);
+    }
+
+    @Test
+    void 과부하에서_limiter_가_있으면_초과분만_거절하고_goodput_을_유지한다() {
+        for (double load : new double[]{2, 5}) {
+            Result limited = simulate(CAPACITY_PER_SECOND * load, true);
+
+            assertThat(limited.goodputPerSecond()).isGreaterThan(CAPACITY_PER_SECOND * 0.9);
+            assertThat(limited.late).isZero();
+            assertThat(limited.rejected).isPositive();
+            assertThat(limited.maxInFlight).isLessThanOrEqualTo(limited.maxLimit);
+        }
+    }
+
+    private static Result simulate(double arrivalsPerSecond, boolean limited) {
+        long[] now = {0};
+        AdaptiveConcurrencyLimiter limiter = limited ? new AdaptiveConcurrencyLimiter(20, 1, 200, 300, 0.9, () -> now[0]) : null;
+
+        List<Request> running = new ArrayList<>();
+        long measureFrom = TimeUnit.SECONDS.toNanos(SECONDS / 2);
+        double arrivals = 0;
+        Result result = new Result();
+
+        //  1ms 단위로 진행
+        for (long millis = 0; millis < TimeUnit.SECONDS.toMillis(SECONDS); millis++) {
+            now[0] = TimeUnit.MILLISECONDS.toNanos(millis);
+
+            arrivals += arrivalsPerSecond / 1000;
+            for (; arrivals >= 1; arrivals--) {
+                AdaptiveConcurrencyLimiter.Permit permit = null;
+                if (limiter != null) {
+                    permit = limiter.tryAcquire();
+                    if (permit == null) {
+                        if (now[0] >= measureFrom) {
+                            result.rejected++;
+                        }
+                        continue;
+                    }
+                }
+                running.add(new Request(now[0], permit));
+            }
+            result.maxInFlight = Math.max(result.maxInFlight, running.size());
+            if (limiter != null) {
+                result.maxLimit = Math.max(result.maxLimit, limiter.getLimit());
+            }
+
+            //  CPU 를 처리 중인 요청 수만큼 나눠 사용
+            double progress = running.isEmpty() ? 0 : Math.min(1.0, (double) CORES / running.size());
+            long end = now[0] + TimeUnit.MILLISECONDS.toNanos(1);
+            for (Iterator<Request> iterator = running.iterator(); iterator.hasNext(); ) {
+                Request request = iterator.next();
+                request.remainingMillis -= progress;
+                if (request.remainingMillis > 1e-9) {
+                    continue;
+                }
+
+                iterator.remove();
+                if (request.permit != null) {
+                    now[0] = end;
+                    request.permit.success();
+                }
+                if (request.start >= measureFrom) {
+                    if (end - request.start <= CLIENT_TIMEOUT_NANOS) {
+                        result.good++;
+                    } else {
+                        result.late++;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static class Request {
+        private final long start;
+        private final AdaptiveConcurrencyLimiter.Permit permit;
+        private double remainingMillis = SERVICE_MILLIS;
+
+        private Request(long start, AdaptiveConcurrencyLimiter.Permit permit) {
+            this.start = start;
+            this.permit = permit;
+        }
+    }
+
+    private static class Result {
+        private long good;
+        private long late;
+        private long rejected;
+        private int maxInFlight;
+        private int maxLimit;
+
+        private double goodputPerSecond() {
+            return good / (SECONDS / 2.0);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.limit;
+
+import com.example.domain.enums.LoginType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 가상 시간으로 진행하는 bulkhead 부하 테스트
+ *
+ * 서버 : Tomcat worker 스레드 50개, 남는 스레드가 없으면 요청은 들어온 순서대로 기다린다. (accept queue)
+ * 요청 : /jwt-login/info 초당 200개, 스레드를 2ms 사용
+ *        /security-login 폭주 초당 2000개, 스레드를 100ms 사용 (BCrypt, 느린 Google 사용자 정보 조회)
+ *        => security-login 만으로 스레드가 200개 필요하므로 bulkhead 가 없으면 모든 스레드가 security-login 을 처리한다.
+ * bulkhead : security 10, jwt 20 (합계가 worker 스레드 수보다 작다)
+ * 시작 후 절반의 시간은 warm-up 으로 보고 나머지 절반 동안의 jwt 응답 시간(대기 + 처리)으로 비교한다.
+ */
+class BulkheadLoadTest {
+
+    private static final int WORKERS = 50;
+    private static final double JWT_PER_SECOND = 200;
+    private static final long JWT_SERVICE_MILLIS = 2;
+    private static final double FLOOD_PER_SECOND = 2000;
+    private static final long FLOOD_SERVICE_MILLIS = 100;
+    private static final int SECONDS = 10;
+
+    @Test
+    void 폭주가_없으면_jwt_응답_시간은_처리_시간과_같다() {
+        Result baseline = simulate(0, true);
+
+        assertThat(baseline.jwtP99Millis()).isLessThanOrEqualTo(JWT_SERVICE_MILLIS);
+        assertThat(baseline.jwtRejected).isZero();
+    }
+
+    @Test
+    void bulkhead_가_없으면_security_login_폭주에_jwt_요청이_밀린다() {
+        Result unprotected = simulate(FLOOD_PER_SECOND, false);
+
+        assertThat(unprotected.jwtP99Millis()).isGreaterThan(TimeUnit.SECONDS.toMillis(1));
+    }
+
+    @Test
+    void bulkhead_가_있으면_security_login_폭주가_jwt_응답_시간에_영향을_주지_않는다() {
+        Result baseline = simulate(0, true);
+        Result protectedResult = simulate(FLOOD_PER_SECOND, true);
+
+        assertThat(protectedResult.jwtP99Millis()).isLessThanOrEqualTo(baseline.jwtP99Millis());
+        assertThat(protectedResult.jwtRejected).isZero();
+        //  폭주한 방식은 자기 몫(10개)만 사용하고 초과분은 바로 거절
+        assertThat(protectedResult.floodRejected).isPositive();
+        assertThat(protectedResult.floodPeakInFlight).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void 가득_찬_방식만_거절하고_다른_방식은_통과시킨다() throws Exception {
+        Map<LoginType, Bulkhead> bulkheads = new EnumMap<>(LoginType.class);
+        bulkheads.put(LoginType.SECURITY, new Bulkhead(LoginType.SECURITY.name(), 1));
+        bulkheads.put(LoginType.JWT, new Bulkhead(LoginType.JWT.name(), 1));
+        bulkheads.put(LoginType.OAUTH2, new Bulkhead(LoginType.OAUTH2.name(), 1));
+        BulkheadFilter filter = new BulkheadFilter(bulkheads);
+
+        //  security-login 이 처리 중인 요청으로 가득 찬 상태
+        assertThat(bulkheads.get(LoginType.SECURITY).tryAcquire()).isTrue();
+
+        assertThat(status(filter, "/security-login/login")).isEqualTo(503);
+        assertThat(status(filter, "/jwt-login/info")).isEqualTo(200);
+        assertThat(status(filter, "/login/oauth2/code/google")).isEqualTo(200);
+        assertThat(status(filter, "/css/main.css")).isEqualTo(200);
+
+        //  처리가 끝나면 다시 받는다.
+        bulkheads.get(LoginType.SECURITY).release();
+        assertThat(status(filter, "/security-login/login")).isEqualTo(200);
+        assertThat(bulkheads.get(LoginType.JWT).getInFlight()).isZero();
+    }
+
+    private static int status(BulkheadFilter filter, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", uri), response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static Result simulate(double floodPerSecond, boolean withBulkheads) {
+        Bulkhead jwtBulkhead = withBulkheads ? new Bulkhead(LoginType.JWT.name(), 20) : null;
+        Bulkhead floodBulkhead = withBulkheads ? new Bulkhead(LoginType.SECURITY.name(), 10) : null;
+
+        ArrayDeque<Request> queue = new ArrayDeque<>();
+        List<Request> running = new ArrayList<>();
+        long measureFrom = TimeUnit.SECONDS.toMillis(SECONDS / 2);
+        double jwtArrivals = 0;
+        double floodArrivals = 0;
+        Result result = new Result();
+
+        //  1ms 단위로 진행
+        for (long now = 0; now < TimeUnit.SECONDS.toMillis(SECONDS); now++) {
+            //  처리가 끝난 요청의 스레드 반납
+            for (Iterator<Request> iterator = running.iterator(); iterator.hasNext(); ) {
+                Request request = iterator.next();
+                if (request.end > now) {
+                    continue;
+                }
+                iterator.remove();
+                if (request.bulkhead != null) {
+                    request.bulkhead.release();
+                }
+                if (request.jwt && request.arrival >= measureFrom) {
+                    result.jwtLatencies.add(request.end - request.arrival);
+                }
+            }
+
+            jwtArrivals += JWT_PER_SECOND / 1000;
+            floodArrivals += floodPerSecond / 1000;
+            //  폭주 요청이 먼저 들어온 것으로 본다. (jwt 요청에 불리하게)
+            for (; floodArrivals >= 1; floodArrivals--) {
+                queue.add(new Request(false, now, floodBulkhead));
+            }
+            for (; jwtArrivals >= 1; jwtArrivals--) {
+                queue.add(new Request(true, now, jwtBulkhead));
+            }
+
+            //  남는 스레드가 요청을 순서대로 가져간다. 거절은 바로 끝나므로 스레드를 바로 다시 사용한다.
+            while (running.size() < WORKERS && !queue.isEmpty()) {
+                Request request = queue.poll();
+                if (request.bulkhead != null && !request.bulkhead.tryAcquire()) {
+                    if (request.arrival >= measureFrom) {
+                        if (request.jwt) {
+                            result.jwtRejected++;
+                        } else {
+                            result.floodRejected++;
+                        }
+                    }
+                    continue;
+                }
+                request.end = now + (request.jwt ? JWT_SERVICE_MILLIS : FLOOD_SERVICE_MILLIS);
+                running.add(request);
+            }
+        }
+
+        //  끝날 때까지 처리되지 못한 jwt 요청은 지금까지 기다린 시간으로 센다. (실제 응답 시간은 이보다 길다)
+        long simulationEnd = TimeUnit.SECONDS.toMillis(SECONDS);
+        for (Iterable<Request> unfinished : List.<Iterable<Request>>of(queue, running)) {
+            for (Request request : unfinished) {
+                if (request.jwt && request.arrival >= measureFrom) {
+                    result.jwtLatencies.add(simulationEnd - request.arrival);
+                }
+            }
+        }
+
+        result.floodPeakInFlight = floodBulkhead == null ? 0 : floodBulkhead.getPeakInFlight();
+        return result;
+    }
+
+    private static class Request {
+        private final boolean jwt;
+        private final long arrival;
+        private final Bulkhead bulkhead;
+        private long end;
+
+        private Request(boolean jwt, long arrival, Bulkhead bulkhead) {
+            this.jwt = jwt;
+            this.arrival = arrival;
+            this.bulkhead = bulkhead;
+        }
+    }
+
+    private static class Result {
+        private final List<Long> jwtLatencies = new ArrayList<>();
+        private long jwtRejected;
+        private long floodRejected;
+        private int floodPeakInFlight;
+
+        private long jwtP99Millis() {
+            long[] latencies = jwtLatencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(latencies);
+            return latencies[(int) (latencies.length * 0.99)];
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.repository.memory;
+
+import com.example.domain.User;
+import com.example.domain.enums.UserRole;
+import com.example.domain.event.UserIdReassignedEvent;
+import com.example.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 애플리케이션과 같이 Hibernate 가 만든 user 테이블(H2 MySQL mode)에 실제 SQL 로 저장, 복구하는지 확인
+ * (INSERT_SQL, SELECT_STORED_SQL, user_id_block 예약 SQL 을 그대로 실행하고, 시작 시 로딩은 UserRepository 를 사용)
+ */
+class InMemoryUserStoreRecoveryTest {
+
+    @TempDir
+    Path journalDir;
+
+    private final List<InMemoryUserStore> stores = new ArrayList<>();
+    private final List<Object> events = new ArrayList<>();
+
+    private EntityManagerFactory entityManagerFactory;
+    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
+    private JpaTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:user-store-" + UUID.randomUUID() + ";MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1", "sa", "");
+
+        //  application.yml 과 같은 naming (loginId -> login_id)
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setManagedTypes(PersistenceManagedTypes.of(User.class.getName()));
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create",
+                "hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy"));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+
+        userRepository = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory))
+                .getRepository(UserRepository.class);
+        transactionManager = new JpaTransactionManager(entityManagerFactory);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    //  flush 스레드가 테스트 뒤에 남지 않도록 모든 저장소를 닫는다. (이미 닫은 저장소는 그대로)
+    @AfterEach
+    void tearDown() throws Exception {
+        for (InMemoryUserStore store : stores) {
+            store.closeWithoutFlush();
+        }
+        entityManagerFactory.close();
+    }
+
+    @Test
+    void 저장하지_못한_유저는_재시작_후_복구되어_DB에_저장된다() throws Exception {
+        //  DB 에 저장하지 못한 상태에서 비정상 종료
+        InMemoryUserStore crashed = startStore(journalDir);
+        User saved1 = crashed.save(user("user1", "유저1"));
+        User saved2 = crashed.save(user("user2", "유저2").toBuilder().role(UserRole.ADMIN).build());
+        jdbcTemplate.execute("alter table user rename to user_down");
+        assertThatThrownBy(crashed::flush).isInstanceOf(DataAccessException.class);
+        crashed.closeWithoutFlush();
+
+        //  재시작 : journal 에서 복구
+        jdbcTemplate.execute("alter table user_down rename to user");
+        InMemoryUserStore restarted = startStore(journalDir);
+
+        assertThat(restarted.findByLoginId("user1").map(User::getId)).contains(saved1.getId());
+        assertThat(restarted.findById(saved2.getId()).map(User::getNickname)).contains("유저2");
+        assertThat(restarted.findById(saved2.getId()).map(User::getRole)).contains(UserRole.ADMIN);
+        assertThat(restarted.existsByNickname("유저1")).isTrue();
+
+        //  새로 발급하는 id 는 복구한 id 와 겹치지 않는다.
+        User saved3 = restarted.save(user("user3", "유저3"));
+        assertThat(saved3.getId()).isGreaterThan(saved2.getId());
+
+        restarted.flush();
+        assertThat(storedIds()).containsExactly(saved1.getId(), saved2.getId(), saved3.getId());
+        restarted.shutdown();
+
+        //  DB 저장이 끝났으므로 journal 에 복구할 유저가 없다.
+        UserWriteJournal journal = new UserWriteJournal(journalDir);
+        assertThat(journal.recovered()).isEmpty();
+        journal.close();
+
+        //  JPA 로 다시 읽어도 같은 유저 (role 포함)
+        InMemoryUserStore clean = startStore(journalDir);
+        assertThat(clean.findByLoginId("user3").map(User::getId)).contains(saved3.getId());
+        assertThat(clean.findById(saved2.getId()).map(User::getRole)).contains(UserRole.ADMIN);
+        assertThat(userRepository.findByLoginId("user2").map(User::getRole)).contains(UserRole.ADMIN);
+    }
+
+    @Test
+    void 다른_경로로_먼저_저장된_id_와_겹치면_새_id_로_저장한다() throws Exception {
+        InMemoryUserStore store = startStore(journalDir);
+        User saved1 = store.save(user("user1", "유저1"));
+
+        //  id 를 예약한 뒤에 JPA 등 다른 경로로 다음 id 가 먼저 저장된 경우
+        long takenId = saved1.getId() + 1;
+        insertUser(takenId, "other", "other-password");
+
+        User conflicted = store.save(user("user2", "유저2"));
+        assertThat(conflicted.getId()).isEqualTo(takenId);
+
+        store.flush();
+
+        //  다른 유저의 행은 그대로 두고, user2 는 새 id 로 저장된다.
+        assertThat(loginIdOf(takenId)).isEqualTo("other");
+        long newId = store.findByLoginId("user2").map(User::getId).orElseThrow();
+        assertThat(newId).isNotEqualTo(takenId);
+        assertThat(loginIdOf(newId)).isEqualTo("user2");
+        assertThat(store.findById(takenId)).isEmpty();
+        assertThat(store.findById(newId).map(User::getLoginId)).contains("user2");
+        assertThat(storedIds()).hasSize(3);
+
+        //  검색 인덱스 등이 이전 id 를 새 id 로 바꿀 수 있도록 알린다.
+        assertThat(events).singleElement().isInstanceOfSatisfying(UserIdReassignedEvent.class, event -> {
+            assertThat(event.getPreviousId()).isEqualTo(takenId);
+            assertThat(event.getUser().getId()).isEqualTo(newId);
+        });
+        store.shutdown();
+
+        //  journal 에 남은 것이 없으므로 재시작해도 다시 저장하지 않는다.
+        InMemoryUserStore restarted = startStore(journalDir);
+        restarted.flush();
+        assertThat(storedIds()).hasSize(3);
+        assertThat(restarted.findByLoginId("user2").map(User::getId)).contains(newId);
+    }
+
+    @Test
+    void journal_을_다시_반영할_때_이미_저장된_유저는_그대로_둔다() throws Exception {
+        //  DB 저장 후 checkpoint 를 남기기 전에 종료된 경우
+        UserWriteJournal journal = new UserWriteJournal(journalDir);
+        journal.append(user("user1", "유저1").toBuilder().id(5L).build());
+        journal.close();
+        insertUser(5L, "user1", "1234");
+
+        InMemoryUserStore store = startStore(journalDir);
+        store.flush();
+
+        assertThat(storedIds()).containsExactly(5L);
+        assertThat(store.findById(5L).map(User::getLoginId)).contains("user1");
+        assertThat(store.findByLoginId("user1").map(User::getId)).contains(5L);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void 서버_두_대가_같은_DB_를_사용해도_id_가_겹치지_않는다() throws Exception {
+        InMemoryUserStore first = startStore(journalDir.resolve("first"));
+        InMemoryUserStore second = startStore(journalDir.resolve("second"));
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(first.save(user("first" + i, "첫번째" + i)).getId());
+            ids.add(second.save(user("second" + i, "두번째" + i)).getId());
+        }
+        first.flush();
+        second.flush();
+
+        assertThat(ids).hasSize(6);
+        assertThat(storedIds()).hasSize(6);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void 쓰다가_끊긴_마지막_레코드는_버린다() throws Exception {
+        UserWriteJournal journal = new UserWriteJournal(journalDir);
+        journal.append(user("user1", "유저1").toBuilder().id(1L).build());
+        journal.append(user("user2", "유저2").toBuilder().id(2L).role(UserRole.ADMIN).build());
+        journal.close();
+
+        //  마지막 레코드 중간까지만 쓰인 상태로 만든다.
+        try (RandomAccessFile file = new RandomAccessFile(journalDir.resolve("users.journal").toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        UserWriteJournal reopened = new UserWriteJournal(journalDir);
+        List<UserWriteJournal.Entry> recovered = reopened.recovered();
+        assertThat(recovered).hasSize(1);
+        assertThat(recovered.get(0).getUser().getLoginId()).isEqualTo("user1");
+        assertThat(recovered.get(0).getUser().getRole()).isEqualTo(UserRole.USER);
+        reopened.close();
+    }
+
+    private InMemoryUserStore startStore(Path directory) throws Exception {
+        //  긴 flush 주기로 flush 스레드가 테스트 중에 끼어들지 않도록 한다.
+        InMemoryUserStore store = new InMemoryUserStore(userRepository, jdbcTemplate, transactionManager, events::add,
+                directory.toString(), 3_600_000L);
+        stores.add(store);
+        store.start();
+        return store;
+    }
+
+    //  JPA 를 거치지 않고 다른 경로로 저장된 유저
+    private void insertUser(long id, String loginId, String password) {
+        jdbcTemplate.update("insert into user (id, login_id, password, nickname, role) values (?, ?, ?, ?, ?)",
+                id, loginId, password, loginId, UserRole.USER.ordinal());
+    }
+
+    private List<Long> storedIds() {
+        return jdbcTemplate.queryForList("select id from user order by id", Long.class);
+    }
+
+    private String loginIdOf(long id) {
+        return jdbcTemplate.queryForObject("select login_id from user where id = ?", String.class, id);
+    }
+
+    private static User user(String loginId, String nickname) {
+        return User.builder()
+                .loginId(loginId)
+                .password("1234")
+                .nickname(nickname)
+                .role(UserRole.USER)
+                .build();
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.repository.shard;
+
+import com.example.domain.User;
+import com.example.domain.enums.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * H2 in-memory DB 세 개를 shard 로 사용하는 테스트
+ */
+class ShardedUserStoreTest {
+
+    private static final int USER_COUNT = 300;
+
+    private final List<DataSource> shards = List.of(h2("shard0"), h2("shard1"), h2("shard2"));
+    private final List<ShardedUserStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (ShardedUserStore store : stores) {
+            store.close();
+        }
+    }
+
+    @Test
+    void 유저는_loginId_의_bucket_shard_에_저장되고_id_로도_찾을_수_있다() {
+        ShardedUserStore store = start(shards);
+        List<User> users = saveUsers(store, "user", USER_COUNT);
+
+        Set<Long> ids = new HashSet<>();
+        for (User user : users) {
+            assertThat(ids.add(user.getId())).isTrue();
+            assertThat(UserIdAllocator.bucketOf(user.getId())).isEqualTo(UserIdAllocator.bucketOf(user.getLoginId()));
+            assertThat(store.findById(user.getId())).get().extracting(User::getLoginId).isEqualTo(user.getLoginId());
+            assertThat(store.findByLoginId(user.getLoginId())).get().extracting(User::getId).isEqualTo(user.getId());
+            assertThat(store.existsByLoginId(user.getLoginId())).isTrue();
+        }
+        assertThat(store.findByLoginId("nobody")).isEmpty();
+
+        //  모든 shard 에 나눠서 저장된다.
+        for (int shard = 0; shard < shards.size(); shard++) {
+            assertThat(countUsers(shard)).isPositive();
+        }
+        assertThat(countUsers(0) + countUsers(1) + countUsers(2)).isEqualTo(USER_COUNT);
+    }
+
+    @Test
+    void nickname_은_shard_와_상관없이_중복될_수_없다() {
+        ShardedUserStore store = start(shards);
+        store.save(user("first", "같은닉네임", null));
+
+        //  다른 shard 로 가는 loginId 를 골라서 저장
+        String other = "second";
+        for (int i = 0; sameShard("first", other); i++) {
+            other = "second" + i;
+        }
+        String otherLoginId = other;
+        assertThatThrownBy(() -> store.save(user(otherLoginId, "같은닉네임", null))).isInstanceOf(DuplicateKeyException.class);
+        assertThat(store.existsByLoginId(otherLoginId)).isFalse();
+        assertThat(store.existsByNickname("같은닉네임")).isTrue();
+
+        //  loginId 가 중복되면 nickname 예약도 취소된다.
+        assertThatThrownBy(() -> store.save(user("first", "새닉네임", null))).isInstanceOf(DuplicateKeyException.class);
+        assertThat(store.existsByNickname("새닉네임")).isFalse();
+
+        //  OAuth2 유저는 nickname 이 중복되어도 저장한다.
+        User oauthUser = store.save(user("google_1234", "같은닉네임", "google"));
+        assertThat(store.findById(oauthUser.getId())).isPresent();
+    }
+
+    @Test
+    void 서버를_멈추지_않고_shard_를_추가할_수_있다() throws Exception {
+        //  shard 두 개로 시작
+        ShardedUserStore before = start(shards.subList(0, 2));
+        List<User> users = saveUsers(before, "user", USER_COUNT);
+
+        //  shard 를 추가한 설정으로 재시작 (배정표는 그대로)
+        ShardedUserStore store = start(shards);
+        assertThat(countUsers(2)).isZero();
+        users.addAll(saveUsers(store, "more", 30));
+
+        int moved = new ShardRebalancer(shards, 10).rebalance();
+        store.refreshDirectory();
+
+        assertThat(moved).isPositive();
+        assertThat(countUsers(2)).isPositive();
+        assertThat(countUsers(0) + countUsers(1) + countUsers(2)).isEqualTo(users.size());
+        for (User user : users) {
+            assertThat(store.findById(user.getId())).get().extracting(User::getLoginId).isEqualTo(user.getLoginId());
+            assertThat(store.findByLoginId(user.getLoginId())).isPresent();
+        }
+
+        //  다시 실행하면 옮길 bucket 이 없다.
+        assertThat(new ShardRebalancer(shards, 10).rebalance()).isZero();
+    }
+
+    @Test
+    void 유저_목록은_모든_shard_를_합쳐서_id_순으로_조회한다() {
+        ShardedUserStore store = start(shards);
+        List<Long> ids = saveUsers(store, "user", USER_COUNT).stream().map(User::getId).sorted().toList();
+
+        //  페이지를 이어서 조회하면 빠짐없이 id 순서대로
+        List<Long> paged = new ArrayList<>();
+        long cursor = 0L;
+        List<User> page;
+        while (!(page = store.findPage(cursor, 7)).isEmpty()) {
+            page.forEach(user -> paged.add(user.getId()));
+            cursor = page.get(page.size() - 1).getId();
+        }
+        assertThat(paged).isEqualTo(ids);
+
+        List<Long> all = new ArrayList<>();
+        store.forEachUser(user -> all.add(user.getId()));
+        assertThat(all).isEqualTo(ids);
+
+        List<Long> some = List.of(ids.get(0), ids.get(100), ids.get(200), -1L);
+        assertThat(store.findAllById(some).stream().map(User::getId).toList()).containsExactlyInAnyOrder(ids.get(0), ids.get(100), ids.get(200));
+    }
+
+    @Test
+    void 다른_shard_에_남은_유저가_앞쪽에_많아도_페이지에서_빠지는_유저가_없다() {
+        ShardedUserStore store = start(shards);
+        List<Long> ids = saveUsers(store, "user", USER_COUNT).stream().map(User::getId).sorted().toList();
+
+        //  bucket 을 옮긴 뒤 지우지 못한 유저처럼 shard 1 의 유저를 shard 2 에도 복사 (배정표상 shard 2 의 유저가 아님)
+        JdbcTemplate target = new JdbcTemplate(shards.get(2));
+        for (Map<String, Object> row : new JdbcTemplate(shards.get(1)).queryForList("select " + ShardedUserStore.USER_COLUMNS + " from sharded_user")) {
+            target.update("insert into sharded_user (" + ShardedUserStore.USER_COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?)",
+                    row.get("id"), row.get("bucket"), row.get("login_id"), row.get("password"), row.get("nickname"),
+                    row.get("role"), row.get("provider"), row.get("provider_id"));
+        }
+
+        List<Long> paged = new ArrayList<>();
+        long cursor = 0L;
+        List<User> page;
+        while (!(page = store.findPage(cursor, 3)).isEmpty()) {
+            page.forEach(user -> paged.add(user.getId()));
+            cursor = page.get(page.size() - 1).getId();
+        }
+        assertThat(paged).isEqualTo(ids);
+
+        List<Long> all = new ArrayList<>();
+        store.forEachUser(user -> all.add(user.getId()));
+        assertThat(all).isEqualTo(ids);
+    }
+
+    @Test
+    void role_은_enum_이름으로_저장한다() {
+        ShardedUserStore store = start(shards);
+        User admin = store.save(user("admin", "관리자", null).toBuilder().role(UserRole.ADMIN).build());
+
+        int shard = new JdbcTemplate(shards.get(0))
+                .queryForObject("select shard from user_bucket where bucket = ?", Integer.class, UserIdAllocator.bucketOf("admin"));
+        assertThat(new JdbcTemplate(shards.get(shard)).queryForObject("select role from sharded_user where id = ?", String.class, admin.getId()))
+                .isEqualTo("ADMIN");
+        assertThat(store.findById(admin.getId())).get().extracting(User::getRole).isEqualTo(UserRole.ADMIN);
+
+        assertThat(ShardedUserStore.roleOf(null)).isNull();
+    }
+
+    @Test
+    void bucket_을_옮기는_동안_원래_shard_에_늦게_저장된_유저도_잃어버리지_않는다() throws Exception {
+        ShardedUserStore store = start(shards.subList(0, 2));
+        User user = store.save(user("late-source", "late-source", null));
+        int bucket = UserIdAllocator.bucketOf(user.getId());
+        JdbcTemplate meta = new JdbcTemplate(shards.get(0));
+        int source = meta.queryForObject("select shard from user_bucket where bucket = ?", Integer.class, bucket);
+        int target = 2;
+
+        ShardRebalancer rebalancer = new ShardRebalancer(shards, 300);
+        Thread move = new Thread(() -> {
+            try {
+                rebalancer.moveBucket(bucket, target);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        start(shards);
+        move.start();
+
+        //  새 shard 에 배정된 직후 (moving 표시를 보기 전에 검사를 통과한 저장이 늦게 도착한 경우)
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meta.queryForObject("select shard from user_bucket where bucket = ?", Integer.class, bucket) != target) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+        long lateId = user.getId() + UserIdAllocator.BUCKETS;
+        new JdbcTemplate(shards.get(source)).update("insert into sharded_user (" + ShardedUserStore.USER_COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?)",
+                lateId, bucket, "late-user", "password", "late-user", "USER", null, null);
+        move.join();
+
+        assertThat(countUsers(source)).isZero();
+        assertThat(new JdbcTemplate(shards.get(target)).queryForList("select id from sharded_user where bucket = ?", Long.class, bucket))
+                .containsExactlyInAnyOrder(user.getId(), lateId);
+    }
+
+    @Test
+    void 옮기는_중인_bucket_에는_저장할_수_없다() {
+        ShardedUserStore store = start(shards);
+        int bucket = UserIdAllocator.bucketOf("moving-user");
+
+        new JdbcTemplate(shards.get(0)).update("update user_bucket set moving = 1 where bucket = ?", bucket);
+        store.refreshDirectory();
+
+        assertThatThrownBy(() -> store.save(user("moving-user", "moving", null))).isInstanceOf(TransientDataAccessResourceException.class);
+        assertThat(store.existsByNickname("moving")).isFalse();
+    }
+
+    @Test
+    void 같은_millis_에_발급한_id_도_겹치지_않는다() {
+        UserIdAllocator allocator = new UserIdAllocator(3, () -> 1_800_000_000_000L);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            long id = allocator.nextId(i % UserIdAllocator.BUCKETS);
+            assertThat(id).isPositive();
+            assertThat(UserIdAllocator.bucketOf(id)).isEqualTo(i % UserIdAllocator.BUCKETS);
+            assertThat(ids.add(id)).isTrue();
+        }
+    }
+
+    private ShardedUserStore start(List<DataSource> dataSources) {
+        ShardedUserStore store = new ShardedUserStore(dataSources, 0, 60_000);
+        store.start();
+        stores.add(store);
+        return store;
+    }
+
+    private static List<User> saveUsers(ShardedUserStore store, String prefix, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(store.save(user(prefix + i, prefix + "-nickname" + i, null)));
+        }
+        return users;
+    }
+
+    private static User user(String loginId, String nickname, String provider) {
+        return User.builder()
+                .loginId(loginId)
+                .password("password")
+                .nickname(nickname)
+                .role(UserRole.USER)
+                .provider(provider)
+                .build();
+    }
+
+    private boolean sameShard(String loginId, String otherLoginId) {
+        int first = new JdbcTemplate(shards.get(0))
+                .queryForObject("select shard from user_bucket where bucket = ?", Integer.class, UserIdAllocator.bucketOf(loginId));
+        int other = new JdbcTemplate(shards.get(0))
+                .queryForObject("select shard from user_bucket where bucket = ?", Integer.class, UserIdAllocator.bucketOf(otherLoginId));
+        return first == other;
+    }
+
+    private int countUsers(int shard) {
+        return new JdbcTemplate(shards.get(shard)).queryForObject("select count(*) from sharded_user", Integer.class);
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        return new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.search;
+
+import com.example.domain.User;
+import com.example.domain.event.UserIdReassignedEvent;
+import com.example.domain.event.UserJoinedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserSearchIndexTest {
+
+    //  회원가입 event 로만 추가하므로 DB 관련 의존성은 사용하지 않는다.
+    private final UserSearchIndex index = new UserSearchIndex(null);
+
+    @Test
+    void 늦게_추가된_작은_id_의_유저도_다음_페이지에서_찾는다() {
+        add(1L, "tester1", "첫번째");
+        add(2L, "tester2", "두번째");
+        add(4L, "tester4", "네번째");
+
+        UserSearchIndex.Page first = index.search("tester", null, 2);
+        assertThat(first.ids()).containsExactly(1L, 2L);
+        assertThat(first.nextCursor()).isNotNull();
+
+        //  id 3 의 회원가입이 id 4 보다 늦게 commit 된 경우
+        add(3L, "tester3", "세번째");
+        add(5L, "tester5", "다섯번째");
+
+        UserSearchIndex.Page second = index.search("tester", first.nextCursor(), 2);
+        assertThat(second.ids()).containsExactly(4L, 3L);
+
+        UserSearchIndex.Page third = index.search("tester", second.nextCursor(), 2);
+        assertThat(third.ids()).containsExactly(5L);
+        assertThat(third.nextCursor()).isNull();
+    }
+
+    @Test
+    void 페이지를_이어서_조회하면_모든_유저를_한_번씩_찾는다() {
+        for (long id = 100; id > 0; id--) {
+            add(id, "user" + id, id % 3 == 0 ? "매니저" + id : "회원" + id);
+        }
+
+        List<Long> found = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            UserSearchIndex.Page page = index.search("매니저", cursor, 7);
+            found.addAll(page.ids());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(found).hasSize(33).doesNotHaveDuplicates();
+        assertThat(pages).isEqualTo(5);
+    }
+
+    @Test
+    void 두_글자_검색어는_2_gram_으로_찾고_한_글자는_받지_않는다() {
+        add(1L, "hong", "홍길동");
+        add(2L, "kim", "김철수");
+        add(3L, "gildong", "길동이");
+
+        assertThat(index.search("길동", null, 10).ids()).containsExactly(1L, 3L);
+        assertThat(index.search("KI", null, 10).ids()).containsExactly(2L);
+        assertThat(index.search("없음", null, 10).ids()).isEmpty();
+        assertThatThrownBy(() -> index.search("길", null, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void gram_이_모두_있어도_이어지지_않으면_찾지_않는다() {
+        add(1L, "abcxbcd", "nickname");
+        add(2L, "xabcdx", "nickname2");
+
+        //  1번 유저는 abc, bcd 를 모두 가지고 있지만 abcd 를 포함하지 않는다.
+        assertThat(index.search("abcd", null, 10).ids()).containsExactly(2L);
+    }
+
+    @Test
+    void 같은_유저를_다시_추가하면_무시한다() {
+        add(1L, "tester", "nickname");
+        add(1L, "tester", "nickname");
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("test", null, 10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    void 저장_중_id_가_바뀐_유저는_새_id_로_찾는다() {
+        add(1L, "tester1", "nickname");
+        add(2L, "tester2", "nickname");
+        reassign(2L, 7L, "tester2", "nickname");
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("tester2", null, 10).ids()).containsExactly(7L);
+        assertThat(index.search("tester", null, 10).ids()).containsExactly(1L, 7L);
+    }
+
+    @Test
+    void id_변경이_회원가입보다_먼저_도착해도_한_번만_추가한다() {
+        reassign(2L, 7L, "tester2", "nickname");
+        add(2L, "tester2", "nickname");
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("tester2", null, 10).ids()).containsExactly(7L);
+    }
+
+    private void add(long id, String loginId, String nickname) {
+        index.onUserJoined(new UserJoinedEvent(User.builder().id(id).loginId(loginId).nickname(nickname).build()));
+    }
+
+    private void reassign(long previousId, long id, String loginId, String nickname) {
+        index.onUserIdReassigned(new UserIdReassignedEvent(previousId,
+                User.builder().id(id).loginId(loginId).nickname(nickname).build()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserExportServiceTest {
+
+    @Test
+    void 수식으로_시작하는_값은_앞에_따옴표를_붙인다() {
+        assertThat(UserExportService.escapeCsv("=HYPERLINK(\"http://evil\")")).isEqualTo("\"'=HYPERLINK(\"\"http://evil\"\")\"");
+        assertThat(UserExportService.escapeCsv("+1")).isEqualTo("'+1");
+        assertThat(UserExportService.escapeCsv("-1")).isEqualTo("'-1");
+        assertThat(UserExportService.escapeCsv("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+    }
+
+    @Test
+    void 쉼표_따옴표_줄바꿈이_있으면_따옴표로_감싼다() {
+        assertThat(UserExportService.escapeCsv("닉네임")).isEqualTo("닉네임");
+        assertThat(UserExportService.escapeCsv("a,b")).isEqualTo("\"a,b\"");
+        assertThat(UserExportService.escapeCsv("a\nb")).isEqualTo("\"a\nb\"");
+        assertThat(UserExportService.escapeCsv("")).isEmpty();
+        assertThat(UserExportService.escapeCsv(null)).isEmpty();
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.service;
+
+import com.example.domain.User;
+import com.example.domain.enums.UserRole;
+import com.example.repository.DetachedUserSummary;
+import com.example.repository.UserStore;
+import com.example.repository.UserSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 실제 애플리케이션처럼 Spring 이 만든 트랜잭션 proxy 를 거쳐서 조회를 합치는지 확인
+ * (UserStore 는 JpaUserStore 처럼 조회마다 readOnly 트랜잭션을 건다.)
+ */
+class UserLookupServiceTest {
+
+    private static final int CALLERS = 32;
+
+    private final BlockingUserStore userStore = new BlockingUserStore();
+    private final AnnotationConfigApplicationContext context = createContext();
+    private final UserLookupService userLookupService = context.getBean(UserLookupService.class);
+    private final CountingTransactionManager transactionManager = context.getBean(CountingTransactionManager.class);
+
+    private final List<Thread> threads = new ArrayList<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS, recordingThreadFactory());
+
+    @AfterEach
+    void tearDown() {
+        userStore.release.countDown();
+        executor.shutdownNow();
+        context.close();
+    }
+
+    @Test
+    void 조회를_합치는_곳은_트랜잭션_밖이다() {
+        assertThat(AopUtils.isAopProxy(userLookupService)).isFalse();
+        assertThat(AopUtils.isAopProxy(context.getBean(UserStore.class))).isTrue();
+    }
+
+    @Test
+    void 같은_loginId_동시_조회는_트랜잭션_하나_DB_조회_한_번으로_합쳐진다() throws Exception {
+        List<Future<UserSummary>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> userLookupService.getLoginUserSummaryByLoginId("service")));
+        }
+
+        //  leader 는 release 를, 나머지는 leader 의 결과를 기다리는 상태가 될 때까지 대기
+        awaitAllWaiting();
+
+        //  기다리는 요청들은 트랜잭션(커넥션)을 잡고 있지 않다.
+        assertThat(transactionManager.active.get()).isEqualTo(1);
+        userStore.release.countDown();
+
+        for (Future<UserSummary> result : results) {
+            UserSummary loginUser = result.get(5, TimeUnit.SECONDS);
+            assertThat(loginUser).isNotInstanceOf(User.class);
+            assertThat(loginUser.getLoginId()).isEqualTo("service");
+        }
+        assertThat(userStore.queries.get()).isEqualTo(1);
+        assertThat(transactionManager.begun.get()).isEqualTo(1);
+        assertThat(transactionManager.maxActive.get()).isEqualTo(1);
+    }
+
+    @Test
+    void 조회가_실패하면_기다리던_요청도_같은_예외를_받고_다음_조회는_다시_실행된다() throws Exception {
+        List<Future<UserSummary>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> userLookupService.getLoginUserSummaryById(7L)));
+        }
+
+        awaitAllWaiting();
+        userStore.release.countDown();
+
+        for (Future<UserSummary> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(userStore.queries.get()).isEqualTo(1);
+        assertThat(transactionManager.rolledBack.get()).isEqualTo(1);
+
+        //  실패한 결과는 남겨두지 않는다. (유저가 없으면 예외 대신 null)
+        assertThat(userLookupService.getLoginUserSummaryById(7L)).isNull();
+        assertThat(userStore.queries.get()).isEqualTo(2);
+        assertThat(transactionManager.begun.get()).isEqualTo(2);
+        assertThat(transactionManager.active.get()).isEqualTo(0);
+    }
+
+    //  userStore 도 bean 으로 등록해서 트랜잭션 proxy 를 씌운다.
+    private AnnotationConfigApplicationContext createContext() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(TestConfig.class);
+        context.registerBean(UserStore.class, () -> userStore);
+        context.refresh();
+        return context;
+    }
+
+    private void awaitAllWaiting() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            synchronized (threads) {
+                if (threads.size() == CALLERS && threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+                    return;
+                }
+            }
+            Thread.sleep(1);
+        }
+        throw new AssertionError("모든 요청이 대기 상태가 되지 않았습니다.");
+    }
+
+    private ThreadFactory recordingThreadFactory() {
+        return runnable -> {
+            Thread thread = new Thread(runnable);
+            synchronized (threads) {
+                threads.add(thread);
+            }
+            return thread;
+        };
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TestConfig {
+
+        @Bean
+        CountingTransactionManager transactionManager() {
+            return new CountingTransactionManager();
+        }
+
+        @Bean
+        UserLookupService userLookupService(UserStore userStore) {
+            return new UserLookupService(userStore);
+        }
+    }
+
+    //  시작한 트랜잭션 수와 동시에 열려있는 트랜잭션 수를 센다.
+    static class CountingTransactionManager implements PlatformTransactionManager {
+        final AtomicInteger begun = new AtomicInteger();
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final AtomicInteger rolledBack = new AtomicInteger();
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            begun.incrementAndGet();
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            active.decrementAndGet();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            rolledBack.incrementAndGet();
+            active.decrementAndGet();
+        }
+    }
+
+    //  release 될 때까지 조회를 붙잡아두는 UserStore (JpaUserStore 처럼 조회마다 트랜잭션)
+    @Transactional(readOnly = true)
+    static class BlockingUserStore implements UserStore {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger queries = new AtomicInteger();
+
+        @Override
+        public Optional<UserSummary> findSummaryByLoginId(String loginId) {
+            queries.incrementAndGet();
+            await();
+            return Optional.of(new DetachedUserSummary(loginId, "서비스", UserRole.USER));
+        }
+
+        @Override
+        public Optional<UserSummary> findSummaryById(Long id) {
+            //  첫 조회만 실패
+            if (queries.incrementAndGet() == 1) {
+                await();
+                throw new IllegalStateException("db down");
+            }
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean existsByLoginId(String loginId) {
+            return false;
+        }
+
+        @Override
+        public boolean existsByNickname(String nickname) {
+            return false;
+        }
+
+        @Override
+        public Optional<User> findById(Long id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<User> findByLoginId(String loginId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public User save(User user) {
+            return user;
+        }
+
+        @Override
+        public List<User> findPage(long cursor, int size) {
+            return List.of();
+        }
+
+        @Override
+        public List<User> findAllById(Collection<Long> ids) {
+            return List.of();
+        }
+
+        @Override
+        public void forEachUser(Consumer<User> action) {
+        }
+
+        private void await() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
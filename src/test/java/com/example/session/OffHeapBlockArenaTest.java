@@ -0,0 +1,83 @@
+package com.example.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffHeapBlockArenaTest {
+
+    //  segment 하나에 block 16개, segment 최대 2개
+    private static final int SEGMENT_SIZE = OffHeapBlockArena.BLOCK_SIZE * 16;
+
+    @TempDir
+    Path directory;
+
+    private OffHeapBlockArena arena;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        arena = new OffHeapBlockArena(directory, SEGMENT_SIZE, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        arena.close();
+    }
+
+    @Test
+    void 여러_block_에_걸쳐_저장하고_읽는다() throws IOException {
+        byte[] small = random(10);
+        byte[] large = random(OffHeapBlockArena.BLOCK_DATA_SIZE * 20 + 7);    //  segment 두 개에 걸친다
+        byte[] empty = new byte[0];
+
+        int smallBlock = arena.write(small);
+        int largeBlock = arena.write(large);
+        int emptyBlock = arena.write(empty);
+
+        assertThat(arena.read(smallBlock, small.length)).isEqualTo(small);
+        assertThat(arena.read(largeBlock, large.length)).isEqualTo(large);
+        assertThat(arena.read(emptyBlock, 0)).isEmpty();
+        assertThat(arena.usedBlocks()).isEqualTo(1 + 21 + 1);
+        assertThat(arena.mappedBytes()).isEqualTo(SEGMENT_SIZE * 2L);
+    }
+
+    @Test
+    void 반납한_block_을_다시_사용한다() throws IOException {
+        byte[] first = random(OffHeapBlockArena.BLOCK_DATA_SIZE * 30);
+        int block = arena.write(first);
+        arena.free(block);
+        assertThat(arena.usedBlocks()).isZero();
+
+        //  block 30개를 반납 => 32개 중 30개를 다시 쓸 수 있다.
+        byte[] second = random(OffHeapBlockArena.BLOCK_DATA_SIZE * 32);
+        int secondBlock = arena.write(second);
+        assertThat(arena.read(secondBlock, second.length)).isEqualTo(second);
+        assertThat(arena.usedBlocks()).isEqualTo(32);
+    }
+
+    @Test
+    void 공간이_부족하면_저장하지_않는다() throws IOException {
+        byte[] data = random(OffHeapBlockArena.BLOCK_DATA_SIZE * 20);
+        int block = arena.write(data);
+
+        assertThatThrownBy(() -> arena.write(random(OffHeapBlockArena.BLOCK_DATA_SIZE * 13))).isInstanceOf(IOException.class);
+
+        //  기존 데이터와 사용량은 그대로
+        assertThat(arena.usedBlocks()).isEqualTo(20);
+        assertThat(arena.read(block, data.length)).isEqualTo(data);
+    }
+
+    private static byte[] random(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
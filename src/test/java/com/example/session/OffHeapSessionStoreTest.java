@@ -0,0 +1,153 @@
+package com.example.session;
+
+import com.example.auth.PrincipalDetails;
+import com.example.domain.User;
+import com.example.domain.enums.UserRole;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Session;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.session.StandardSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PersistentManager 대신 StandardManager 에 Store 만 연결해서 내보내기(save) / 다시 읽기(load) 확인
+ */
+class OffHeapSessionStoreTest {
+
+    private static final String PASSWORD_HASH = "$2a$10$offheapsessionstoretesthashvalue";
+
+    @TempDir
+    Path directory;
+
+    private final StandardManager manager = new StandardManager();
+    private OffHeapSessionStore store;
+
+    @BeforeEach
+    void setUp() throws LifecycleException {
+        manager.setContext(new StandardContext());
+        //  segment 하나에 block 64개, segment 최대 4개
+        store = new OffHeapSessionStore(directory, OffHeapBlockArena.BLOCK_SIZE * 64, 4);
+        store.setManager(manager);
+        store.start();
+    }
+
+    @AfterEach
+    void tearDown() throws LifecycleException {
+        store.stop();
+    }
+
+    @Test
+    void 내보낸_세션을_다시_읽으면_로그인_정보가_그대로다() throws Exception {
+        StandardSession session = session("session-1", System.currentTimeMillis(), 1800);
+        session.setAttribute("cart", "item-1");
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, securityContext());
+
+        store.save(session);
+        assertThat(store.getSize()).isEqualTo(1);
+        assertThat(store.keys()).containsExactly("session-1");
+        assertThat(store.usedBytes()).isPositive();
+
+        Session loaded = store.load("session-1");
+        assertThat(loaded.getIdInternal()).isEqualTo("session-1");
+        assertThat(loaded.getManager()).isSameAs(manager);
+
+        StandardSession loadedSession = (StandardSession) loaded;
+        assertThat(loadedSession.getAttribute("cart")).isEqualTo("item-1");
+        SecurityContext securityContext = (SecurityContext) loadedSession.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+        PrincipalDetails principal = (PrincipalDetails) securityContext.getAuthentication().getPrincipal();
+        assertThat(principal.getUsername()).isEqualTo("user1");
+        assertThat(principal.getPermissions()).isEqualTo(UserRole.permissionsOf(UserRole.USER));
+    }
+
+    @Test
+    void 비밀번호_hash_는_세션_파일에_남지_않는다() throws Exception {
+        StandardSession session = session("session-1", System.currentTimeMillis(), 1800);
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, securityContext());
+        store.save(session);
+
+        assertThat(segmentFiles()).isNotEmpty().allSatisfy(file ->
+                assertThat(new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1)).doesNotContain(PASSWORD_HASH));
+
+        SecurityContext loaded = (SecurityContext) ((StandardSession) store.load("session-1"))
+                .getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+        assertThat(((PrincipalDetails) loaded.getAuthentication().getPrincipal()).getPassword()).isNull();
+    }
+
+    @Test
+    void 만료된_세션만_만료_확인_대상으로_넘긴다() throws Exception {
+        long now = System.currentTimeMillis();
+        store.save(session("expired", now - TimeUnit.SECONDS.toMillis(10), 5));
+        store.save(session("active", now, 5));
+        store.save(session("no-timeout", now - TimeUnit.DAYS.toMillis(1), -1));
+
+        assertThat(store.expiredKeys()).containsExactly("expired");
+    }
+
+    @Test
+    void 지우거나_다시_저장하면_이전_block_을_반납한다() throws Exception {
+        StandardSession session = session("session-1", System.currentTimeMillis(), 1800);
+        session.setAttribute("cart", "item-1");
+        store.save(session);
+        long usedBytes = store.usedBytes();
+
+        //  같은 세션을 다시 내보내도 사용량이 늘지 않는다.
+        store.save(session);
+        assertThat(store.usedBytes()).isEqualTo(usedBytes);
+
+        store.remove("session-1");
+        assertThat(store.usedBytes()).isZero();
+        assertThat(store.getSize()).isZero();
+        assertThat(store.load("session-1")).isNull();
+
+        store.save(session("session-2", System.currentTimeMillis(), 1800));
+        store.save(session("session-3", System.currentTimeMillis(), 1800));
+        store.clear();
+        assertThat(store.usedBytes()).isZero();
+        assertThat(store.keys()).isEmpty();
+    }
+
+    private StandardSession session(String id, long lastAccessedTime, int maxInactiveInterval) {
+        StandardSession session = (StandardSession) manager.createEmptySession();
+        session.setValid(true);
+        session.setCreationTime(lastAccessedTime);
+        session.setMaxInactiveInterval(maxInactiveInterval);
+        session.setId(id, false);
+        return session;
+    }
+
+    private static SecurityContext securityContext() {
+        User user = User.builder()
+                .id(1L)
+                .loginId("user1")
+                .password(PASSWORD_HASH)
+                .nickname("유저1")
+                .role(UserRole.USER)
+                .build();
+        PrincipalDetails principal = new PrincipalDetails(user);
+        return new SecurityContextImpl(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}